@@ -3,12 +3,27 @@ package battleship.client.controllers;
 import battleship.client.controllers.exceptions.ExistsException;
 import battleship.client.controllers.exceptions.NotExistsException;
 import battleship.client.controllers.exceptions.ReachedLimitException;
+import battleship.client.controllers.messages.Capability;
+import battleship.client.controllers.messages.ChannelCommunicator;
 import battleship.client.controllers.messages.Communicator;
+import battleship.client.controllers.messages.StreamCommunicator;
+import battleship.client.controllers.transport.Connection;
+import battleship.client.controllers.transport.Transport;
 import battleship.client.controllers.messages.Message;
+import battleship.client.controllers.messages.Payload;
+import battleship.client.controllers.workers.CountingThreadFactory;
+import battleship.client.controllers.workers.GameCore;
 import battleship.client.controllers.workers.KeepAlive;
 import battleship.client.controllers.workers.MessagesManager;
+import battleship.client.controllers.workers.Operations;
+import battleship.client.controllers.workers.ReconnectEngine;
+import battleship.client.controllers.workers.ResumeState;
+import battleship.client.controllers.workers.RingBuffer;
+import battleship.client.controllers.workers.RttEstimator;
+import battleship.client.controllers.workers.ServerPool;
 import battleship.client.controllers.workers.StateMachine;
 import battleship.client.models.BoardState;
+import battleship.client.models.GameSnapshot;
 import battleship.client.models.Model;
 import battleship.client.views.StageManager;
 import javafx.scene.control.Alert;
@@ -16,15 +31,17 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Application Controller
@@ -33,31 +50,78 @@ public class Controller {
 
     private final Logger logger = LogManager.getLogger();
 
+    /** Deadline of the welcome message (the server may be busy accepting connections, the RTT is not known yet) */
+    private static final int WELCOME_MSG_TIMEOUT_MS = 15_000;
+    /**
+     * Deadline of a response (a late response is not a failed connection, the failure detector tells that)
+     */
     private static final int RESPONSE_MSG_TIMEOUT_MS = 15_000;
     private static final int SOCKET_CONNECTION_TIMEOUT_MS = 10_000;
     private static final int RECONNECT_TIMEOUT_MS = 60_000;
+    private static final int RECONNECT_BACKOFF_BASE_MS = 500;
+    private static final int RECONNECT_BACKOFF_MAX_MS = 8_000;
     private static final int ROOM_CODE_LENGTH = 4;
-    public static final int RECONNECT_ATTEMPT_SLEEP_MS = 5_000;
+    private static final boolean IS_CHANNEL_COMMUNICATOR = true;
 
     private final Model model;
+    private final Executor operationsExecutor;
+    private final ReentrantLock reconnectLock = new ReentrantLock();
+    private final ReconnectEngine reconnectEngine;
+    private final RttEstimator rttEstimator;
+    private final GameCore gameCore = new GameCore();
+    private final ResumeState resumeState = new ResumeState();
 
-    private Socket socket;
     private Communicator communicator;
+    /**
+     * Servers to connect to (parsed once on connect)
+     */
+    private volatile ServerPool serverPool;
+    /**
+     * Server connected to (it hosts the session, reconnects reuse it)
+     */
+    private volatile ServerPool.Endpoint endpoint;
+    /**
+     * Session number, incremented on each (re)connect, so that concurrently failed requests reconnect only once
+     */
+    private volatile int session = 0;
+    /**
+     * Nickname set on connect (set again when a session is restored)
+     */
+    private volatile String nickname;
+    private Set<Capability> capabilities = EnumSet.noneOf(Capability.class);
     private MessagesManager messagesManager;
-    private StateMachine stateMachine;
+    private volatile double phiThreshold = MessagesManager.DEFAULT_PHI_THRESHOLD;
+    private volatile RingBuffer.WaitStrategy inboxWaitStrategy = RingBuffer.WaitStrategy.BLOCKING;
+    private volatile StateMachine stateMachine;
 
-    private Thread keepAliveThread;
+    private CountingThreadFactory threadFactory = new CountingThreadFactory("session");
+    private KeepAlive keepAlive;
     private Thread messagesManagerThread;
     private Thread stateMachineThread;
 
     private StageManager stageManager;
 
     /**
-     * Constructs an application controller
+     * Constructs an application controller, operations run on the shared (virtual threads) executor
      * @param model Application model
      */
     public Controller(Model model) {
+        this(model, Operations.get());
+    }
+
+    /**
+     * Constructs an application controller
+     * @param model Application model
+     * @param operationsExecutor Executor of operations (connect, createRoom, ...), operations block awaiting responses
+     */
+    public Controller(Model model, Executor operationsExecutor) {
         this.model = model;
+        this.operationsExecutor = operationsExecutor;
+        this.rttEstimator = new RttEstimator(smoothedRttMs -> stageManager.updateLater(model.clientState.rttMsProperty(),
+                () -> model.clientState.rttMsProperty().set(Math.round(smoothedRttMs * 10) / 10.0)));
+        this.reconnectEngine = new ReconnectEngine(this::attemptReconnect, RECONNECT_BACKOFF_BASE_MS, RECONNECT_BACKOFF_MAX_MS, RECONNECT_TIMEOUT_MS);
+        // the model is a projection of the latest snapshot, a pending older one is superseded
+        gameCore.addListener(snapshot -> stageManager.updateLater(gameCore, () -> model.apply(snapshot)));
     }
 
     /**
@@ -77,12 +141,101 @@ public class Controller {
     }
 
     /**
-     * Connects to the server
-     * Launches Messages Manager, Keep Alive, State Machine threads
+     * Returns count of threads created in the current session (since the last connect), operations are not included
+     * @return Count
+     */
+    public int getSessionThreadsCount() {
+        return threadFactory.getCreatedCount();
+    }
+
+    /**
+     * Returns the reconnect engine (attempts and latency metrics)
+     * @return Reconnect Engine
+     */
+    public ReconnectEngine getReconnectEngine() {
+        return reconnectEngine;
+    }
+
+    /**
+     * Returns the RTT estimator (smoothed RTT and its variation)
+     * @return RTT Estimator
+     */
+    public RttEstimator getRttEstimator() {
+        return rttEstimator;
+    }
+
+    /**
+     * Returns the resume state (resume token and the last applied room event)
+     * @return Resume State
+     */
+    public ResumeState getResumeState() {
+        return resumeState;
+    }
+
+    /**
+     * Cancels the reconnect in progress (if any), the session is then ended as if reconnecting failed
+     * @return True if there has been a reconnect in progress
+     */
+    public boolean cancelReconnect() {
+        return reconnectEngine.cancel();
+    }
+
+    /**
+     * Sets the suspicion level (of the connection failure detector) the connection is considered failed (and reconnected) at
+     * Applies to the current session as well
+     * @param phiThreshold Phi threshold
+     */
+    public void setPhiThreshold(double phiThreshold) {
+        this.phiThreshold = phiThreshold;
+        MessagesManager messagesManager = this.messagesManager;
+        if (messagesManager != null) {
+            messagesManager.setPhiThreshold(phiThreshold);
+        }
+    }
+
+    /**
+     * Sets the wait strategy of the state machine inbox (the hand-off from the network to the state layer)
+     * Applies from the next connect
+     * @param inboxWaitStrategy Wait strategy
+     */
+    public void setInboxWaitStrategy(RingBuffer.WaitStrategy inboxWaitStrategy) {
+        this.inboxWaitStrategy = inboxWaitStrategy;
+    }
+
+    /**
+     * Returns the game core (snapshots of the game state for readers off the JavaFX thread)
+     * @return Game Core
+     */
+    public GameCore getGameCore() {
+        return gameCore;
+    }
+
+    /**
+     * Returns the state machine of the session (its inbox gauges)
+     * @return State Machine, null if not connected yet
+     */
+    public StateMachine getStateMachine() {
+        return stateMachine;
+    }
+
+    /**
+     * Returns the current suspicion level of the connection failure detector
+     * @return Phi, 0 if not connected
+     */
+    public double getPhi() {
+        MessagesManager messagesManager = this.messagesManager;
+        return messagesManager == null ? 0 : messagesManager.getPhi();
+    }
+
+    /**
+     * Connects to the server (the best one of the servers)
+     * Servers of several instances are probed for their RTT and load, the best one with capacity is connected to,
+     * the next one if it has reached its clients count limit (or is not reachable)
+     * Launches Messages Manager, State Machine threads and Keep Alive (on the shared scheduler)
      * Exceptions are forwarded through returned future
      * - IllegalArgument, Exists, ReachedLimit, Timeout, IO, Socket, Runtime
-     * @param address Server address
-     * @param port Server port
+     * @param address Server addresses separated by ',' (an address may carry its port, "host:port")
+     * @param port Server port (of addresses not carrying it)
      * @param nickname Nickname
      * @return Future
      */
@@ -91,31 +244,22 @@ public class Controller {
 
         CompletableFuture<Void> future = new CompletableFuture<>();
         try {
-            int port_ = Integer.parseInt(port);
-            new Thread(() -> {
+            ServerPool serverPool_ = new ServerPool(ServerPool.parse(address, port));
+            serverPool = serverPool_;
+            threadFactory = new CountingThreadFactory("session");
+            rttEstimator.reset();
+            resumeState.reset();
+            this.nickname = nickname;
+            operationsExecutor.execute(() -> {
                 try {
-                    socket = new Socket();
-                    socket.connect(new InetSocketAddress(address, port_), SOCKET_CONNECTION_TIMEOUT_MS);
-                    communicator = new Communicator(socket);
-                    stateMachine = new StateMachine(new StateMachineController(model, stageManager));
-                    messagesManager = new MessagesManager(communicator, stateMachine, this::reconnect);
-
-                    keepAliveThread = new Thread(new KeepAlive(communicator));
-                    messagesManagerThread = new Thread(messagesManager);
-                    stateMachineThread = new Thread(stateMachine);
-
-                    CompletableFuture<Message> welcomeFuture = expectMessage(Message.Type.WELCOME, Message.Type.LIMIT_CLIENTS);
-                    logger.debug("Start Messages Manager Thread");
-                    messagesManagerThread.start();
-                    Message welcomeMessage = awaitMessage(welcomeFuture);
-                    if (welcomeMessage.getType() == Message.Type.LIMIT_CLIENTS) {
-                        logger.info("Reached Clients Count Limit");
-                        future.completeExceptionally(new ReachedLimitException(Integer.parseInt(welcomeMessage.getParameter(0))));
-                    }
+                    stateMachine = new StateMachine(new StateMachineController(model, gameCore, stageManager, resumeState), inboxWaitStrategy);
+                    stateMachineThread = threadFactory.newThread(stateMachine);
+
+                    List<ServerPool.Endpoint> candidates = serverPool_.rank(false);
+                    openSession(candidates.isEmpty() ? serverPool_.getEndpoints() : candidates);
                     logger.info("Welcome");
 
-                    CompletableFuture<Message> responseFuture = expectMessage(Message.Type.ACK, Message.Type.NICKNAME_EXISTS, Message.Type.REJOIN);
-                    sendMessage(new Message(Message.Type.NICKNAME_SET, nickname));
+                    CompletableFuture<Message> responseFuture = request(new Message(Message.Type.NICKNAME_SET, nickname), Message.Type.ACK, Message.Type.NICKNAME_EXISTS, Message.Type.REJOIN);
 
                     Message message = awaitMessage(responseFuture);
                     if (message.getType() == Message.Type.ACK) {
@@ -127,21 +271,25 @@ public class Controller {
                         future.completeExceptionally(new ExistsException());
                     }
                     else {
-                        logger.info("Rejoin: " + message.getParameter(1));
-                        model.applicationState.roomCodeProperty().set(message.getParameter(1));
+                        Payload.Rejoin rejoin = (Payload.Rejoin) message.getPayload();
+                        logger.info("Rejoin: " + rejoin.code());
+                        stageManager.updateLater(() -> model.applicationState.roomCodeProperty().set(rejoin.code()));
                         stageManager.setSceneLater(StageManager.Scene.Room);
                     }
 
-                    model.opponentState.isRespondingProperty().set(true);
-                    model.clientState.isRespondingProperty().set(true);
+                    stageManager.updateLater(() -> {
+                        model.opponentState.isRespondingProperty().set(true);
+                        model.clientState.isRespondingProperty().set(true);
+                    });
 
-                    logger.trace("Start Keep Alive Thread");
-                    keepAliveThread.start();
+                    logger.trace("Start Keep Alive");
+                    keepAlive.start();
                     logger.trace("Start State Machine Thread");
                     stateMachineThread.start();
+                    logger.debug("Session Threads Created: " + getSessionThreadsCount());
                     future.complete(null);
                 }
-                catch (IOException | TimeoutException e) {
+                catch (IOException | TimeoutException | ReachedLimitException e) {
                     logger.error(e.getMessage());
                     future.completeExceptionally(e);
                 }
@@ -149,10 +297,10 @@ public class Controller {
                     handleRuntimeException();
                     future.completeExceptionally(e);
                 }
-            }).start();
+            });
         }
-        catch (NumberFormatException e) {
-            logger.trace("Invalid Number Format: " + e.getMessage());
+        catch (IllegalArgumentException e) {
+            logger.trace("Invalid Servers: " + e.getMessage());
             future.completeExceptionally(new IllegalArgumentException(e.getMessage()));
         }
 
@@ -161,33 +309,54 @@ public class Controller {
 
     /**
      * Creates a room
+     * If the server has reached its rooms count limit, the room is created on another server with capacity (if any),
+     * the client switches to it
      * Exceptions are forwarded through returned future
      * - ReachedLimit, IO, Timeout, Runtime
+     * @param isSalvo True if salvo room (several shots per turn), false if classic
      * @return Future
      */
-    public CompletableFuture<Void> createRoom() {
+    public CompletableFuture<Void> createRoom(boolean isSalvo) {
         logger.trace("Creating Room");
 
         CompletableFuture<Void> future = new CompletableFuture<>();
-        new Thread(() -> {
-            CompletableFuture<Message> responseFuture = expectMessage(Message.Type.ROOM_CREATED, Message.Type.LIMIT_ROOMS);
+        int session_ = session;
+        operationsExecutor.execute(() -> {
+            int requestSession = session_;
             try {
-                sendMessage(new Message(Message.Type.ROOM_CREATE));
-                Message response = awaitMessage(responseFuture);
+                Message response = requestRoomCreate(isSalvo);
+                if (response.getType() == Message.Type.LIMIT_ROOMS && serverPool.size() > 1) {
+                    for (ServerPool.Endpoint candidate : serverPool.rank(true)) {
+                        if (candidate.equals(endpoint)) {
+                            continue;
+                        }
+                        logger.info("Reached Rooms Count Limit, Switching To: " + candidate);
+                        if (!switchServer(candidate)) {
+                            break;
+                        }
+                        requestSession = session;
+                        response = requestRoomCreate(isSalvo);
+                        if (response.getType() != Message.Type.LIMIT_ROOMS) {
+                            break;
+                        }
+                    }
+                }
 
-                if (response.getType() == Message.Type.ROOM_CREATED) {
-                    logger.info("Room Created: " + response.getParameter(0));
-                    model.applicationState.roomCodeProperty().set(response.getParameter(0));
-                    model.opponentState.isRespondingProperty().set(true);
+                if (response.getPayload() instanceof Payload.RoomCreated roomCreated) {
+                    logger.info("Room Created: " + roomCreated.code());
+                    stageManager.updateLater(() -> {
+                        model.applicationState.roomCodeProperty().set(roomCreated.code());
+                        model.opponentState.isRespondingProperty().set(true);
+                    });
                     future.complete(null);
                 }
                 else {
                     logger.info("Reached Rooms Count Limit");
-                    future.completeExceptionally(new ReachedLimitException(Integer.parseInt(response.getParameter(0))));
+                    future.completeExceptionally(new ReachedLimitException(((Payload.Limit) response.getPayload()).limit()));
                 }
             }
             catch (IOException | TimeoutException e) {
-                if (reconnect() && e instanceof TimeoutException) {
+                if (reconnect(requestSession) && e instanceof TimeoutException) {
                     handleTimeout();
                 }
                 future.completeExceptionally(e);
@@ -196,13 +365,14 @@ public class Controller {
                 handleRuntimeException();
                 future.completeExceptionally(e);
             }
-        }).start();
+        });
 
         return future;
     }
 
     /**
      * Joins a room
+     * The room code is routed to the server hosting the room (by its first digit, the server node), the client switches to it
      * Exceptions are forwarded through returned future
      * - IllegalArgument, ReachedLimit, NotExists, IO, Timeout, Runtime
      * @param code Room code
@@ -224,11 +394,23 @@ public class Controller {
             return future;
         }
 
-        model.opponentState.isRespondingProperty().set(true);
-        new Thread(() -> {
-            CompletableFuture<Message> responseFuture = expectMessage(Message.Type.ACK, Message.Type.ROOM_FULL, Message.Type.ROOM_NOT_EXISTS);
+        stageManager.updateLater(() -> model.opponentState.isRespondingProperty().set(true));
+        int session_ = session;
+        operationsExecutor.execute(() -> {
+            int requestSession = session_;
             try {
-                sendMessage(new Message(Message.Type.ROOM_JOIN, code));
+                ServerPool.Endpoint host = serverPool.locate(code.substring(0, 1));
+                if (host != null && !host.equals(endpoint)) {
+                    logger.info("Room Hosted By: " + host);
+                    if (!switchServer(host)) {
+                        future.completeExceptionally(new IOException("Could Not Switch To Server: " + host));
+                        return;
+                    }
+                    requestSession = session;
+                }
+
+                resumeState.setEventSequence(0);
+                CompletableFuture<Message> responseFuture = request(new Message(Message.Type.ROOM_JOIN, code), Message.Type.ACK, Message.Type.ROOM_FULL, Message.Type.ROOM_NOT_EXISTS);
                 Message response = awaitMessage(responseFuture);
 
                 if (response.getType() == Message.Type.ACK) {
@@ -243,7 +425,7 @@ public class Controller {
                 }
             }
             catch (IOException | TimeoutException e) {
-                if (reconnect() && e instanceof TimeoutException) {
+                if (reconnect(requestSession) && e instanceof TimeoutException) {
                     handleTimeout();
                 }
                 future.completeExceptionally(e);
@@ -252,7 +434,7 @@ public class Controller {
                 handleRuntimeException();
                 future.completeExceptionally(e);
             }
-        }).start();
+        });
 
         return future;
     }
@@ -267,20 +449,23 @@ public class Controller {
         logger.trace("Leaving Room");
 
         CompletableFuture<Void> future = new CompletableFuture<>();
-        new Thread(() -> {
-            CompletableFuture<Message> responseFuture = expectMessage(Message.Type.ACK);
+        int session_ = session;
+        operationsExecutor.execute(() -> {
             try {
-                sendMessage(new Message(Message.Type.ROOM_LEAVE));
+                CompletableFuture<Message> responseFuture = request(new Message(Message.Type.ROOM_LEAVE), Message.Type.ACK);
                 awaitMessage(responseFuture);
                 logger.info("Leaved Room");
 
-                model.applicationState.roomCodeProperty().set("");
-                model.clientState.resetExceptNickname();
-                model.opponentState.reset();
+                resumeState.setEventSequence(0);
+                stageManager.updateLater(() -> {
+                    model.applicationState.roomCodeProperty().set("");
+                    model.opponentState.reset();
+                });
+                gameCore.submit(GameSnapshot::withPlayersReset);
                 future.complete(null);
             }
             catch (IOException | TimeoutException e) {
-                if (reconnect() && e instanceof TimeoutException) {
+                if (reconnect(session_) && e instanceof TimeoutException) {
                     handleTimeout();
                 }
                 future.completeExceptionally(e);
@@ -289,37 +474,53 @@ public class Controller {
                 handleRuntimeException();
                 future.completeExceptionally(e);
             }
-        }).start();
+        });
 
         return future;
     }
 
     /**
-     * Sets board ready
+     * Places a ship on (row, col) of client's board, or removes it (board not ready yet)
+     * @param row Row
+     * @param col Col
+     */
+    public void toggleShip(int row, int col) {
+        gameCore.submit(snapshot -> {
+            GameSnapshot.Player client = snapshot.client();
+            if (client.isBoardReady()) {
+                return snapshot;
+            }
+            BoardState.Field field = client.getField(row, col) == BoardState.Field.SHIP ? BoardState.Field.NONE : BoardState.Field.SHIP;
+            return snapshot.with(true, client.withField(field, row, col));
+        });
+    }
+
+    /**
+     * Sets board ready (ships placed on client's board)
      * Exceptions are forwarded through returned future
      * - IllegalArgument, IO, Timeout, Runtime
-     * @param boardState Board State
      * @return Future
      */
-    public CompletableFuture<Void> boardReady(BoardState boardState) {
+    public CompletableFuture<Void> boardReady() {
         logger.trace("Setting Board Ready");
 
         CompletableFuture<Void> future = new CompletableFuture<>();
+        BoardState boardState = gameCore.getSnapshot().client().toBoardState();
         if (!boardState.isValid()) {
             logger.info("Invalid Board");
             future.completeExceptionally(new IllegalArgumentException());
             return future;
         }
 
-        new Thread(() -> {
-            CompletableFuture<Message> responseFuture = expectMessage(Message.Type.ACK, Message.Type.BOARD_ILLEGAL);
+        int session_ = session;
+        operationsExecutor.execute(() -> {
             try {
-                sendMessage(getBoardReadyMessage(boardState));
+                CompletableFuture<Message> responseFuture = request(getBoardReadyMessage(boardState), Message.Type.ACK, Message.Type.BOARD_ILLEGAL);
                 Message response = awaitMessage(responseFuture);
 
                 if (response.getType() == Message.Type.ACK) {
                     logger.info("Board Ready");
-                    model.clientState.isBoardReadyProperty().set(true);
+                    gameCore.submit(snapshot -> snapshot.with(true, snapshot.client().withBoardReady(true)));
                     future.complete(null);
                 }
                 else {
@@ -328,7 +529,7 @@ public class Controller {
                 }
             }
             catch (IOException | TimeoutException e) {
-                if (reconnect() && e instanceof TimeoutException) {
+                if (reconnect(session_) && e instanceof TimeoutException) {
                     handleTimeout();
                 }
                 future.completeExceptionally(e);
@@ -337,7 +538,7 @@ public class Controller {
                 handleRuntimeException();
                 future.completeExceptionally(e);
             }
-        }).start();
+        });
 
         return future;
     }
@@ -354,28 +555,22 @@ public class Controller {
         logger.info("Processing Turn");
 
         CompletableFuture<Void> future = new CompletableFuture<>();
-        BoardState boardState = model.opponentState.getBoardState();
-        if (boardState.isGuess(row, col) || boardState.isInvalidated(row, col)) {
+        GameSnapshot.Player opponent = gameCore.getSnapshot().opponent();
+        if (opponent.isGuess(row, col) || opponent.isInvalidated(row, col)) {
             logger.info("Invalid Turn");
             future.completeExceptionally(new IllegalArgumentException());
             return future;
         }
 
-        new Thread(() -> {
-            CompletableFuture<Message> responseFuture = expectMessage(Message.Type.TURN_RESULT, Message.Type.TURN_ILLEGAL, Message.Type.TURN_NOT_YOU);
+        int session_ = session;
+        operationsExecutor.execute(() -> {
             try {
-                sendMessage(new Message(Message.Type.TURN, BoardState.SerializeField(row, col)));
+                CompletableFuture<Message> responseFuture = request(new Message(Message.Type.TURN, BoardState.SerializeField(row, col)), Message.Type.TURN_RESULT, Message.Type.TURN_ILLEGAL, Message.Type.TURN_NOT_YOU);
                 Message response = awaitMessage(responseFuture);
 
-                if (response.getType() == Message.Type.TURN_RESULT) {
-                    if (response.getParameter(1).equals("HIT")) {
-                        logger.info("Hit");
-                        model.opponentState.getBoardState().setField(BoardState.Field.HIT, row, col);
-                    }
-                    else {
-                        logger.info("Miss");
-                        model.opponentState.getBoardState().setField(BoardState.Field.MISS, row, col);
-                    }
+                if (response.getPayload() instanceof Payload.TurnResult result) {
+                    logger.info(result.isHit() ? "Hit" : "Miss");
+                    setOpponentFields(List.of(result));
                     future.complete(null);
                 }
                 else if (response.getType() == Message.Type.TURN_ILLEGAL) {
@@ -388,7 +583,7 @@ public class Controller {
                 }
             }
             catch (IOException | TimeoutException e) {
-                if (reconnect() && e instanceof TimeoutException) {
+                if (reconnect(session_) && e instanceof TimeoutException) {
                     handleTimeout();
                 }
                 future.completeExceptionally(e);
@@ -397,34 +592,108 @@ public class Controller {
                 handleRuntimeException();
                 future.completeExceptionally(e);
             }
-        }).start();
+        });
 
         return future;
     }
 
     /**
-     * Sends a message
+     * Performs a salvo (several turns sent at once, answered by a single aggregated result)
+     * Turns following the one which has ended the game are not performed (their fields are left unchanged)
+     * Exceptions are forwarded through returned future
+     * - IllegalArgument, IllegalState, IO, Timeout, Runtime
+     * @param positions Fields (distinct, at most the salvo size of the room)
+     * @return Future
+     */
+    public CompletableFuture<Void> salvo(List<BoardState.Position> positions) {
+        logger.info("Processing Salvo");
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        GameSnapshot snapshot = gameCore.getSnapshot();
+        GameSnapshot.Player opponent = snapshot.opponent();
+        if (positions.isEmpty() || positions.size() > snapshot.salvoSize() ||
+            positions.stream().distinct().count() != positions.size() ||
+            positions.stream().anyMatch(position -> opponent.isGuess(position.row(), position.col()) || opponent.isInvalidated(position.row(), position.col())))
+        {
+            logger.info("Invalid Salvo");
+            future.completeExceptionally(new IllegalArgumentException());
+            return future;
+        }
+
+        int session_ = session;
+        operationsExecutor.execute(() -> {
+            try {
+                CompletableFuture<Message> responseFuture = request(new Message(Message.Type.SALVO, BoardState.SerializeFields(positions)), Message.Type.SALVO_RESULT, Message.Type.TURN_ILLEGAL, Message.Type.TURN_NOT_YOU);
+                Message response = awaitMessage(responseFuture);
+
+                if (response.getPayload() instanceof Payload.SalvoResult salvoResult) {
+                    for (Payload.TurnResult result : salvoResult.results()) {
+                        logger.info(result.isHit() ? "Hit" : "Miss");
+                    }
+                    setOpponentFields(Arrays.asList(salvoResult.results()));
+                    future.complete(null);
+                }
+                else if (response.getType() == Message.Type.TURN_ILLEGAL) {
+                    logger.info("Invalid Salvo");
+                    future.completeExceptionally(new IllegalArgumentException());
+                }
+                else {
+                    logger.info("Not Your Turn");
+                    future.completeExceptionally(new IllegalStateException());
+                }
+            }
+            catch (IOException | TimeoutException e) {
+                if (reconnect(session_) && e instanceof TimeoutException) {
+                    handleTimeout();
+                }
+                future.completeExceptionally(e);
+            }
+            catch (RuntimeException e) {
+                handleRuntimeException();
+                future.completeExceptionally(e);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Sends a message (does not block)
+     * A failed send is logged, the awaiting request then fails on the connection error
      * @param message Message
-     * @throws IOException on IO error
+     * @return Future completed once the message is written
      */
-    public void sendMessage(Message message) throws IOException {
+    public CompletableFuture<Void> sendMessage(Message message) {
         logger.trace("Send Message: " + message.serialize());
-        communicator.send(message);
+        return communicator.send(message).whenComplete((value, exception) -> {
+            if (exception != null) {
+                logger.error("Send Message Failed: " + exception.getMessage());
+            }
+        });
     }
 
     /**
-     * Sets a request for Messages Manager to expect a message
+     * Sends a request and sets Messages Manager to expect its response (once the request is written)
+     * The response samples the RTT (shown in the server status)
+     * @param message Request
      * @param type Expected Message Type
      * @return Future
      */
-    public CompletableFuture<Message> expectMessage(Message.Type... type) {
-        logger.trace("Expect Message: " + Arrays.toString(type));
-        return messagesManager.expectMessage(type);
+    public CompletableFuture<Message> request(Message message, Message.Type... type) {
+        logger.trace("Request: " + message.serialize() + ", Expect Message: " + Arrays.toString(type));
+        long startNs = System.nanoTime();
+        CompletableFuture<Message> future = messagesManager.request(message, RESPONSE_MSG_TIMEOUT_MS, type);
+        future.whenComplete((response, exception) -> {
+            if (response != null) {
+                rttEstimator.sample((System.nanoTime() - startNs) / 1_000_000.0);
+            }
+        });
+        return future;
     }
 
     /**
      * Awaits an expected message
-     * @param future Expected Message future
+     * @param future Expected Message future (completed by the request deadline at the latest)
      * @return Message
      * @throws TimeoutException on timeout
      * @throws IOException on IO error
@@ -432,7 +701,7 @@ public class Controller {
     private Message awaitMessage(CompletableFuture<Message> future) throws TimeoutException, IOException {
         logger.trace("Awaiting Message");
         try {
-            Message message = future.get(RESPONSE_MSG_TIMEOUT_MS, TimeUnit.MILLISECONDS); // throws TimeoutException
+            Message message = future.get();
             logger.trace("Got Message");
             return message;
         } catch (ExecutionException | InterruptedException e) {
@@ -449,48 +718,124 @@ public class Controller {
         }
     }
 
+    /**
+     * Performs a reconnect once per failed session
+     * Guarded by a lock (not a monitor), so that waiting operations do not pin their virtual threads' carriers
+     * @param failedSession Failed session number
+     * @return True if reconnect successful else false (also if the session has already been reconnected)
+     */
+    private boolean reconnect(int failedSession) {
+        reconnectLock.lock();
+        try {
+            if (failedSession != session) {
+                logger.debug("Session Already Reconnected");
+                return false;
+            }
+            return reconnect();
+        }
+        finally {
+            reconnectLock.unlock();
+        }
+    }
+
     /**
      * Performs a reconnect
      * Handles changes to model
-     * Handles running threads interrupting and launching new ones
+     * Stops the failed connection workers, attempts are run by the reconnect engine
+     * The state machine (and its thread) is kept running, the reconnected session feeds it
      * @return True if reconnect successful else false
      */
     private boolean reconnect() {
         logger.trace("Reconnecting");
 
-        model.applicationState.setControlsDisable(true);
-        model.clientState.isRespondingProperty().set(false);
+        stageManager.updateLater(() -> {
+            model.applicationState.setControlsDisable(true);
+            model.clientState.isRespondingProperty().set(false);
+        });
 
-        logger.debug("Interrupt Keep Alive Thread");
-        keepAliveThread.interrupt();
-        logger.debug("Interrupt State Machine Thread");
-        stateMachineThread.interrupt();
+        logger.debug("Stop Messages Manager");
+        messagesManager.stop();
+        logger.debug("Stop Keep Alive");
+        keepAlive.stop();
 
         boolean isReconnected = false;
-        long start = System.currentTimeMillis();
-        for (long now = System.currentTimeMillis(); now < start + RECONNECT_TIMEOUT_MS; now = System.currentTimeMillis()) {
-            try {
-                logger.debug("Attempting Reconnect");
-                socket = new Socket();
-                socket.connect(new InetSocketAddress(model.applicationState.serverAddressProperty().get(), Integer.parseInt(model.applicationState.serverPortProperty().get())), SOCKET_CONNECTION_TIMEOUT_MS);
-                communicator = new Communicator(socket);
-                stateMachine = new StateMachine(new StateMachineController(model, stageManager));
-                messagesManager = new MessagesManager(communicator, stateMachine, this::reconnect);
-
-                keepAliveThread = new Thread(new KeepAlive(communicator));
-                messagesManagerThread = new Thread(messagesManager);
-                stateMachineThread = new Thread(stateMachine);
-
-                CompletableFuture<Message> welcomeFuture = expectMessage(Message.Type.WELCOME, Message.Type.LIMIT_CLIENTS);
-                logger.debug("Start Messages Manager Thread");
-                messagesManagerThread.start();
-                Message welcomeMessage = awaitMessage(welcomeFuture);
-                if (welcomeMessage.getType() == Message.Type.LIMIT_CLIENTS) {
-                    throw new ReachedLimitException(Integer.parseInt(welcomeMessage.getParameter(0)));
-                }
+        try {
+            isReconnected = reconnectEngine.start().join();
+        }
+        catch (CompletionException e) {
+            handleRuntimeException();
+        }
+
+        if (!isReconnected) {
+            logger.error("Could Not Reconnect");
+            messagesManager.stop();
+            keepAlive.stop();
+            stateMachineThread.interrupt();
+            logger.trace("Reset Model");
+            resumeState.reset();
+            stageManager.updateLater(model::reset);
+            gameCore.reset();
+            stageManager.setSceneLater(StageManager.Scene.Index);
+            stageManager.showAlertLater(Alert.AlertType.ERROR, "Connection Error", "There have been problems connecting to the server. Please try again.");
+            return false;
+        }
+
+        return true;
+    }
 
-                CompletableFuture<Message> responseFuture = expectMessage(Message.Type.ACK, Message.Type.NICKNAME_EXISTS, Message.Type.REJOIN);
-                sendMessage(new Message(Message.Type.NICKNAME_SET, model.applicationState.nicknameProperty().get()));
+    /**
+     * Performs a single reconnect attempt (run by the reconnect engine) to the server hosting the session
+     * @return True if reconnected, false if the attempt failed
+     */
+    private boolean attemptReconnect() {
+        return restoreSession(endpoint);
+    }
+
+    /**
+     * Switches to another server (e.g. the one hosting a room), the client must be in the lobby
+     * If switching fails, the client reconnects to the server it has been connected to
+     * Guarded by the reconnect lock, so that it does not interleave with a reconnect
+     * @param target Server
+     * @return True if switched, false if not (the client has been reconnected, or not, as the reconnect handles)
+     */
+    private boolean switchServer(ServerPool.Endpoint target) {
+        reconnectLock.lock();
+        try {
+            logger.info("Switching Server: " + endpoint + " -> " + target);
+            ServerPool.Endpoint previous = endpoint;
+            messagesManager.stop();
+            keepAlive.stop();
+            // the session of the left server (if any) is not resumable on another one
+            resumeState.setToken("");
+
+            if (restoreSession(target)) {
+                return true;
+            }
+            logger.info("Could Not Switch Server");
+            endpoint = previous;
+            stageManager.updateLater(() -> model.applicationState.connectedServerProperty().set(previous.toString()));
+            reconnect();
+            return false;
+        }
+        finally {
+            reconnectLock.unlock();
+        }
+    }
+
+    /**
+     * Restores the session on the server (resumes it, or sets the nickname again)
+     * Creates the connection workers (communicator, messages manager, keep alive), stops them if the attempt fails
+     * @param target Server
+     * @return True if restored, false if the attempt failed
+     */
+    private boolean restoreSession(ServerPool.Endpoint target) {
+        try {
+            openSession(target);
+
+            if (!resume()) {
+                // a new session (also if rejoined into the room), its events are numbered from 1
+                resumeState.setEventSequence(0);
+                CompletableFuture<Message> responseFuture = request(new Message(Message.Type.NICKNAME_SET, nickname), Message.Type.ACK, Message.Type.NICKNAME_EXISTS, Message.Type.REJOIN);
 
                 Message message = awaitMessage(responseFuture);
                 if (message.getType() == Message.Type.ACK) {
@@ -498,45 +843,161 @@ public class Controller {
                 } else if (message.getType() == Message.Type.NICKNAME_EXISTS) {
                     throw new ExistsException();
                 } else {
-                    model.applicationState.roomCodeProperty().set(message.getParameter(1));
+                    String code = ((Payload.Rejoin) message.getPayload()).code();
+                    stageManager.updateLater(() -> model.applicationState.roomCodeProperty().set(code));
                     stageManager.setSceneLater(StageManager.Scene.Room);
                 }
+            }
 
+            stageManager.updateLater(() -> {
                 model.applicationState.setControlsDisable(false);
                 model.clientState.isRespondingProperty().set(true);
                 model.opponentState.isRespondingProperty().set(true);
+            });
+
+            keepAlive.start();
+            logger.debug("Session Threads Created: " + getSessionThreadsCount());
+            return true;
+        } catch (IOException | TimeoutException | ReachedLimitException | ExistsException e) {
+            logger.debug("Attempt Failed: " + e.getMessage());
+            logger.debug("Stopping Messages Manager");
+            messagesManager.stop();
+            return false;
+        }
+    }
 
-                keepAliveThread.start();
-                stateMachineThread.start();
-                isReconnected = true;
-                break;
-            } catch (IOException | TimeoutException | ReachedLimitException | ExistsException e) {
-                logger.debug("Attempt Failed: " + e.getMessage());
-                logger.debug("Interrupting Messages Manager Thread");
-                messagesManagerThread.interrupt();
-                try {
-                    Thread.sleep(RECONNECT_ATTEMPT_SLEEP_MS);
-                } catch (InterruptedException ex) {
-                    //
+    /**
+     * Opens a session on the first of the servers to accept the client (failing over on the clients count limit and errors)
+     * @param candidates Servers (the best one first)
+     * @throws IOException on IO error (of the last server)
+     * @throws TimeoutException on welcome timeout (of the last server)
+     * @throws ReachedLimitException if the last server has reached its clients count limit
+     */
+    private void openSession(List<ServerPool.Endpoint> candidates) throws IOException, TimeoutException {
+        for (int i = 0; ; i++) {
+            try {
+                openSession(candidates.get(i));
+                return;
+            }
+            catch (IOException | TimeoutException | ReachedLimitException e) {
+                if (i == candidates.size() - 1) {
+                    throw e;
                 }
-            } catch (RuntimeException e) {
-                handleRuntimeException();
-                break;
+                logger.info("Server " + candidates.get(i) + " Failed (" + e.getMessage() + "), Failing Over To: " + candidates.get(i + 1));
             }
         }
+    }
 
-        if (!isReconnected) {
-            logger.error("Could Not Reconnect");
-            logger.trace("Reset Model");
-            model.reset();
-            stageManager.setSceneLater(StageManager.Scene.Index);
-            stageManager.showAlertLater(Alert.AlertType.ERROR, "Connection Error", "There have been problems connecting to the server. Please try again.");
+    /**
+     * Opens a session on the server
+     * Creates the connection workers (communicator, messages manager, keep alive), starts the messages manager,
+     * awaits WELCOME and negotiates capabilities, stops the messages manager if it fails
+     * @param target Server
+     * @throws IOException on IO error
+     * @throws TimeoutException on welcome (or capabilities) timeout
+     * @throws ReachedLimitException if the server has reached its clients count limit
+     */
+    private void openSession(ServerPool.Endpoint target) throws IOException, TimeoutException {
+        communicator = openCommunicator(target);
+        int session_ = ++session;
+        messagesManager = new MessagesManager(communicator, stateMachine, () -> reconnect(session_), threadFactory, rttEstimator);
+        messagesManager.setPhiThreshold(phiThreshold);
+
+        keepAlive = new KeepAlive(communicator, messagesManager);
+        messagesManagerThread = threadFactory.newThread(messagesManager);
+
+        try {
+            CompletableFuture<Message> welcomeFuture = messagesManager.expectMessage(WELCOME_MSG_TIMEOUT_MS, Message.Type.WELCOME, Message.Type.LIMIT_CLIENTS);
+            logger.debug("Start Messages Manager Thread");
+            messagesManagerThread.start();
+            Message welcomeMessage = awaitMessage(welcomeFuture);
+            if (welcomeMessage.getPayload() instanceof Payload.Limit limit) {
+                logger.info("Reached Clients Count Limit: " + target);
+                throw new ReachedLimitException(limit.limit());
+            }
+            endpoint = target;
+            stageManager.updateLater(() -> model.applicationState.connectedServerProperty().set(target.toString()));
+            negotiateCapabilities();
+        }
+        catch (IOException | TimeoutException | ReachedLimitException e) {
+            messagesManager.stop();
+            throw e;
+        }
+    }
+
+    /**
+     * Connects to the server and opens a messages communicator on the connection
+     * The transport is selected by the server address (see {@link Transport#of(String)})
+     * @param target Server
+     * @return Messages Communicator
+     * @throws IOException on IO error
+     */
+    private Communicator openCommunicator(ServerPool.Endpoint target) throws IOException {
+        Connection connection = Transport.of(target.address()).connect(target.address(), target.port(), SOCKET_CONNECTION_TIMEOUT_MS);
+        if (IS_CHANNEL_COMMUNICATOR) {
+            return new ChannelCommunicator(connection, threadFactory);
+        }
+        return new StreamCommunicator(connection, threadFactory);
+    }
+
+    /**
+     * Offers the supported capabilities (after WELCOME), keeps the ones accepted by the server
+     * The communicator switches framing on its own once the server accepts
+     * @throws IOException on IO error
+     * @throws TimeoutException on response timeout
+     */
+    private void negotiateCapabilities() throws IOException, TimeoutException {
+        Set<Capability> offered = EnumSet.of(Capability.PACKED_BOARD, Capability.SEQUENCE);
+        if (communicator.isBinaryFramingSupported()) {
+            offered.add(Capability.BINARY);
+        }
+
+        capabilities = EnumSet.noneOf(Capability.class);
+        CompletableFuture<Message> responseFuture = request(new Message(Message.Type.CAPABILITIES, Capability.serialize(offered)), Message.Type.CAPABILITIES);
+        Message response = awaitMessage(responseFuture);
+        capabilities = ((Payload.Capabilities) response.getPayload()).capabilities();
+        logger.info("Capabilities: " + capabilities);
+    }
+
+    /**
+     * Resumes the session by the resume token (if any has been issued)
+     * The server then replays only the room events following the last applied one, the scene and the model are kept
+     * @return True if resumed, false if there is no token or it has been rejected (the session has expired)
+     * @throws IOException on IO error
+     * @throws TimeoutException on response timeout
+     */
+    private boolean resume() throws IOException, TimeoutException {
+        String resumeToken = resumeState.getToken();
+        if (resumeToken.isEmpty()) {
             return false;
         }
 
+        CompletableFuture<Message> responseFuture = request(new Message(Message.Type.RESUME, resumeToken, resumeState.getEventSequence()), Message.Type.RESUMED, Message.Type.RESUME_REJECTED);
+        Message response = awaitMessage(responseFuture);
+        if (response.getType() == Message.Type.RESUME_REJECTED) {
+            logger.info("Resume Rejected");
+            resumeState.setToken("");
+            return false;
+        }
+
+        logger.info("Resumed");
         return true;
     }
 
+    /**
+     * Requests a room to be created
+     * @param isSalvo True if salvo room, false if classic
+     * @return Response (ROOM_CREATED or LIMIT_ROOMS)
+     * @throws IOException on IO error
+     * @throws TimeoutException on response timeout
+     */
+    private Message requestRoomCreate(boolean isSalvo) throws IOException, TimeoutException {
+        // events of the new room are numbered from 1
+        resumeState.setEventSequence(0);
+        CompletableFuture<Message> responseFuture = request(new Message(isSalvo ? Message.Type.ROOM_CREATE_SALVO : Message.Type.ROOM_CREATE), Message.Type.ROOM_CREATED, Message.Type.LIMIT_ROOMS);
+        return awaitMessage(responseFuture);
+    }
+
     private static Message getBoardReadyMessage(BoardState boardState) {
         List<String> positions = new ArrayList<>();
         for (int row = 0; row < BoardState.SIZE; row++) {
@@ -549,6 +1010,20 @@ public class Controller {
         return new Message(Message.Type.BOARD_READY, positions.toArray());
     }
 
+    /**
+     * Submits results of turns to opponent's board (a single command, so a salvo is published at once)
+     * @param results Results
+     */
+    private void setOpponentFields(List<Payload.TurnResult> results) {
+        gameCore.submit(snapshot -> {
+            GameSnapshot.Player opponent = snapshot.opponent();
+            for (Payload.TurnResult result : results) {
+                opponent = opponent.withField(result.isHit() ? BoardState.Field.HIT : BoardState.Field.MISS, result.row(), result.col());
+            }
+            return snapshot.with(false, opponent);
+        });
+    }
+
     private void handleTimeout() {
         logger.error("Request Timed Out");
         stageManager.showAlertLater(Alert.AlertType.ERROR, "Request Timed Out", "Please try again.");
@@ -559,10 +1034,13 @@ public class Controller {
         logger.debug("Interrupting Workers");
         logger.debug("Resetting Model");
 
-        messagesManagerThread.interrupt();
-        keepAliveThread.interrupt();
+        reconnectEngine.cancel();
+        messagesManager.stop();
+        keepAlive.stop();
         stateMachineThread.interrupt();
-        model.reset();
+        resumeState.reset();
+        stageManager.updateLater(model::reset);
+        gameCore.reset();
         stageManager.showAlertLater(Alert.AlertType.ERROR, "Runtime Exception", "Unexpected Error Occurred During Execution");
         stageManager.setSceneLater(StageManager.Scene.Index);
     }
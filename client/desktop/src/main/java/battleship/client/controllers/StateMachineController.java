@@ -1,62 +1,73 @@
 package battleship.client.controllers;
 
-import battleship.client.controllers.messages.Message;
+import battleship.client.controllers.messages.Payload;
+import battleship.client.controllers.workers.GameCore;
+import battleship.client.controllers.workers.ResumeState;
 import battleship.client.models.BoardState;
-import battleship.client.models.ClientState;
+import battleship.client.models.GameSnapshot;
 import battleship.client.models.Model;
 import battleship.client.views.StageManager;
 import javafx.scene.control.Alert;
 
 /**
  * State Machine Controller
+ * Runs on the state machine thread, the game state is updated by commands of the game core,
+ * other model updates are batched into JavaFX requests by the stage manager,
+ * the resume state (read right away) is not a part of the model
  */
 public class StateMachineController {
 
     private final Model model;
+    private final GameCore gameCore;
     private final StageManager stageManager;
+    private final ResumeState resumeState;
 
     /**
      * Constructs a state machine controller
      * @param model Model
+     * @param gameCore Game Core
      * @param stageManager Stage Manager
+     * @param resumeState Resume State
      */
-    public StateMachineController(Model model, StageManager stageManager) {
+    public StateMachineController(Model model, GameCore gameCore, StageManager stageManager, ResumeState resumeState) {
         this.model = model;
+        this.gameCore = gameCore;
         this.stageManager = stageManager;
+        this.resumeState = resumeState;
     }
 
     /**
      * Handles Connection Terminated
-     * @param message Message
      */
-    public void handleConnTerm(Message message) {
+    public void handleConnTerm() {
 
     }
 
     /**
      * Handles Opponent Nickname Set
-     * @param message Message
+     * @param payload Payload
      */
-    public void handleOpponentNicknameSet(Message message) {
-        model.opponentState.nicknameProperty().set(message.getParameter(0));
+    public void handleOpponentNicknameSet(Payload.OpponentNicknameSet payload) {
+        stageManager.updateLater(model.opponentState.nicknameProperty(), () -> model.opponentState.nicknameProperty().set(payload.nickname()));
     }
 
     /**
      * Handles Opponent Board Ready
-     * @param message Message
      */
-    public void handleOpponentBoardReady(Message message) {
-        model.opponentState.isBoardReadyProperty().set(true);
+    public void handleOpponentBoardReady() {
+        gameCore.submit(snapshot -> snapshot.with(false, snapshot.opponent().withBoardReady(true)));
     }
 
     /**
      * Handles Opponent Room Leave
-     * @param message Message
      */
-    public void handleOpponentRoomLeave(Message message) {
-        model.applicationState.resetRoomCode();
-        model.clientState.resetExceptNickname();
-        model.opponentState.reset();
+    public void handleOpponentRoomLeave() {
+        stageManager.updateLater(() -> {
+            model.applicationState.resetRoomCode();
+            model.opponentState.reset();
+        });
+        gameCore.submit(GameSnapshot::withPlayersReset);
+        resumeState.setEventSequence(0);
 
         stageManager.showAlertLater(Alert.AlertType.INFORMATION, "Opponent Left Room", "Your opponent has left the room.");
         stageManager.setSceneLater(StageManager.Scene.Lobby);
@@ -64,35 +75,38 @@ public class StateMachineController {
 
     /**
      * Handles Game Begin
-     * @param message Message
+     * @param payload Payload
      */
-    public void handleGameBegin(Message message) {
-        //
+    public void handleGameBegin(Payload.GameBegin payload) {
+        gameCore.submit(snapshot -> snapshot.withSalvoSize(payload.salvoSize()));
     }
 
     /**
      * Handles Turn Set
-     * @param message Message
+     * @param payload Payload
      */
-    public void handleTurnSet(Message message) {
-        boolean client = message.getParameter(0).equals("YOU");
-        model.clientState.isOnTurnProperty().set(client);
-        model.opponentState.isOnTurnProperty().set(!client);
+    public void handleTurnSet(Payload.TurnSet payload) {
+        boolean client = payload.isYou();
+        gameCore.submit(snapshot -> snapshot
+                .with(true, snapshot.client().withOnTurn(client))
+                .with(false, snapshot.opponent().withOnTurn(!client)));
     }
 
     /**
      * Handles Opponent No Response
-     * @param message Message
+     * @param payload Payload
      */
-    public void handleOpponentNoResponse(Message message) {
-        boolean short_ = message.getParameter(0).equals("SHORT");
-        if (short_) {
-            model.opponentState.isRespondingProperty().set(false);
+    public void handleOpponentNoResponse(Payload.OpponentNoResponse payload) {
+        if (payload.isShort()) {
+            stageManager.updateLater(model.opponentState.isRespondingProperty(), () -> model.opponentState.isRespondingProperty().set(false));
         }
         else {
-            model.applicationState.resetRoomCode();
-            model.clientState.resetExceptNickname();
-            model.opponentState.reset();
+            stageManager.updateLater(() -> {
+                model.applicationState.resetRoomCode();
+                model.opponentState.reset();
+            });
+            gameCore.submit(GameSnapshot::withPlayersReset);
+            resumeState.setEventSequence(0);
 
             stageManager.showAlertLater(Alert.AlertType.INFORMATION, "Opponent Not Responding", "Your opponent has been disconnected for not responding to the server for a long time.");
             stageManager.setSceneLater(StageManager.Scene.Lobby);
@@ -101,30 +115,34 @@ public class StateMachineController {
 
     /**
      * Handles Opponent Turn
-     * @param message Message
-     */
-    public void handleOpponentTurn(Message message) {
-        String field = message.getParameter(0);
-        int row = field.charAt(0) - '0';
-        int col = field.charAt(1) - '0';
-        BoardState boardState = model.clientState.getBoardState();
-        if (message.getParameter(1).equals("HIT")) {
-            boardState.setField(BoardState.Field.HIT, row, col);
-        }
-        else {
-            boardState.setField(BoardState.Field.MISS, row, col);
-        }
+     * @param payload Payload
+     */
+    public void handleOpponentTurn(Payload.OpponentTurn payload) {
+        handleOpponentSalvo(new Payload.OpponentSalvo(new Payload.OpponentTurn[] { payload }));
+    }
+
+    /**
+     * Handles Opponent Salvo (a single command, so the salvo is published at once)
+     * @param payload Payload
+     */
+    public void handleOpponentSalvo(Payload.OpponentSalvo payload) {
+        gameCore.submit(snapshot -> {
+            GameSnapshot.Player client = snapshot.client();
+            for (Payload.OpponentTurn turn : payload.turns()) {
+                client = client.withField(turn.isHit() ? BoardState.Field.HIT : BoardState.Field.MISS, turn.row(), turn.col());
+            }
+            return snapshot.with(true, client);
+        });
     }
 
     /**
      * Handles Game End
-     * @param message Message
+     * @param payload Payload
      */
-    public void handleGameEnd(Message message) {
-        boolean isWinner = message.getParameter(0).equals("YOU");
+    public void handleGameEnd(Payload.GameEnd payload) {
+        boolean isWinner = payload.isWinner();
 
-        model.clientState.resetExceptNickname();
-        model.opponentState.resetExceptNickname();
+        gameCore.submit(GameSnapshot::withPlayersReset);
 
         String alertContent = isWinner ? "You have won." : "You have lost.";
         stageManager.showAlertLater(Alert.AlertType.INFORMATION, "Game End", alertContent);
@@ -133,43 +151,52 @@ public class StateMachineController {
 
     /**
      * Handles Opponent Rejoin
-     * @param message Message
      */
-    public void handleOpponentRejoin(Message message) {
-        model.opponentState.isRespondingProperty().set(true);
+    public void handleOpponentRejoin() {
+        stageManager.updateLater(model.opponentState.isRespondingProperty(), () -> model.opponentState.isRespondingProperty().set(true));
     }
 
     /**
      * Handles Board State
-     * @param message Message
+     * @param payload Payload
      */
-    public void handleBoardState(Message message) {
-        ClientState clientState = model.opponentState;
-        if (message.getParameter(0).equals("YOU")) {
-            clientState = model.clientState;
-        }
-
-        clientState.isBoardReadyProperty().set(true);
-        BoardState boardState = clientState.getBoardState();
-        for (int i = 1; i < message.getParametersCnt(); i++) {
-            String fieldDescription = message.getParameter(i);
-            BoardState.Field field = BoardState.Field.valueOf(fieldDescription);
-            boardState.setField(field, i - 1);
-        }
+    public void handleBoardState(Payload.BoardStateSnapshot payload) {
+        boolean isOwn = payload.isOwn();
+        gameCore.submit(snapshot -> snapshot.with(isOwn, snapshot.player(isOwn).withFields(payload.fields()).withBoardReady(true)));
     }
 
     /**
      * Handles Invalidate Field
-     * @param message Message
+     * @param payload Payload
      */
-    public void handleInvalidateField(Message message) {
-        BoardState boardState = model.opponentState.getBoardState();
-        if (message.getParameter(0).equals("YOU")) {
-            boardState = model.clientState.getBoardState();
-        }
-        String field = message.getParameter(1);
-        int row = field.charAt(0) - '0';
-        int col = field.charAt(1) - '0';
-        boardState.setField(BoardState.Field.INVALIDATED, row, col);
+    public void handleInvalidateField(Payload.InvalidateField payload) {
+        boolean isOwn = payload.isOwn();
+        gameCore.submit(snapshot -> snapshot.with(isOwn, snapshot.player(isOwn).withField(BoardState.Field.INVALIDATED, payload.row(), payload.col())));
+    }
+
+    /**
+     * Returns sequence number of the last applied room event
+     * Read and set immediately (not batched), the state machine orders events by it
+     * @return Sequence number (0 if none)
+     */
+    public int getEventSequence() {
+        return resumeState.getEventSequence();
+    }
+
+    /**
+     * Sets sequence number of the last applied room event
+     * @param sequence Sequence number
+     */
+    public void setEventSequence(int sequence) {
+        resumeState.setEventSequence(sequence);
+    }
+
+    /**
+     * Handles Resume Token
+     * Set immediately (not batched), the controller reads it when reconnecting
+     * @param payload Payload
+     */
+    public void handleResumeToken(Payload.ResumeToken payload) {
+        resumeState.setToken(payload.token());
     }
 }
@@ -0,0 +1,158 @@
+package battleship.client.controllers.messages;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary Messages Codec
+ * Frame is a u16 body length followed by the body: u8 type code (Message Type ordinal), u8 parameters count, parameters
+ * Sequenced event has the type code high bit set and u32 sequence number following the type code
+ * Parameter is a u8 tag followed by the value: STRING u16 length + UTF-8 bytes, TOKEN u8 index to the tokens, TWO_DIGITS u8 value
+ * Multi-byte numbers are big-endian, tokens and type codes are shared with the server
+ */
+public final class BinaryCodec {
+
+    /** Frame header (body length) size */
+    public static final int HEADER_SIZE = 2;
+    /** Max frame body size */
+    public static final int MAX_BODY_SIZE = 0xFFFF;
+
+    private static final byte TAG_STRING = 0;
+    private static final byte TAG_TOKEN = 1;
+    private static final byte TAG_TWO_DIGITS = 2;
+    private static final int MAX_PARAMETERS_CNT = 0xFF;
+    private static final int SEQUENCE_FLAG = 0x80;
+
+    private static final String[] TOKENS = {
+            "YOU", "OPPONENT", "HIT", "MISS", "SHORT", "LONG", "GAME", "ROOM", "NONE", "SHIP", "INVALIDATED"
+    };
+    private static final Map<String, Integer> TOKENS_INDICES = new HashMap<>();
+    private static final String[] TWO_DIGITS = new String[100];
+    private static final Message.Type[] TYPES = Message.Type.values();
+
+    static {
+        for (int i = 0; i < TOKENS.length; i++) {
+            TOKENS_INDICES.put(TOKENS[i], i);
+        }
+        for (int i = 0; i < TWO_DIGITS.length; i++) {
+            TWO_DIGITS[i] = String.format("%02d", i);
+        }
+    }
+
+    private BinaryCodec() {
+        //
+    }
+
+    /**
+     * Returns the frame body length encoded in the frame header
+     * @param frame Frame (at least the header)
+     * @param offset Frame offset
+     * @return Body length
+     */
+    public static int decodeBodyLength(byte[] frame, int offset) {
+        return ((frame[offset] & 0xFF) << 8) | (frame[offset + 1] & 0xFF);
+    }
+
+    /**
+     * Decodes a message from a frame body
+     * Tokens and two-digit values decode to shared strings, only free-form strings are allocated
+     * @param frame Frame
+     * @param offset Body offset
+     * @param length Body length
+     * @return Message
+     */
+    public static Message decode(byte[] frame, int offset, int length) {
+        ByteBuffer body = ByteBuffer.wrap(frame, offset, length);
+
+        int typeCode = body.get() & 0xFF;
+        int sequence = 0;
+        if ((typeCode & SEQUENCE_FLAG) != 0) {
+            typeCode &= ~SEQUENCE_FLAG;
+            sequence = body.getInt();
+        }
+        if (typeCode >= TYPES.length) {
+            throw new RuntimeException();
+        }
+
+        String[] parameters = new String[body.get() & 0xFF];
+        for (int i = 0; i < parameters.length; i++) {
+            byte tag = body.get();
+            parameters[i] = switch (tag) {
+                case TAG_TOKEN -> TOKENS[body.get() & 0xFF];
+                case TAG_TWO_DIGITS -> TWO_DIGITS[body.get() & 0xFF];
+                case TAG_STRING -> {
+                    int stringLength = body.getShort() & 0xFFFF;
+                    if (stringLength > body.remaining()) {
+                        throw new RuntimeException();
+                    }
+                    String string = new String(frame, body.position(), stringLength, StandardCharsets.UTF_8);
+                    body.position(body.position() + stringLength);
+                    yield string;
+                }
+                default -> throw new RuntimeException();
+            };
+        }
+
+        if (body.hasRemaining()) {
+            throw new RuntimeException();
+        }
+        return Message.fromParameters(TYPES[typeCode], parameters, sequence);
+    }
+
+    /**
+     * Encodes a message frame (header and body) to the buffer
+     * @param message Message
+     * @param buffer Buffer (at least HEADER_SIZE + MAX_BODY_SIZE remaining)
+     * @throws BufferOverflowException if the message does not fit a frame
+     */
+    public static void encode(Message message, ByteBuffer buffer) {
+        if (message.getParametersCnt() > MAX_PARAMETERS_CNT) {
+            throw new BufferOverflowException();
+        }
+
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        buffer.put((byte) message.getType().ordinal());
+        buffer.put((byte) message.getParametersCnt());
+        for (int i = 0; i < message.getParametersCnt(); i++) {
+            String parameter = message.getParameter(i);
+
+            Integer tokenIndex = TOKENS_INDICES.get(parameter);
+            if (tokenIndex != null) {
+                buffer.put(TAG_TOKEN);
+                buffer.put(tokenIndex.byteValue());
+                continue;
+            }
+
+            if (isTwoDigits(parameter)) {
+                buffer.put(TAG_TWO_DIGITS);
+                buffer.put((byte) ((parameter.charAt(0) - '0') * 10 + parameter.charAt(1) - '0'));
+                continue;
+            }
+
+            byte[] bytes = parameter.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_BODY_SIZE) {
+                throw new BufferOverflowException();
+            }
+            buffer.put(TAG_STRING);
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+
+        int bodyLength = buffer.position() - start - HEADER_SIZE;
+        if (bodyLength > MAX_BODY_SIZE) {
+            throw new BufferOverflowException();
+        }
+        buffer.putShort(start, (short) bodyLength);
+    }
+
+    private static boolean isTwoDigits(String parameter) {
+        return parameter.length() == 2
+                && parameter.charAt(0) >= '0' && parameter.charAt(0) <= '9'
+                && parameter.charAt(1) >= '0' && parameter.charAt(1) <= '9';
+    }
+
+}
@@ -0,0 +1,47 @@
+package battleship.client.controllers.messages;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Protocol Capability
+ * Offered by the client (CAPABILITIES) after WELCOME, the server replies with the accepted ones
+ */
+public enum Capability {
+    /** Binary framing of messages (see {@link BinaryCodec}) */
+    BINARY,
+    /** Board states sent run-length encoded (BOARD_STATE_PACKED instead of BOARD_STATE) */
+    PACKED_BOARD,
+    /** Room events numbered (per client's event stream of the room), so that they can be replayed on resume */
+    SEQUENCE;
+
+    private static final String DELIMITER = ",";
+
+    /**
+     * Serializes capabilities to a CAPABILITIES parameter
+     * @param capabilities Capabilities
+     * @return String
+     */
+    public static String serialize(Set<Capability> capabilities) {
+        return capabilities.stream().map(Capability::name).collect(Collectors.joining(DELIMITER));
+    }
+
+    /**
+     * Parses capabilities from a CAPABILITIES parameter, unknown capabilities are ignored
+     * @param string String
+     * @return Capabilities
+     */
+    public static Set<Capability> parse(String string) {
+        Set<Capability> capabilities = EnumSet.noneOf(Capability.class);
+        for (String name : string.split(DELIMITER)) {
+            for (Capability capability : values()) {
+                if (capability.name().equals(name)) {
+                    capabilities.add(capability);
+                }
+            }
+        }
+        return capabilities;
+    }
+
+}
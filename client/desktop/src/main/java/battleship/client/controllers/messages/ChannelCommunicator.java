@@ -0,0 +1,257 @@
+package battleship.client.controllers.messages;
+
+import battleship.client.controllers.transport.Connection;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Channel Messages Communicator
+ * Communicates over a transport connection using reusable direct buffers
+ * Frames are scanned for delimiters (and escape characters) on bytes, only completed frames are decoded (UTF-8)
+ * Supports non-blocking mode, in which the read channel can be driven by a selector (see {@link #poll()})
+ * (the outbound writer then spins while the socket send buffer is full)
+ * Switches both directions to binary framing once the server accepts the BINARY capability
+ * (the accepting CAPABILITIES is the last text frame the server sends, the offering one is the last text frame sent)
+ */
+public class ChannelCommunicator implements Communicator {
+
+    private final Logger logger = LogManager.getLogger();
+
+    private static final byte ESCAPE_CHARACTER = '\\';
+    private static final byte MESSAGE_DELIMITER = 0x0A;
+    private static final int BUFFER_SIZE = 8_192;
+    private static final int FRAME_INITIAL_SIZE = 256;
+
+    private final Connection connection;
+    private final OutboundWriter outboundWriter;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private byte[] frame = new byte[FRAME_INITIAL_SIZE];
+    private int frameLength = 0;
+    private boolean escape = false;
+    private boolean isBinary = false;
+
+    /**
+     * Creates a messages communicator on the connection
+     * Starts the outbound writer thread
+     * @param connection Transport connection
+     * @param threadFactory Factory of the outbound writer thread
+     */
+    public ChannelCommunicator(Connection connection, ThreadFactory threadFactory) {
+        this.connection = connection;
+        this.outboundWriter = new OutboundWriter(connection.getWriteChannel());
+        readBuffer.flip();
+        threadFactory.newThread(outboundWriter).start();
+    }
+
+    /**
+     * Returns the underlying connection (e.g. to register its read channel with a selector)
+     * @return Transport connection
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Binary framing is supported
+     * @return True
+     */
+    @Override
+    public boolean isBinaryFramingSupported() {
+        return true;
+    }
+
+    /**
+     * Receives a message (blocks)
+     * The read channel must be in blocking mode
+     * @return Message
+     * @throws IOException on IO error
+     */
+    @Override
+    public Message receive() throws IOException {
+        logger.trace("Receiving Message");
+        for (;;) {
+            Message message = decodeFrame();
+            if (message != null) {
+                return message;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Receives a message if available (does not block in non-blocking mode)
+     * Reads at most once from the channel, should be called repeatedly until it returns null on channel read readiness
+     * @return Message or null if no complete message is available
+     * @throws IOException on IO error
+     */
+    public Message poll() throws IOException {
+        Message message = decodeFrame();
+        if (message != null) {
+            return message;
+        }
+
+        if (fill() == 0) {
+            return null;
+        }
+        return decodeFrame();
+    }
+
+    /**
+     * Sends a message (does not block), runs an action once the writer takes the message for writing
+     * The message is enqueued for the connection writer (to the lane of its priority), which escapes message delimiters (and escape characters)
+     * @param message Message
+     * @param onTaken Action run by the writer before the message is written (null if none)
+     * @return Future completed once the message is written (exceptionally with IOException on IO error)
+     */
+    @Override
+    public CompletableFuture<Void> send(Message message, Runnable onTaken) {
+        logger.trace("Sending Message: " + message.serialize());
+        return outboundWriter.enqueue(message, onTaken);
+    }
+
+    /**
+     * Returns time of the last sent (enqueued) message
+     * @return Time [ms]
+     */
+    @Override
+    public long getLastSendMs() {
+        return outboundWriter.getLastEnqueuedMs();
+    }
+
+    /**
+     * Returns mean queue latency of outbound messages of the priority (enqueued to taken for writing)
+     * @param priority Priority
+     * @return Mean latency [us], 0 if none has been written
+     */
+    @Override
+    public double getMeanQueueLatencyUs(Message.Priority priority) {
+        return outboundWriter.getMeanQueueLatencyUs(priority);
+    }
+
+    /**
+     * Returns max queue latency of outbound messages of the priority (enqueued to taken for writing)
+     * @param priority Priority
+     * @return Max latency [us]
+     */
+    @Override
+    public long getMaxQueueLatencyUs(Message.Priority priority) {
+        return outboundWriter.getMaxQueueLatencyUs(priority);
+    }
+
+    /**
+     * Closes the communicator (and the underlying connection)
+     * Unblocks a pending receive (it throws IOException)
+     */
+    @Override
+    public void close() {
+        logger.trace("Closing");
+        outboundWriter.close();
+        connection.close();
+    }
+
+    /**
+     * Reads available bytes to the read buffer
+     * @return Count of bytes read
+     * @throws IOException on IO error or EOF
+     */
+    private int fill() throws IOException {
+        readBuffer.compact();
+        int count = connection.getReadChannel().read(readBuffer);
+        readBuffer.flip();
+        if (count == -1) { // EOF
+            throw new IOException();
+        }
+        return count;
+    }
+
+    /**
+     * Consumes the read buffer up to the end of the first frame
+     * @return Message or null if the frame is not complete yet
+     */
+    private Message decodeFrame() {
+        Message message = isBinary ? decodeBinaryFrame() : decodeTextFrame();
+        if (message == null) {
+            return null;
+        }
+
+        logger.trace("Message Received: " + message.serialize());
+        if (!isBinary && message.getPayload() instanceof Payload.Capabilities capabilities && capabilities.capabilities().contains(Capability.BINARY)) {
+            logger.trace("Switching To Binary Framing");
+            isBinary = true;
+            outboundWriter.switchToBinary();
+        }
+        return message;
+    }
+
+    /**
+     * Consumes the read buffer up to the end of the first unescaped delimiter
+     * @return Message or null if the frame is not complete yet
+     */
+    private Message decodeTextFrame() {
+        while (readBuffer.hasRemaining()) {
+            byte b = readBuffer.get();
+            if (!escape) {
+                if (b == ESCAPE_CHARACTER) {
+                    escape = true;
+                    continue;
+                }
+
+                if (b == MESSAGE_DELIMITER) {
+                    String text = new String(frame, 0, frameLength, StandardCharsets.UTF_8);
+                    frameLength = 0;
+                    return Message.deserialize(text);
+                }
+            }
+
+            escape = false;
+            ensureFrameCapacity(frameLength + 1);
+            frame[frameLength++] = b;
+        }
+
+        return null;
+    }
+
+    /**
+     * Consumes the read buffer up to the end of the first length-prefixed frame (bulk copies, no scanning)
+     * @return Message or null if the frame is not complete yet
+     */
+    private Message decodeBinaryFrame() {
+        while (readBuffer.hasRemaining()) {
+            int frameSize = BinaryCodec.HEADER_SIZE;
+            if (frameLength >= BinaryCodec.HEADER_SIZE) {
+                int bodyLength = BinaryCodec.decodeBodyLength(frame, 0);
+                if (bodyLength == 0) {
+                    throw new RuntimeException();
+                }
+                frameSize += bodyLength;
+            }
+            ensureFrameCapacity(frameSize);
+
+            int count = Math.min(readBuffer.remaining(), frameSize - frameLength);
+            readBuffer.get(frame, frameLength, count);
+            frameLength += count;
+
+            if (frameLength == frameSize && frameSize > BinaryCodec.HEADER_SIZE) {
+                frameLength = 0;
+                return BinaryCodec.decode(frame, BinaryCodec.HEADER_SIZE, frameSize - BinaryCodec.HEADER_SIZE);
+            }
+        }
+
+        return null;
+    }
+
+    private void ensureFrameCapacity(int capacity) {
+        if (capacity > frame.length) {
+            frame = Arrays.copyOf(frame, Math.max(capacity, 2 * frame.length));
+        }
+    }
+
+}
@@ -1,94 +1,74 @@
 package battleship.client.controllers.messages;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
-import java.io.*;
-import java.net.Socket;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Messages Communicator
+ * Messages are delimited by 0x0A, delimiters (and escape characters) inside messages are escaped by '\'
+ * Communicators supporting binary framing switch to it once negotiated (see {@link Capability#BINARY})
  */
-public class Communicator {
-
-    private final Logger logger = LogManager.getLogger();
-
-    private static final char ESCAPE_CHARACTER = '\\';
-    private static final char MESSAGE_DELIMITER = 0x0A;
-
-    private final Object WRITE_ACCESS = new Object();
-
-    private final BufferedReader bufferedReader;
-    private final BufferedWriter bufferedWriter;
+public interface Communicator {
 
     /**
-     * Creates a messages communicator on the socket
-     * @param socket Socket
+     * Receives a message (blocks)
+     * @return Message
      * @throws IOException on IO error
      */
-    public Communicator(Socket socket) throws IOException {
-        bufferedReader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-        bufferedWriter = new BufferedWriter(new PrintWriter(socket.getOutputStream()));
-    }
+    Message receive() throws IOException;
 
     /**
-     * Receives a message (blocks)
-     * @return Message
-     * @throws IOException on IO error
+     * Sends a message (does not block)
+     * The message is enqueued for the connection writer (to the lane of its priority), which escapes message delimiters (and escape characters)
+     * @param message Message
+     * @return Future completed once the message is written (exceptionally with IOException on IO error)
      */
-    public Message receive() throws IOException {
-        logger.trace("Receiving Message");
-        StringBuilder stringBuilder = new StringBuilder();
+    default CompletableFuture<Void> send(Message message) {
+        return send(message, null);
+    }
 
-        boolean escape = false;
-        for (char c; ; ) {
-            c = (char) bufferedReader.read();
-            if (c == (char) -1) { // EOF
-                throw new IOException();
-            }
+    /**
+     * Sends a message (does not block), runs an action once the writer takes the message for writing
+     * Actions run in the order messages are written (lanes may reorder messages of different priorities),
+     * e.g. a request registers its response expectation, so that responses are correlated in the order of the requests
+     * @param message Message
+     * @param onTaken Action run by the writer before the message is written (null if none), it must not block
+     * @return Future completed once the message is written (exceptionally with IOException on IO error, the action is then not run)
+     */
+    CompletableFuture<Void> send(Message message, Runnable onTaken);
 
-            if (!escape) {
-                if (c == ESCAPE_CHARACTER) {
-                    escape = true;
-                    continue;
-                }
+    /**
+     * Returns time of the last sent message (or of the construction), the outbound link has been idle since
+     * @return Time [ms]
+     */
+    long getLastSendMs();
 
-                if (c == MESSAGE_DELIMITER) {
-                    break;
-                }
-            }
+    /**
+     * Returns mean queue latency of outbound messages of the priority (enqueued to taken for writing)
+     * @param priority Priority
+     * @return Mean latency [us], 0 if none has been written
+     */
+    double getMeanQueueLatencyUs(Message.Priority priority);
 
-            escape = false;
-            stringBuilder.append(c);
-        }
+    /**
+     * Returns max queue latency of outbound messages of the priority (enqueued to taken for writing)
+     * @param priority Priority
+     * @return Max latency [us]
+     */
+    long getMaxQueueLatencyUs(Message.Priority priority);
 
-        Message message = Message.deserialize(stringBuilder.toString());
-        logger.trace("Message Received: " + message.serialize());
-        return message;
+    /**
+     * Returns whether the communicator supports binary framing (and may offer it)
+     * @return True if supported
+     */
+    default boolean isBinaryFramingSupported() {
+        return false;
     }
 
     /**
-     * Sends a message (does not block)
-     * Escapes message delimiters (and escape characters)
-     * @param message Message
-     * @throws IOException on IO error
+     * Closes the communicator (and the underlying connection)
+     * Unblocks a pending receive (it throws IOException)
      */
-    public void send(Message message) throws IOException {
-        logger.trace("Sending Message: " + message.serialize());
-        String text = message.serialize();
-
-        synchronized (WRITE_ACCESS) {
-            for (int i = 0; i < text.length(); i++) {
-                char c = text.charAt(i);
-                if (c == ESCAPE_CHARACTER || c == MESSAGE_DELIMITER) {
-                    bufferedWriter.write(ESCAPE_CHARACTER);
-                }
-                bufferedWriter.write(c);
-            }
-            bufferedWriter.write(MESSAGE_DELIMITER);
-            bufferedWriter.flush();
-        }
-        logger.trace("Message Sent");
-    }
+    void close();
 
 }
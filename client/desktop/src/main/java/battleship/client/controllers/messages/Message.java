@@ -2,8 +2,7 @@ package battleship.client.controllers.messages;
 
 import battleship.client.models.BoardState;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -13,6 +12,7 @@ public class Message {
 
     /**
      * Message Type
+     * Ordinal is the type code of the binary framing (new types are appended)
      */
     public enum Type {
         WELCOME,
@@ -46,7 +46,33 @@ public class Message {
         REJOIN,
         OPPONENT_REJOIN,
         BOARD_STATE,
-        INVALIDATE_FIELD
+        INVALIDATE_FIELD,
+        CAPABILITIES,
+        BOARD_STATE_PACKED,
+        RESUME_TOKEN,
+        RESUME,
+        RESUMED,
+        RESUME_REJECTED,
+        KEEP_ALIVE_INTERVAL,
+        KEEP_ALIVE_ECHO,
+        SERVER_LOAD,
+        ROOM_CREATE_SALVO,
+        SALVO,
+        SALVO_RESULT,
+        OPPONENT_SALVO
+    }
+
+    /**
+     * Outbound Message Priority
+     * Lanes of the outbound writer, a lane goes ahead of the following ones
+     */
+    public enum Priority {
+        /** Game actions of the user (their click-to-result latency matters) */
+        INTERACTIVE,
+        /** Session control and liveness (keep alives, capabilities, nickname, resume, probes) */
+        CONTROL,
+        /** Bulk data (board layout) */
+        BULK
     }
 
     /**
@@ -78,14 +104,81 @@ public class Message {
             Map.entry(Type.REJOIN, 2),
             Map.entry(Type.OPPONENT_REJOIN, 0),
             Map.entry(Type.BOARD_STATE, 1 + BoardState.SIZE * BoardState.SIZE),
-            Map.entry(Type.INVALIDATE_FIELD, 2)
+            Map.entry(Type.INVALIDATE_FIELD, 2),
+            Map.entry(Type.CAPABILITIES, 1),
+            Map.entry(Type.BOARD_STATE_PACKED, 2),
+            Map.entry(Type.RESUME_TOKEN, 1),
+            Map.entry(Type.RESUMED, 0),
+            Map.entry(Type.RESUME_REJECTED, 0),
+            Map.entry(Type.KEEP_ALIVE_INTERVAL, 1),
+            Map.entry(Type.KEEP_ALIVE_ECHO, 1),
+            Map.entry(Type.SERVER_LOAD, 5),
+            Map.entry(Type.SALVO_RESULT, 2),
+            Map.entry(Type.OPPONENT_SALVO, 2)
     );
 
+    /**
+     * Incoming Messages Parameters Count indexed by Message Type ordinal (-1 if not incoming)
+     */
+    private static final int[] PARAMETERS_COUNTS_BY_ORDINAL = new int[Type.values().length];
+    /**
+     * Message Types indexed by their name length
+     */
+    private static final Type[][] TYPES_BY_NAME_LENGTH;
+
+    static {
+        Arrays.fill(PARAMETERS_COUNTS_BY_ORDINAL, -1);
+        PARAMETERS_COUNTS.forEach((type, count) -> PARAMETERS_COUNTS_BY_ORDINAL[type.ordinal()] = count);
+
+        int maxNameLength = Arrays.stream(Type.values()).mapToInt(type -> type.name().length()).max().orElse(0);
+        TYPES_BY_NAME_LENGTH = new Type[maxNameLength + 1][];
+        for (int length = 0; length <= maxNameLength; length++) {
+            int length_ = length;
+            TYPES_BY_NAME_LENGTH[length] = Arrays.stream(Type.values()).filter(type -> type.name().length() == length_).toArray(Type[]::new);
+        }
+    }
+
     private static final char ESCAPE_CHARACTER = '\\';
     private static final char PARAMETER_DELIMITER = '|';
+    private static final char SEQUENCE_DELIMITER = '#';
+
+    private static final String CLIENT_YOU = "YOU";
+    private static final String CLIENT_OPPONENT = "OPPONENT";
+    private static final String TURN_RESULT_HIT = "HIT";
+    private static final String TURN_RESULT_MISS = "MISS";
+    private static final String DURATION_SHORT = "SHORT";
+    private static final String DURATION_LONG = "LONG";
+    private static final String STATE_GAME = "GAME";
+    private static final String STATE_ROOM = "ROOM";
+    private static final String NODE_NONE = "NONE";
+    private static final BoardState.Field[] FIELDS = BoardState.Field.values();
+    /**
+     * Fields indexed by their packed form (first letter of the name)
+     */
+    private static final BoardState.Field[] FIELDS_BY_LETTER = new BoardState.Field['Z' + 1];
+
+    static {
+        for (BoardState.Field field : FIELDS) {
+            FIELDS_BY_LETTER[field.name().charAt(0)] = field;
+        }
+    }
 
     private final Type type;
-    private final List<String> parameters;
+    private final String[] parameters;
+    private Payload payload;
+    /**
+     * Event sequence number (0 if the message is not a sequenced event), set on decoding
+     */
+    private int sequence = 0;
+
+    /**
+     * Serialized form the message has been deserialized from (null if constructed)
+     */
+    private final String source;
+    /**
+     * Parameters boundaries in the source, i'th parameter is [bounds[i], bounds[i + 1] - 1) (null if constructed)
+     */
+    private final int[] bounds;
 
     /**
      * Constructs a message with given type and parameters
@@ -93,13 +186,26 @@ public class Message {
      * @param parameters Paramateres
      */
     public Message(Type type, Object... parameters) {
-        this.type = type;
-        this.parameters = new ArrayList<>();
-        for (Object parameter : parameters) {
-            this.parameters.add(parameter.toString());
+        this(type, new String[parameters.length], null, null);
+        for (int i = 0; i < parameters.length; i++) {
+            this.parameters[i] = parameters[i].toString();
         }
     }
 
+    /**
+     * Constructs a message, deserialized messages have parameters materialized lazily from the source
+     * @param type Message Type
+     * @param parameters Parameters (unmaterialized are null)
+     * @param source Serialized message (null if not deserialized from text)
+     * @param bounds Parameters boundaries in the source (null if not deserialized from text)
+     */
+    private Message(Type type, String[] parameters, String source, int[] bounds) {
+        this.type = type;
+        this.parameters = parameters;
+        this.source = source;
+        this.bounds = bounds;
+    }
+
     /**
      * Returns the message type
      * @return Message type
@@ -114,7 +220,44 @@ public class Message {
      * @return Index'th parameter
      */
     public String getParameter(int index) {
-        return parameters.get(index);
+        String parameter = parameters[index];
+        if (parameter == null) {
+            parameter = materializeParameter(index);
+            parameters[index] = parameter;
+        }
+        return parameter;
+    }
+
+    /**
+     * Returns the outbound priority of the message
+     * @return Priority
+     */
+    public Priority getPriority() {
+        return switch (type) {
+            case TURN, SALVO, ROOM_CREATE, ROOM_CREATE_SALVO, ROOM_JOIN, ROOM_LEAVE -> Priority.INTERACTIVE;
+            case BOARD_READY -> Priority.BULK;
+            default -> Priority.CONTROL;
+        };
+    }
+
+    /**
+     * Returns the typed payload
+     * Decoded messages have the payload produced on decoding, constructed messages decode it on demand
+     * @return Payload
+     */
+    public Payload getPayload() {
+        if (payload == null) {
+            payload = decodePayload();
+        }
+        return payload;
+    }
+
+    /**
+     * Returns the event sequence number
+     * @return Sequence number (0 if the message is not a sequenced event)
+     */
+    public int getSequence() {
+        return sequence;
     }
 
     /**
@@ -122,7 +265,7 @@ public class Message {
      * @return Parameters count
      */
     public int getParametersCnt() {
-        return parameters.size();
+        return parameters.length;
     }
 
     /**
@@ -131,6 +274,10 @@ public class Message {
      * @return String
      */
     public String serialize() {
+        if (source != null) {
+            return source;
+        }
+
         StringBuilder stringBuilder = new StringBuilder();
 
         stringBuilder.append(type.name());
@@ -150,60 +297,321 @@ public class Message {
 
     /**
      * Deserializes the message
+     * Single pass, only parameters boundaries are recorded, parameters are materialized on demand
+     * Sequenced event has the sequence number appended to the type (TYPE#seq)
      * @param string String
      * @return Message
      */
     public static Message deserialize(String string) {
-        String[] parts = string.split("\\" + PARAMETER_DELIMITER );
+        int typeLength = string.indexOf(PARAMETER_DELIMITER);
+        if (typeLength == -1) {
+            typeLength = string.length();
+        }
 
-        Type type;
-        try {
-            type = Type.valueOf(parts[0]);
+        int sequence = 0;
+        int nameLength = string.lastIndexOf(SEQUENCE_DELIMITER, typeLength - 1);
+        if (nameLength == -1) {
+            nameLength = typeLength;
+        }
+        else {
+            sequence = Integer.parseInt(string, nameLength + 1, typeLength, 10);
         }
-        catch (IllegalArgumentException e) {
+
+        Type type = lookupType(string, nameLength);
+        if (type == null) {
             throw new RuntimeException();
         }
 
-        if (!PARAMETERS_COUNTS.containsKey(type)) {
+        int parametersCnt = PARAMETERS_COUNTS_BY_ORDINAL[type.ordinal()];
+        if (parametersCnt == -1) {
             throw new RuntimeException();
         }
 
-        if (string.length() == type.name().length()) {
-            return new Message(type);
+        if (typeLength == string.length()) { // parameterless messages are accepted whatever count is expected (e.g. GAME_BEGIN)
+            return decoded(new Message(type, new String[0], string, new int[] {0}), sequence);
         }
 
-        List<String> parameters = new ArrayList<>();
+        int[] bounds = new int[parametersCnt + 1];
+        int parameterIndex = 0;
+        bounds[parameterIndex] = typeLength + 1;
+
         boolean escape = false;
-        StringBuilder stringBuilder = new StringBuilder();
-        for (int i = type.name().length() + 1; ; i++) {
-            if (i >= string.length()) {
-                parameters.add(stringBuilder.toString());
-                break;
+        for (int i = typeLength + 1; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (escape) {
+                escape = false;
+                continue;
             }
 
-            char c = string.charAt(i);
-            if (!escape) {
-                if (c == ESCAPE_CHARACTER) {
-                    escape = true;
-                    continue;
+            if (c == ESCAPE_CHARACTER) {
+                escape = true;
+            }
+            else if (c == PARAMETER_DELIMITER) {
+                if (++parameterIndex >= parametersCnt) {
+                    throw new RuntimeException();
                 }
+                bounds[parameterIndex] = i + 1;
+            }
+        }
+
+        if (escape || parameterIndex + 1 != parametersCnt) { // a dangling escape character is never serialized
+            throw new RuntimeException();
+        }
+        bounds[parametersCnt] = string.length() + 1;
+
+        return decoded(new Message(type, new String[parametersCnt], string, bounds), sequence);
+    }
+
+    /**
+     * Creates a decoded message from already materialized parameters (binary framing)
+     * @param type Message Type
+     * @param parameters Parameters
+     * @param sequence Event sequence number (0 if the message is not a sequenced event)
+     * @return Message
+     */
+    static Message fromParameters(Type type, String[] parameters, int sequence) {
+        int parametersCnt = PARAMETERS_COUNTS_BY_ORDINAL[type.ordinal()];
+        if (parametersCnt == -1 || (parameters.length != parametersCnt && parameters.length != 0)) { // parameterless accepted as in text
+            throw new RuntimeException();
+        }
+        return decoded(new Message(type, parameters, null, null), sequence);
+    }
+
+    private static Message decoded(Message message, int sequence) {
+        message.sequence = sequence;
+        message.payload = message.decodePayload();
+        return message;
+    }
+
+    private static Type lookupType(String string, int length) {
+        if (length >= TYPES_BY_NAME_LENGTH.length) {
+            return null;
+        }
 
-                if (c == PARAMETER_DELIMITER) {
-                    parameters.add(stringBuilder.toString());
-                    stringBuilder = new StringBuilder();
-                    continue;
+        for (Type type : TYPES_BY_NAME_LENGTH[length]) {
+            if (string.regionMatches(0, type.name(), 0, length)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private Payload decodePayload() {
+        return switch (type) {
+            case LIMIT_CLIENTS, LIMIT_ROOMS -> new Payload.Limit(Integer.parseInt(getParameter(0)));
+            case ROOM_CREATED -> new Payload.RoomCreated(getParameter(0));
+            case OPPONENT_NICKNAME_SET -> new Payload.OpponentNicknameSet(getParameter(0));
+            case GAME_BEGIN -> new Payload.GameBegin(getParametersCnt() == 0 ? 1 : Integer.parseInt(getParameter(0)));
+            case TURN_SET -> new Payload.TurnSet(decodeToken(0, CLIENT_YOU, CLIENT_OPPONENT));
+            case OPPONENT_NO_RESPONSE -> new Payload.OpponentNoResponse(decodeToken(0, DURATION_SHORT, DURATION_LONG));
+            case TURN_RESULT -> new Payload.TurnResult(decodeFieldCoordinate(0, 0), decodeFieldCoordinate(0, 1), decodeToken(1, TURN_RESULT_HIT, TURN_RESULT_MISS));
+            case OPPONENT_TURN -> new Payload.OpponentTurn(decodeFieldCoordinate(0, 0), decodeFieldCoordinate(0, 1), decodeToken(1, TURN_RESULT_HIT, TURN_RESULT_MISS));
+            case SALVO_RESULT -> {
+                int[] fields = decodeSalvoFields();
+                Payload.TurnResult[] results = new Payload.TurnResult[fields.length];
+                for (int i = 0; i < fields.length; i++) {
+                    results[i] = new Payload.TurnResult(fields[i] / BoardState.SIZE, fields[i] % BoardState.SIZE, decodeSalvoHit(i));
+                }
+                yield new Payload.SalvoResult(results);
+            }
+            case OPPONENT_SALVO -> {
+                int[] fields = decodeSalvoFields();
+                Payload.OpponentTurn[] turns = new Payload.OpponentTurn[fields.length];
+                for (int i = 0; i < fields.length; i++) {
+                    turns[i] = new Payload.OpponentTurn(fields[i] / BoardState.SIZE, fields[i] % BoardState.SIZE, decodeSalvoHit(i));
+                }
+                yield new Payload.OpponentSalvo(turns);
+            }
+            case GAME_END -> new Payload.GameEnd(decodeToken(0, CLIENT_YOU, CLIENT_OPPONENT));
+            case REJOIN -> new Payload.Rejoin(decodeToken(0, STATE_GAME, STATE_ROOM), getParameter(1));
+            case BOARD_STATE -> {
+                BoardState.Field[] fields = new BoardState.Field[getParametersCnt() - 1];
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = decodeField(i + 1);
                 }
+                yield new Payload.BoardStateSnapshot(decodeToken(0, CLIENT_YOU, CLIENT_OPPONENT), fields);
             }
+            case BOARD_STATE_PACKED -> new Payload.BoardStateSnapshot(decodeToken(0, CLIENT_YOU, CLIENT_OPPONENT), decodePackedFields(getParameter(1)));
+            case INVALIDATE_FIELD -> new Payload.InvalidateField(decodeToken(0, CLIENT_YOU, CLIENT_OPPONENT), decodeFieldCoordinate(1, 0), decodeFieldCoordinate(1, 1));
+            case CAPABILITIES -> new Payload.Capabilities(Capability.parse(getParameter(0)));
+            case RESUME_TOKEN -> new Payload.ResumeToken(getParameter(0));
+            case KEEP_ALIVE_INTERVAL -> new Payload.KeepAliveInterval(Integer.parseInt(getParameter(0)));
+            case KEEP_ALIVE_ECHO -> new Payload.KeepAliveEcho(Long.parseLong(getParameter(0)));
+            case SERVER_LOAD -> new Payload.ServerLoad(Integer.parseInt(getParameter(0)), Integer.parseInt(getParameter(1)),
+                    Integer.parseInt(getParameter(2)), Integer.parseInt(getParameter(3)), isToken(4, NODE_NONE) ? "" : getParameter(4));
+            default -> Payload.Empty.INSTANCE;
+        };
+    }
 
-            escape = false;
-            stringBuilder.append(c);
+    /**
+     * Returns whether the index'th (raw) parameter equals the token (compared in place, without materializing)
+     * @param index Index
+     * @param token Token
+     * @return Boolean
+     */
+    private boolean isToken(int index, String token) {
+        if (source == null) {
+            return parameters[index].equals(token);
+        }
+
+        int begin = bounds[index];
+        int length = bounds[index + 1] - 1 - begin;
+        return length == token.length() && source.regionMatches(begin, token, 0, length);
+    }
+
+    /**
+     * Decodes a two-valued token parameter
+     * @param index Index
+     * @param trueToken Token decoded as true
+     * @param falseToken Token decoded as false
+     * @return Boolean
+     */
+    private boolean decodeToken(int index, String trueToken, String falseToken) {
+        if (isToken(index, trueToken)) {
+            return true;
+        }
+        if (isToken(index, falseToken)) {
+            return false;
+        }
+        throw new RuntimeException();
+    }
+
+    private BoardState.Field decodeField(int index) {
+        for (BoardState.Field field : FIELDS) {
+            if (isToken(index, field.name())) {
+                return field;
+            }
         }
+        throw new RuntimeException();
+    }
 
-        if (PARAMETERS_COUNTS.get(type) != parameters.size()) {
+    /**
+     * Decodes run-length encoded fields (field's first letter followed by the run length if > 1)
+     * @param packed Packed fields
+     * @return Fields (row-major)
+     */
+    private static BoardState.Field[] decodePackedFields(String packed) {
+        BoardState.Field[] fields = new BoardState.Field[BoardState.SIZE * BoardState.SIZE];
+        int fieldsCnt = 0;
+        for (int i = 0; i < packed.length(); ) {
+            char letter = packed.charAt(i++);
+            BoardState.Field field = letter < FIELDS_BY_LETTER.length ? FIELDS_BY_LETTER[letter] : null;
+            if (field == null) {
+                throw new RuntimeException();
+            }
+
+            int runLength = 0;
+            for (; i < packed.length() && Character.isDigit(packed.charAt(i)); i++) {
+                runLength = 10 * runLength + packed.charAt(i) - '0';
+            }
+            if (runLength == 0) {
+                runLength = 1;
+            }
+            if (fieldsCnt + runLength > fields.length) {
+                throw new RuntimeException();
+            }
+
+            Arrays.fill(fields, fieldsCnt, fieldsCnt + runLength, field);
+            fieldsCnt += runLength;
+        }
+
+        if (fieldsCnt != fields.length) {
             throw new RuntimeException();
         }
+        return fields;
+    }
 
-        return new Message(type, parameters.toArray());
+    /**
+     * Decodes salvo fields, concatenated field positions ("<row><col>...") of the first parameter,
+     * their count must match the count of results (letters) of the second parameter
+     * @return Fields indices (row-major)
+     */
+    private int[] decodeSalvoFields() {
+        String fields = getParameter(0);
+        if (fields.isEmpty() || fields.length() != 2 * getParameter(1).length()) {
+            throw new RuntimeException();
+        }
+
+        int[] indices = new int[fields.length() / 2];
+        for (int i = 0; i < indices.length; i++) {
+            int row = fields.charAt(2 * i) - '0';
+            int col = fields.charAt(2 * i + 1) - '0';
+            if (row < 0 || row >= BoardState.SIZE || col < 0 || col >= BoardState.SIZE) {
+                throw new RuntimeException();
+            }
+            indices[i] = BoardState.SIZE * row + col;
+        }
+        return indices;
+    }
+
+    /**
+     * Decodes i'th salvo result, turn result's first letter (H, M) of the second parameter
+     * @param i Index of the turn in the salvo
+     * @return True if hit, false if miss
+     */
+    private boolean decodeSalvoHit(int i) {
+        char result = getParameter(1).charAt(i);
+        if (result == TURN_RESULT_HIT.charAt(0)) {
+            return true;
+        }
+        if (result == TURN_RESULT_MISS.charAt(0)) {
+            return false;
+        }
+        throw new RuntimeException();
+    }
+
+    /**
+     * Decodes a field position parameter coordinate ("<row><col>")
+     * @param index Index
+     * @param position 0 for row, 1 for col
+     * @return Coordinate
+     */
+    private int decodeFieldCoordinate(int index, int position) {
+        String text = source;
+        int begin;
+        int length;
+        if (source == null) {
+            text = parameters[index];
+            begin = 0;
+            length = text.length();
+        }
+        else {
+            begin = bounds[index];
+            length = bounds[index + 1] - 1 - begin;
+        }
+        if (length != 2) {
+            throw new RuntimeException();
+        }
+
+        int coordinate = text.charAt(begin + position) - '0';
+        if (coordinate < 0 || coordinate >= BoardState.SIZE) {
+            throw new RuntimeException();
+        }
+        return coordinate;
+    }
+
+    private String materializeParameter(int index) {
+        int begin = bounds[index];
+        int end = bounds[index + 1] - 1;
+
+        int escapeIndex = source.indexOf(ESCAPE_CHARACTER, begin);
+        if (escapeIndex == -1 || escapeIndex >= end) {
+            return source.substring(begin, end);
+        }
+
+        StringBuilder stringBuilder = new StringBuilder(end - begin);
+        boolean escape = false;
+        for (int i = begin; i < end; i++) {
+            char c = source.charAt(i);
+            if (!escape && c == ESCAPE_CHARACTER) {
+                escape = true;
+                continue;
+            }
+
+            escape = false;
+            stringBuilder.append(c);
+        }
+        return stringBuilder.toString();
     }
 
     /**
@@ -0,0 +1,420 @@
+package battleship.client.controllers.messages;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Outbound Messages Writer
+ * Single writer of a connection, drains the outbound lanes in batches
+ * Messages are enqueued to the lane of their priority ({@link Message.Priority}), a lane is drained ahead of the following ones,
+ * messages of a lane keep their order
+ * A lane passed over by {@value #MAX_PASSED_CNT} messages of the preceding lanes (while not empty) goes first, so that it is not starved
+ * Queue latency (enqueued to taken for writing) is recorded per lane
+ * An action of a message runs when the message is taken, so actions follow the written order rather than the enqueued one
+ * Encodes escaped frames (UTF-8) straight into direct buffers, writes a batch by a single gathering write
+ * Once switched to binary framing, frames are encoded by {@link BinaryCodec} instead
+ */
+public class OutboundWriter implements Runnable {
+
+    private final Logger logger = LogManager.getLogger();
+
+    private static final byte ESCAPE_CHARACTER = '\\';
+    private static final byte MESSAGE_DELIMITER = 0x0A;
+    private static final int BUFFER_SIZE = 8_192;
+    private static final int MAX_BUFFERS = 16;
+    private static final int MAX_BATCH_SIZE = 64;
+    /** Count of messages of the preceding lanes a non-empty lane is passed over by at most */
+    static final int MAX_PASSED_CNT = 8;
+    private static final Message.Priority[] PRIORITIES = Message.Priority.values();
+    /** Longest encoding of a char (escape character + 3 bytes, or 4 bytes of a surrogate pair) */
+    private static final int MAX_CHAR_ENCODING_SIZE = 4;
+
+    private record Entry(Message message, Runnable onTaken, CompletableFuture<Void> future, long enqueuedNs) { }
+
+    private final WritableByteChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition isNotEmpty = lock.newCondition();
+    /** Lanes indexed by priority ordinal, guarded by the lock */
+    private final List<ArrayDeque<Entry>> lanes = new ArrayList<>(PRIORITIES.length);
+    /** Count of messages of the preceding lanes taken while the lane has not been empty, guarded by the lock */
+    private final int[] passedCnts = new int[PRIORITIES.length];
+    private final List<Entry> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    private final ByteBuffer[] buffers = new ByteBuffer[MAX_BUFFERS];
+    private int buffersCnt = 0;
+    private ByteBuffer binaryFrame;
+
+    private final AtomicLongArray takenCnts = new AtomicLongArray(PRIORITIES.length);
+    private final AtomicLongArray queueLatenciesSumNs = new AtomicLongArray(PRIORITIES.length);
+    private final AtomicLongArray maxQueueLatenciesNs = new AtomicLongArray(PRIORITIES.length);
+
+    /** Guarded by the lock */
+    private boolean isClosing = false;
+    private volatile boolean isBinary = false;
+    private volatile long lastEnqueuedMs = System.currentTimeMillis();
+
+    /**
+     * Constructs an outbound writer
+     * @param channel Channel to write to (in blocking mode)
+     */
+    public OutboundWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            lanes.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Enqueues a message to be written (does not block), to the lane of its priority
+     * @param message Message
+     * @return Future completed once the message is written (exceptionally on IO error or if the writer is closed)
+     */
+    public CompletableFuture<Void> enqueue(Message message) {
+        return enqueue(message, null);
+    }
+
+    /**
+     * Enqueues a message to be written (does not block), to the lane of its priority
+     * @param message Message
+     * @param onTaken Action run (by the writer, holding its lock) once the message is taken for writing (null if none)
+     * @return Future completed once the message is written (exceptionally on IO error or if the writer is closed, the action is then not run)
+     */
+    public CompletableFuture<Void> enqueue(Message message, Runnable onTaken) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (isClosing) {
+                future.completeExceptionally(new IOException("Writer Closed"));
+                return future;
+            }
+            lanes.get(message.getPriority().ordinal()).add(new Entry(message, onTaken, future, System.nanoTime()));
+            isNotEmpty.signal();
+        }
+        finally {
+            lock.unlock();
+        }
+
+        lastEnqueuedMs = System.currentTimeMillis();
+        return future;
+    }
+
+    /**
+     * Returns time of the last enqueued message (or of the writer construction)
+     * @return Time [ms]
+     */
+    public long getLastEnqueuedMs() {
+        return lastEnqueuedMs;
+    }
+
+    /**
+     * Switches to binary framing, messages not written yet are written in binary frames
+     */
+    public void switchToBinary() {
+        isBinary = true;
+    }
+
+    /**
+     * Returns count of messages of the priority taken for writing
+     * @param priority Priority
+     * @return Count
+     */
+    public long getTakenCount(Message.Priority priority) {
+        return takenCnts.get(priority.ordinal());
+    }
+
+    /**
+     * Returns mean queue latency (enqueued to taken for writing) of messages of the priority
+     * @param priority Priority
+     * @return Mean latency [us], 0 if none has been taken
+     */
+    public double getMeanQueueLatencyUs(Message.Priority priority) {
+        long takenCnt = takenCnts.get(priority.ordinal());
+        return takenCnt == 0 ? 0 : queueLatenciesSumNs.get(priority.ordinal()) / 1_000.0 / takenCnt;
+    }
+
+    /**
+     * Returns max queue latency (enqueued to taken for writing) of messages of the priority
+     * @param priority Priority
+     * @return Max latency [us]
+     */
+    public long getMaxQueueLatencyUs(Message.Priority priority) {
+        return maxQueueLatenciesNs.get(priority.ordinal()) / 1_000;
+    }
+
+    /**
+     * Closes the writer, messages enqueued before are still written, later ones fail
+     * May be called more than once
+     */
+    public void close() {
+        lock.lock();
+        try {
+            isClosing = true;
+            isNotEmpty.signal();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writer Loop
+     */
+    @Override
+    public void run() {
+        IOException exception = new IOException("Writer Closed");
+        try {
+            while (takeBatch()) {
+                writeBatch();
+                for (Entry entry : batch) {
+                    entry.future().complete(null);
+                }
+                batch.clear();
+            }
+        }
+        catch (IOException e) {
+            logger.error(e.getMessage());
+            exception = e;
+        }
+        catch (InterruptedException e) {
+            logger.trace("Interrupted");
+        }
+        finally {
+            for (Message.Priority priority : PRIORITIES) {
+                logger.debug("Queue Latency " + priority + ": Mean: " + getMeanQueueLatencyUs(priority) + " us, Max: "
+                        + getMaxQueueLatencyUs(priority) + " us, Messages: " + getTakenCount(priority));
+            }
+            for (Entry entry : batch) {
+                entry.future().completeExceptionally(exception);
+            }
+
+            lock.lock();
+            try {
+                isClosing = true;
+                for (ArrayDeque<Entry> lane : lanes) {
+                    for (Entry entry; (entry = lane.poll()) != null; ) {
+                        entry.future().completeExceptionally(exception);
+                    }
+                }
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Takes the next batch from the lanes (blocks until there is a message or the writer is closed)
+     * @return True if taken, false if closed and all lanes are empty
+     * @throws InterruptedException if interrupted
+     */
+    private boolean takeBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            Entry entry;
+            while ((entry = takeNext()) == null) {
+                if (isClosing) {
+                    return false;
+                }
+                isNotEmpty.await();
+            }
+
+            long nowNs = System.nanoTime();
+            do {
+                int laneIdx = entry.message().getPriority().ordinal();
+                long queueLatencyNs = nowNs - entry.enqueuedNs();
+                takenCnts.incrementAndGet(laneIdx);
+                queueLatenciesSumNs.addAndGet(laneIdx, queueLatencyNs);
+                if (queueLatencyNs > maxQueueLatenciesNs.get(laneIdx)) {
+                    maxQueueLatenciesNs.set(laneIdx, queueLatencyNs);
+                }
+                if (entry.onTaken() != null) {
+                    entry.onTaken().run();
+                }
+                batch.add(entry);
+            } while (batch.size() < MAX_BATCH_SIZE && (entry = takeNext()) != null);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next message (the lock is held)
+     * The first non-empty lane goes, unless a following lane has been passed over too many times
+     * @return Entry, null if all lanes are empty
+     */
+    private Entry takeNext() {
+        for (int i = lanes.size() - 1; i > 0; i--) {
+            if (passedCnts[i] >= MAX_PASSED_CNT && !lanes.get(i).isEmpty()) {
+                return take(i);
+            }
+        }
+
+        for (int i = 0; i < lanes.size(); i++) {
+            if (!lanes.get(i).isEmpty()) {
+                return take(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes the head of a lane, the non-empty following lanes are passed over by it
+     * (also if the lane goes first for being starved, so that it does not add to the wait of the following ones)
+     * @param laneIdx Lane index
+     * @return Entry
+     */
+    private Entry take(int laneIdx) {
+        passedCnts[laneIdx] = 0;
+        for (int i = laneIdx + 1; i < lanes.size(); i++) {
+            if (!lanes.get(i).isEmpty()) {
+                passedCnts[i]++;
+            }
+        }
+        return lanes.get(laneIdx).poll();
+    }
+
+    private void writeBatch() throws IOException {
+        logger.trace("Writing Batch: " + batch.size());
+        buffersCnt = 0;
+        ByteBuffer buffer = nextBuffer();
+        for (Entry entry : batch) {
+            buffer = isBinary ? writeBinary(entry.message(), buffer) : writeText(entry.message().serialize(), buffer);
+        }
+        flushBuffers();
+    }
+
+    /**
+     * Encodes a text frame to the batch buffers
+     * @param text Serialized message
+     * @param buffer Current buffer
+     * @return Current buffer
+     * @throws IOException on IO error
+     */
+    private ByteBuffer writeText(String text, ByteBuffer buffer) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            if (buffer.remaining() < MAX_CHAR_ENCODING_SIZE) {
+                buffer = nextBuffer();
+            }
+
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (c == ESCAPE_CHARACTER || c == MESSAGE_DELIMITER) {
+                    buffer.put(ESCAPE_CHARACTER);
+                }
+                buffer.put((byte) c);
+            }
+            else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            }
+            else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            }
+            else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+
+        if (!buffer.hasRemaining()) {
+            buffer = nextBuffer();
+        }
+        buffer.put(MESSAGE_DELIMITER);
+        return buffer;
+    }
+
+    /**
+     * Encodes a binary frame to the batch buffers (a frame may span buffers)
+     * @param message Message
+     * @param buffer Current buffer
+     * @return Current buffer
+     * @throws IOException on IO error or if the message does not fit a frame
+     */
+    private ByteBuffer writeBinary(Message message, ByteBuffer buffer) throws IOException {
+        if (binaryFrame == null) {
+            binaryFrame = ByteBuffer.allocate(BinaryCodec.HEADER_SIZE + BinaryCodec.MAX_BODY_SIZE);
+        }
+
+        binaryFrame.clear();
+        try {
+            BinaryCodec.encode(message, binaryFrame);
+        }
+        catch (BufferOverflowException e) {
+            throw new IOException("Message Too Long");
+        }
+        binaryFrame.flip();
+
+        while (binaryFrame.hasRemaining()) {
+            if (!buffer.hasRemaining()) {
+                buffer = nextBuffer();
+            }
+            int limit = binaryFrame.limit();
+            binaryFrame.limit(binaryFrame.position() + Math.min(binaryFrame.remaining(), buffer.remaining()));
+            buffer.put(binaryFrame);
+            binaryFrame.limit(limit);
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the next empty buffer of the batch, flushes the buffers if all are used
+     * @return Buffer
+     * @throws IOException on IO error
+     */
+    private ByteBuffer nextBuffer() throws IOException {
+        if (buffersCnt == MAX_BUFFERS) {
+            flushBuffers();
+        }
+
+        if (buffers[buffersCnt] == null) {
+            buffers[buffersCnt] = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+        ByteBuffer buffer = buffers[buffersCnt++];
+        buffer.clear();
+        return buffer;
+    }
+
+    private void flushBuffers() throws IOException {
+        for (int i = 0; i < buffersCnt; i++) {
+            buffers[i].flip();
+        }
+
+        ByteBuffer last = buffers[buffersCnt - 1];
+        if (channel instanceof GatheringByteChannel gatheringChannel) {
+            while (last.hasRemaining()) {
+                gatheringChannel.write(buffers, 0, buffersCnt);
+            }
+        }
+        else {
+            for (int i = 0; i < buffersCnt; i++) {
+                while (buffers[i].hasRemaining()) {
+                    channel.write(buffers[i]);
+                }
+            }
+        }
+        buffersCnt = 0;
+    }
+
+}
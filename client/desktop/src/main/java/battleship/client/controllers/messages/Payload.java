@@ -0,0 +1,147 @@
+package battleship.client.controllers.messages;
+
+import battleship.client.models.BoardState;
+
+import java.util.Set;
+
+/**
+ * Message Payload
+ * Typed, pre-parsed message parameters, produced once when a message is decoded
+ */
+public sealed interface Payload {
+
+    /**
+     * Payload of messages without (used) parameters
+     */
+    record Empty() implements Payload {
+        /** Instance */
+        public static final Empty INSTANCE = new Empty();
+    }
+
+    /**
+     * LIMIT_CLIENTS, LIMIT_ROOMS
+     * @param limit Limit
+     */
+    record Limit(int limit) implements Payload { }
+
+    /**
+     * ROOM_CREATED
+     * @param code Room code
+     */
+    record RoomCreated(String code) implements Payload { }
+
+    /**
+     * OPPONENT_NICKNAME_SET
+     * @param nickname Opponent's nickname
+     */
+    record OpponentNicknameSet(String nickname) implements Payload { }
+
+    /**
+     * GAME_BEGIN
+     * @param salvoSize Shots per turn (1 in a classic room, also if not sent)
+     */
+    record GameBegin(int salvoSize) implements Payload { }
+
+    /**
+     * TURN_SET
+     * @param isYou True if client is on turn, false if opponent is on turn
+     */
+    record TurnSet(boolean isYou) implements Payload { }
+
+    /**
+     * OPPONENT_NO_RESPONSE
+     * @param isShort True if opponent is not responding for a short time, false if disconnected for a long time
+     */
+    record OpponentNoResponse(boolean isShort) implements Payload { }
+
+    /**
+     * TURN_RESULT
+     * @param row Row
+     * @param col Col
+     * @param isHit True if hit, false if miss
+     */
+    record TurnResult(int row, int col, boolean isHit) implements Payload { }
+
+    /**
+     * OPPONENT_TURN
+     * @param row Row
+     * @param col Col
+     * @param isHit True if hit, false if miss
+     */
+    record OpponentTurn(int row, int col, boolean isHit) implements Payload { }
+
+    /**
+     * SALVO_RESULT
+     * @param results Results of the turns of the salvo (in order, turns following the game end are not performed)
+     */
+    record SalvoResult(TurnResult[] results) implements Payload { }
+
+    /**
+     * OPPONENT_SALVO
+     * @param turns Turns of the opponent's salvo (in order)
+     */
+    record OpponentSalvo(OpponentTurn[] turns) implements Payload { }
+
+    /**
+     * GAME_END
+     * @param isWinner True if client has won
+     */
+    record GameEnd(boolean isWinner) implements Payload { }
+
+    /**
+     * REJOIN
+     * @param isInGame True if rejoined into a game, false if into a room
+     * @param code Room code
+     */
+    record Rejoin(boolean isInGame, String code) implements Payload { }
+
+    /**
+     * BOARD_STATE, BOARD_STATE_PACKED
+     * @param isOwn True if it is client's board, false if opponent's board
+     * @param fields Fields (row-major)
+     */
+    record BoardStateSnapshot(boolean isOwn, BoardState.Field[] fields) implements Payload { }
+
+    /**
+     * INVALIDATE_FIELD
+     * @param isOwn True if it is client's board, false if opponent's board
+     * @param row Row
+     * @param col Col
+     */
+    record InvalidateField(boolean isOwn, int row, int col) implements Payload { }
+
+    /**
+     * CAPABILITIES
+     * @param capabilities Capabilities accepted by the server
+     */
+    record Capabilities(Set<Capability> capabilities) implements Payload { }
+
+    /**
+     * RESUME_TOKEN
+     * @param token Opaque token to resume the session with (on reconnect)
+     */
+    record ResumeToken(String token) implements Payload { }
+
+    /**
+     * KEEP_ALIVE_INTERVAL
+     * @param intervalS Keep alive interval accepted by the server [s]
+     */
+    record KeepAliveInterval(int intervalS) implements Payload { }
+
+    /**
+     * KEEP_ALIVE_ECHO
+     * @param timestampNs Timestamp of the echoed keep alive message (sender's {@link System#nanoTime()})
+     */
+    record KeepAliveEcho(long timestampNs) implements Payload { }
+
+    /**
+     * SERVER_LOAD
+     * @param clientsCnt Connected clients count (the asking one included)
+     * @param limClients Clients count limit
+     * @param roomsCnt Rooms count
+     * @param limRooms Rooms count limit
+     * @param node Node digit prefixing room codes of the server (empty if none)
+     */
+    record ServerLoad(int clientsCnt, int limClients, int roomsCnt, int limRooms, String node) implements Payload { }
+
+}
@@ -0,0 +1,131 @@
+package battleship.client.controllers.messages;
+
+import battleship.client.controllers.transport.Connection;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Stream Messages Communicator
+ * Communicates over streams of a transport connection
+ */
+public class StreamCommunicator implements Communicator {
+
+    private final Logger logger = LogManager.getLogger();
+
+    private static final char ESCAPE_CHARACTER = '\\';
+    private static final char MESSAGE_DELIMITER = 0x0A;
+
+    private final Connection connection;
+    private final BufferedReader bufferedReader;
+    private final OutboundWriter outboundWriter;
+
+    /**
+     * Creates a messages communicator on the connection
+     * Starts the outbound writer thread
+     * @param connection Transport connection
+     * @param threadFactory Factory of the outbound writer thread
+     */
+    public StreamCommunicator(Connection connection, ThreadFactory threadFactory) {
+        this.connection = connection;
+        bufferedReader = new BufferedReader(new InputStreamReader(Channels.newInputStream(connection.getReadChannel()), StandardCharsets.UTF_8));
+        outboundWriter = new OutboundWriter(connection.getWriteChannel());
+        threadFactory.newThread(outboundWriter).start();
+    }
+
+    /**
+     * Receives a message (blocks)
+     * @return Message
+     * @throws IOException on IO error
+     */
+    @Override
+    public Message receive() throws IOException {
+        logger.trace("Receiving Message");
+        StringBuilder stringBuilder = new StringBuilder();
+
+        boolean escape = false;
+        for (char c; ; ) {
+            c = (char) bufferedReader.read();
+            if (c == (char) -1) { // EOF
+                throw new IOException();
+            }
+
+            if (!escape) {
+                if (c == ESCAPE_CHARACTER) {
+                    escape = true;
+                    continue;
+                }
+
+                if (c == MESSAGE_DELIMITER) {
+                    break;
+                }
+            }
+
+            escape = false;
+            stringBuilder.append(c);
+        }
+
+        Message message = Message.deserialize(stringBuilder.toString());
+        logger.trace("Message Received: " + message.serialize());
+        return message;
+    }
+
+    /**
+     * Sends a message (does not block), runs an action once the writer takes the message for writing
+     * The message is enqueued for the connection writer (to the lane of its priority), which escapes message delimiters (and escape characters)
+     * @param message Message
+     * @param onTaken Action run by the writer before the message is written (null if none)
+     * @return Future completed once the message is written (exceptionally with IOException on IO error)
+     */
+    @Override
+    public CompletableFuture<Void> send(Message message, Runnable onTaken) {
+        logger.trace("Sending Message: " + message.serialize());
+        return outboundWriter.enqueue(message, onTaken);
+    }
+
+    /**
+     * Returns time of the last sent (enqueued) message
+     * @return Time [ms]
+     */
+    @Override
+    public long getLastSendMs() {
+        return outboundWriter.getLastEnqueuedMs();
+    }
+
+    /**
+     * Returns mean queue latency of outbound messages of the priority (enqueued to taken for writing)
+     * @param priority Priority
+     * @return Mean latency [us], 0 if none has been written
+     */
+    @Override
+    public double getMeanQueueLatencyUs(Message.Priority priority) {
+        return outboundWriter.getMeanQueueLatencyUs(priority);
+    }
+
+    /**
+     * Returns max queue latency of outbound messages of the priority (enqueued to taken for writing)
+     * @param priority Priority
+     * @return Max latency [us]
+     */
+    @Override
+    public long getMaxQueueLatencyUs(Message.Priority priority) {
+        return outboundWriter.getMaxQueueLatencyUs(priority);
+    }
+
+    /**
+     * Closes the communicator (and the underlying connection)
+     * Unblocks a pending receive (it throws IOException)
+     */
+    @Override
+    public void close() {
+        logger.trace("Closing");
+        outboundWriter.close();
+        connection.close();
+    }
+
+}
@@ -0,0 +1,65 @@
+package battleship.client.controllers.transport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Channel Connection
+ * Connection over a pair of channels (the same channel for both directions in case of sockets)
+ */
+public class ChannelConnection implements Connection {
+
+    private final Logger logger = LogManager.getLogger();
+
+    private final ReadableByteChannel readChannel;
+    private final WritableByteChannel writeChannel;
+
+    /**
+     * Constructs a connection
+     * @param readChannel Channel to read from
+     * @param writeChannel Channel to write to
+     */
+    public ChannelConnection(ReadableByteChannel readChannel, WritableByteChannel writeChannel) {
+        this.readChannel = readChannel;
+        this.writeChannel = writeChannel;
+    }
+
+    /**
+     * Returns the channel to read from
+     * @return Readable channel
+     */
+    @Override
+    public ReadableByteChannel getReadChannel() {
+        return readChannel;
+    }
+
+    /**
+     * Returns the channel to write to
+     * @return Writable channel
+     */
+    @Override
+    public WritableByteChannel getWriteChannel() {
+        return writeChannel;
+    }
+
+    /**
+     * Closes both channels
+     */
+    @Override
+    public void close() {
+        try {
+            readChannel.close();
+            if (writeChannel != readChannel) {
+                writeChannel.close();
+            }
+        }
+        catch (IOException e) {
+            logger.error(e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package battleship.client.controllers.transport;
+
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Transport Connection
+ * Bidirectional byte stream, exposed as a pair of (blocking) channels
+ */
+public interface Connection {
+
+    /**
+     * Returns the channel to read from
+     * @return Readable channel
+     */
+    ReadableByteChannel getReadChannel();
+
+    /**
+     * Returns the channel to write to
+     * @return Writable channel
+     */
+    WritableByteChannel getWriteChannel();
+
+    /**
+     * Closes the connection (both channels)
+     * Unblocks pending reads and writes (they throw IOException)
+     */
+    void close();
+
+}
@@ -0,0 +1,65 @@
+package battleship.client.controllers.transport;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.channels.Pipe;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-Memory Transport
+ * Connects to servers registered in the process (tests, benchmarks) through a pair of pipes
+ */
+public final class MemoryTransport implements Transport {
+
+    /** Address scheme */
+    public static final String SCHEME = "memory:";
+    /** Instance */
+    public static final MemoryTransport INSTANCE = new MemoryTransport();
+
+    private static final Map<String, Consumer<Connection>> SERVERS = new ConcurrentHashMap<>();
+
+    private MemoryTransport() {
+        //
+    }
+
+    /**
+     * Registers a server
+     * @param name Server name (connected to by memory:&lt;name&gt;)
+     * @param acceptor Acceptor of server side connections (must not block)
+     */
+    public static void register(String name, Consumer<Connection> acceptor) {
+        SERVERS.put(name, acceptor);
+    }
+
+    /**
+     * Unregisters a server
+     * @param name Server name
+     */
+    public static void unregister(String name) {
+        SERVERS.remove(name);
+    }
+
+    /**
+     * Connects to a registered server
+     * @param address Server address (memory:&lt;name&gt;)
+     * @param port Not used
+     * @param timeoutMs Not used
+     * @return Connection
+     * @throws IOException on IO error or if the server is not registered
+     */
+    @Override
+    public Connection connect(String address, int port, int timeoutMs) throws IOException {
+        Consumer<Connection> acceptor = SERVERS.get(address.substring(SCHEME.length()));
+        if (acceptor == null) {
+            throw new ConnectException("Server Not Registered: " + address);
+        }
+
+        Pipe toServer = Pipe.open();
+        Pipe toClient = Pipe.open();
+        acceptor.accept(new ChannelConnection(toServer.source(), toClient.sink()));
+        return new ChannelConnection(toClient.source(), toServer.sink());
+    }
+
+}
@@ -0,0 +1,84 @@
+package battleship.client.controllers.transport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolver Cache
+ * Resolves all addresses of a host once and keeps them for a TTL, so that reconnect attempts do not resolve again
+ * Addresses are ordered for connecting, address families are interleaved (starting with the preferred one, RFC 8305)
+ */
+public class ResolverCache {
+
+    private final Logger logger = LogManager.getLogger();
+
+    private record Entry(List<InetAddress> addresses, long expiresMs) { }
+
+    private final long ttlMs;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an empty resolver cache
+     * @param ttlMs Time to live of resolved addresses
+     */
+    public ResolverCache(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Returns the addresses of the host, resolves them unless cached
+     * @param host Host
+     * @return Addresses (interleaved address families), not empty
+     * @throws UnknownHostException if the host is not resolved
+     */
+    public List<InetAddress> resolve(String host) throws UnknownHostException {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(host);
+        if (entry != null && entry.expiresMs() > now) {
+            return entry.addresses();
+        }
+
+        long startNs = System.nanoTime();
+        List<InetAddress> addresses = interleave(InetAddress.getAllByName(host));
+        logger.debug("Resolved " + host + " To " + addresses + " In: " + (System.nanoTime() - startNs) / 1_000 + " us");
+        entries.put(host, new Entry(addresses, now + ttlMs));
+        return addresses;
+    }
+
+    /**
+     * Forgets the addresses of the host (e.g. none of them is reachable), the next resolve resolves again
+     * @param host Host
+     */
+    public void invalidate(String host) {
+        entries.remove(host);
+    }
+
+    private static List<InetAddress> interleave(InetAddress[] addresses) {
+        List<InetAddress> preferred = new ArrayList<>();
+        List<InetAddress> other = new ArrayList<>();
+        boolean isPreferredV6 = addresses[0] instanceof Inet6Address;
+        for (InetAddress address : addresses) {
+            (address instanceof Inet6Address == isPreferredV6 ? preferred : other).add(address);
+        }
+
+        List<InetAddress> interleaved = new ArrayList<>(addresses.length);
+        for (int i = 0; i < Math.max(preferred.size(), other.size()); i++) {
+            if (i < preferred.size()) {
+                interleaved.add(preferred.get(i));
+            }
+            if (i < other.size()) {
+                interleaved.add(other.get(i));
+            }
+        }
+        return List.copyOf(interleaved);
+    }
+
+}
@@ -0,0 +1,149 @@
+package battleship.client.controllers.transport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TCP Transport
+ * Resolved addresses of hosts are cached ({@link ResolverCache})
+ * Connection attempts to the addresses of a host race (happy eyeballs, RFC 8305): the next attempt starts once
+ * the previous one fails or after a delay, the first attempt to succeed wins, the others are closed
+ * Attempts are driven by a selector on the connecting thread (no thread per attempt)
+ */
+public final class TcpTransport implements Transport {
+
+    private final Logger logger = LogManager.getLogger();
+
+    /** Instance */
+    public static final TcpTransport INSTANCE = new TcpTransport();
+
+    private static final long RESOLVER_CACHE_TTL_MS = 60_000;
+    private static final long ATTEMPT_DELAY_MS = 250;
+
+    private final ResolverCache resolverCache = new ResolverCache(RESOLVER_CACHE_TTL_MS);
+
+    private volatile long lastConnectLatencyMs = -1;
+
+    private TcpTransport() {
+        //
+    }
+
+    /**
+     * Connects to the server, races attempts to all its addresses
+     * @param address Server host
+     * @param port Server port
+     * @param timeoutMs Connection timeout (of all attempts)
+     * @return Connection
+     * @throws IOException on IO error (UnknownHostException if the host is not resolved,
+     * SocketTimeoutException on timeout, the last attempt failure if all attempts fail)
+     */
+    @Override
+    public Connection connect(String address, int port, int timeoutMs) throws IOException {
+        long startNs = System.nanoTime();
+        List<InetAddress> addresses = resolverCache.resolve(address);
+        long deadlineNs = startNs + timeoutMs * 1_000_000L;
+
+        List<SocketChannel> attempts = new ArrayList<>();
+        SocketChannel connected = null;
+        IOException exception = null;
+        try (Selector selector = Selector.open()) {
+            int nextIdx = 0;
+            int pendingCnt = 0;
+            long nextAttemptNs = System.nanoTime();
+            while (connected == null) {
+                long nowNs = System.nanoTime();
+                if (nowNs >= deadlineNs) {
+                    exception = new SocketTimeoutException("Connect Timed Out: " + address);
+                    break;
+                }
+                if (nextIdx < addresses.size() && (nowNs >= nextAttemptNs || pendingCnt == 0)) {
+                    InetSocketAddress socketAddress = new InetSocketAddress(addresses.get(nextIdx++), port);
+                    logger.trace("Attempting Connect: " + socketAddress);
+                    try {
+                        SocketChannel channel = SocketChannel.open();
+                        attempts.add(channel);
+                        channel.configureBlocking(false);
+                        if (channel.connect(socketAddress)) {
+                            connected = channel;
+                            break;
+                        }
+                        channel.register(selector, SelectionKey.OP_CONNECT, socketAddress);
+                        pendingCnt++;
+                    }
+                    catch (IOException e) {
+                        logger.debug("Connect Failed: " + socketAddress + ": " + e.getMessage());
+                        exception = e;
+                        continue;
+                    }
+                    nextAttemptNs = System.nanoTime() + ATTEMPT_DELAY_MS * 1_000_000L;
+                }
+                if (pendingCnt == 0) {
+                    if (nextIdx < addresses.size()) {
+                        continue;
+                    }
+                    break; // all attempts failed
+                }
+
+                long waitNs = deadlineNs - System.nanoTime();
+                if (nextIdx < addresses.size()) {
+                    waitNs = Math.min(waitNs, nextAttemptNs - System.nanoTime());
+                }
+                selector.select(Math.max(1, waitNs / 1_000_000));
+                for (SelectionKey key : selector.selectedKeys()) {
+                    SocketChannel channel = (SocketChannel) key.channel();
+                    try {
+                        if (channel.finishConnect()) {
+                            key.cancel();
+                            connected = channel;
+                            break;
+                        }
+                    }
+                    catch (IOException e) {
+                        logger.debug("Connect Failed: " + key.attachment() + ": " + e.getMessage());
+                        exception = e;
+                        key.cancel();
+                        pendingCnt--;
+                        channel.close();
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        }
+        finally {
+            for (SocketChannel attempt : attempts) {
+                if (attempt != connected) {
+                    attempt.close();
+                }
+            }
+        }
+
+        if (connected == null) {
+            resolverCache.invalidate(address);
+            throw exception != null ? exception : new IOException("Connect Failed: " + address);
+        }
+
+        connected.configureBlocking(true);
+        lastConnectLatencyMs = (System.nanoTime() - startNs) / 1_000_000;
+        logger.info("Connected To: " + connected.getRemoteAddress() + " In: " + lastConnectLatencyMs + " ms, Attempts: " + attempts.size() + "/" + addresses.size());
+        return new ChannelConnection(connected, connected);
+    }
+
+    /**
+     * Returns duration of the last successful connect (resolving included)
+     * @return Latency [ms], -1 if there has not been any
+     */
+    public long getLastConnectLatencyMs() {
+        return lastConnectLatencyMs;
+    }
+
+}
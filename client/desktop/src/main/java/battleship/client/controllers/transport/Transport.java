@@ -0,0 +1,39 @@
+package battleship.client.controllers.transport;
+
+import java.io.IOException;
+
+/**
+ * Transport
+ * Opens connections to the server, selected by the server address scheme
+ * - unix:&lt;path&gt; Unix domain socket (port is not used)
+ * - memory:&lt;name&gt; In-memory pipe to a server registered in the process (port is not used)
+ * - &lt;host&gt; TCP (attempts to all addresses of the host race)
+ */
+public interface Transport {
+
+    /**
+     * Connects to the server
+     * @param address Server address (including the scheme)
+     * @param port Server port
+     * @param timeoutMs Connection timeout
+     * @return Connection
+     * @throws IOException on IO error
+     */
+    Connection connect(String address, int port, int timeoutMs) throws IOException;
+
+    /**
+     * Returns the transport for the server address
+     * @param address Server address
+     * @return Transport
+     */
+    static Transport of(String address) {
+        if (address.startsWith(UnixDomainTransport.SCHEME)) {
+            return UnixDomainTransport.INSTANCE;
+        }
+        if (address.startsWith(MemoryTransport.SCHEME)) {
+            return MemoryTransport.INSTANCE;
+        }
+        return TcpTransport.INSTANCE;
+    }
+
+}
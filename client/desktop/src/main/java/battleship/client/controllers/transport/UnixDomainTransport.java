@@ -0,0 +1,44 @@
+package battleship.client.controllers.transport;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Unix Domain Socket Transport
+ * For servers on the same host, bypasses the TCP stack
+ */
+public final class UnixDomainTransport implements Transport {
+
+    /** Address scheme */
+    public static final String SCHEME = "unix:";
+    /** Instance */
+    public static final UnixDomainTransport INSTANCE = new UnixDomainTransport();
+
+    private UnixDomainTransport() {
+        //
+    }
+
+    /**
+     * Connects to the server socket file (connecting is immediate, timeout is not used)
+     * @param address Server address (unix:&lt;path&gt;)
+     * @param port Not used
+     * @param timeoutMs Not used
+     * @return Connection
+     * @throws IOException on IO error
+     */
+    @Override
+    public Connection connect(String address, int port, int timeoutMs) throws IOException {
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(address.substring(SCHEME.length())));
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new ChannelConnection(channel, channel);
+    }
+
+}
@@ -0,0 +1,130 @@
+package battleship.client.controllers.workers;
+
+import battleship.client.controllers.messages.Message;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Correlation Registry
+ * Outstanding expectations of response messages, any number of them may be pending at once
+ * Expectations are queued per expected message type (lock-free), a message completes the oldest pending expectation of its type
+ * Each expectation has its own deadline on the shared scheduler
+ * An expectation is either awaited by an operation (it handles the failure), or not (e.g. a keep alive negotiation)
+ */
+public class CorrelationRegistry {
+
+    private static final class Expectation {
+        private final CompletableFuture<Message> future = new CompletableFuture<>();
+        private final Message.Type[] types;
+        private final boolean isAwaited;
+        private ScheduledFuture<?> deadline;
+
+        private Expectation(Message.Type[] types, boolean isAwaited) {
+            this.types = types;
+            this.isAwaited = isAwaited;
+        }
+    }
+
+    private final Queue<?>[] queues = new Queue<?>[Message.Type.values().length];
+    private final Set<Expectation> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs an empty correlation registry
+     */
+    public CorrelationRegistry() {
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ConcurrentLinkedQueue<Expectation>();
+        }
+    }
+
+    /**
+     * Registers an expectation of a message awaited by an operation
+     * @param timeoutMs Deadline (from now)
+     * @param types Expected Message Types (the first received completes the expectation)
+     * @return Future completed with the message (exceptionally with TimeoutException on deadline expiry)
+     */
+    public CompletableFuture<Message> expect(long timeoutMs, Message.Type... types) {
+        return expect(timeoutMs, true, types);
+    }
+
+    /**
+     * Registers an expectation of a message
+     * @param timeoutMs Deadline (from now)
+     * @param isAwaited True if an operation awaits the message (and handles the failure), false if not
+     * @param types Expected Message Types (the first received completes the expectation)
+     * @return Future completed with the message (exceptionally with TimeoutException on deadline expiry)
+     */
+    public CompletableFuture<Message> expect(long timeoutMs, boolean isAwaited, Message.Type... types) {
+        Expectation expectation = new Expectation(types.clone(), isAwaited);
+        expectation.deadline = Scheduler.get().schedule(
+                () -> expectation.future.completeExceptionally(new TimeoutException()), timeoutMs, TimeUnit.MILLISECONDS
+        );
+
+        pending.add(expectation);
+        for (Message.Type type : expectation.types) {
+            queue(type).add(expectation);
+        }
+        expectation.future.whenComplete((message, exception) -> remove(expectation));
+        return expectation.future;
+    }
+
+    /**
+     * Completes the oldest pending expectation of the message type
+     * @param message Message
+     * @return True if an expectation has been completed, false if the message is not expected
+     */
+    public boolean complete(Message message) {
+        Queue<Expectation> queue = queue(message.getType());
+        for (Expectation expectation; (expectation = queue.peek()) != null; ) {
+            if (expectation.future.complete(message)) {
+                return true;
+            }
+            queue.remove(expectation); // completed through another type or expired
+        }
+        return false;
+    }
+
+    /**
+     * Completes all pending expectations exceptionally
+     * @param cause Cause
+     * @return True if there has been any pending awaited expectation (an operation handles the failure)
+     */
+    public boolean failAll(Throwable cause) {
+        boolean isAnyAwaitedFailed = false;
+        for (Expectation expectation : pending) {
+            if (expectation.future.completeExceptionally(cause) && expectation.isAwaited) {
+                isAnyAwaitedFailed = true;
+            }
+        }
+        return isAnyAwaitedFailed;
+    }
+
+    /**
+     * Returns count of pending expectations
+     * @return Count
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void remove(Expectation expectation) {
+        expectation.deadline.cancel(false);
+        pending.remove(expectation);
+        for (Message.Type type : expectation.types) {
+            queue(type).remove(expectation);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Queue<Expectation> queue(Message.Type type) {
+        return (Queue<Expectation>) queues[type.ordinal()];
+    }
+
+}
@@ -0,0 +1,56 @@
+package battleship.client.controllers.workers;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counting Thread Factory
+ * Creates named (platform or virtual) threads and counts them
+ */
+public class CountingThreadFactory implements ThreadFactory {
+
+    private final String name;
+    private final boolean isVirtual;
+    private final AtomicInteger createdCount = new AtomicInteger();
+
+    /**
+     * Constructs a counting factory of platform threads
+     * @param name Created threads name prefix
+     */
+    public CountingThreadFactory(String name) {
+        this(name, false);
+    }
+
+    /**
+     * Constructs a counting thread factory
+     * @param name Created threads name prefix
+     * @param isVirtual True to create virtual threads, false for platform threads
+     */
+    public CountingThreadFactory(String name, boolean isVirtual) {
+        this.name = name;
+        this.isVirtual = isVirtual;
+    }
+
+    /**
+     * Creates a new (not started) thread
+     * @param runnable Runnable
+     * @return Thread
+     */
+    @Override
+    public Thread newThread(Runnable runnable) {
+        String threadName = name + "-" + createdCount.incrementAndGet();
+        if (isVirtual) {
+            return Thread.ofVirtual().name(threadName).unstarted(runnable);
+        }
+        return new Thread(runnable, threadName);
+    }
+
+    /**
+     * Returns count of threads created by the factory
+     * @return Count
+     */
+    public int getCreatedCount() {
+        return createdCount.get();
+    }
+
+}
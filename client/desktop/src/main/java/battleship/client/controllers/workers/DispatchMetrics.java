@@ -0,0 +1,114 @@
+package battleship.client.controllers.workers;
+
+import battleship.client.controllers.messages.Message;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Dispatch Metrics
+ * State machine interceptor counting handled messages per type and recording handlers execution times,
+ * each type has a histogram of power-of-two buckets (bucket i holds times in [2^i, 2^(i+1)) us, bucket 0 also shorter ones)
+ * Recorded by the state machine thread, read by any thread
+ */
+public class DispatchMetrics implements StateMachine.Interceptor {
+
+    private static final Message.Type[] TYPES = Message.Type.values();
+    /** Histogram buckets count (the last one holds times from ~0.5 s up) */
+    private static final int BUCKETS_CNT = 20;
+
+    private final AtomicLongArray counts = new AtomicLongArray(TYPES.length);
+    private final AtomicLongArray durationsSumNs = new AtomicLongArray(TYPES.length);
+    private final AtomicLongArray maxDurationsNs = new AtomicLongArray(TYPES.length);
+    private final AtomicLongArray histograms = new AtomicLongArray(TYPES.length * BUCKETS_CNT);
+
+    /**
+     * Records the handler execution
+     * @param message Message
+     * @param durationNs Handler execution time [ns]
+     */
+    @Override
+    public void afterHandle(Message message, long durationNs) {
+        int ordinal = message.getType().ordinal();
+        counts.incrementAndGet(ordinal);
+        durationsSumNs.addAndGet(ordinal, durationNs);
+        if (durationNs > maxDurationsNs.get(ordinal)) {
+            maxDurationsNs.set(ordinal, durationNs);
+        }
+
+        long durationUs = durationNs / 1_000;
+        int bucket = Math.min(BUCKETS_CNT - 1, durationUs < 2 ? 0 : 63 - Long.numberOfLeadingZeros(durationUs));
+        histograms.incrementAndGet(ordinal * BUCKETS_CNT + bucket);
+    }
+
+    /**
+     * Returns count of handled messages of the type
+     * @param type Message Type
+     * @return Count
+     */
+    public long getCount(Message.Type type) {
+        return counts.get(type.ordinal());
+    }
+
+    /**
+     * Returns mean handler execution time of the type
+     * @param type Message Type
+     * @return Mean [us], 0 if none has been handled
+     */
+    public double getMeanUs(Message.Type type) {
+        long count = getCount(type);
+        return count == 0 ? 0 : durationsSumNs.get(type.ordinal()) / 1_000.0 / count;
+    }
+
+    /**
+     * Returns max handler execution time of the type
+     * @param type Message Type
+     * @return Max [us]
+     */
+    public long getMaxUs(Message.Type type) {
+        return maxDurationsNs.get(type.ordinal()) / 1_000;
+    }
+
+    /**
+     * Returns the percentile of handler execution times of the type (upper bound of the histogram bucket it falls into)
+     * @param type Message Type
+     * @param percentile Percentile (0, 100]
+     * @return Percentile [us], 0 if none has been handled
+     */
+    public long getPercentileUs(Message.Type type, double percentile) {
+        long count = getCount(type);
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long cumulative = 0;
+        for (int bucket = 0; bucket < BUCKETS_CNT; bucket++) {
+            cumulative += histograms.get(type.ordinal() * BUCKETS_CNT + bucket);
+            if (cumulative >= rank) {
+                return 1L << (bucket + 1);
+            }
+        }
+        return getMaxUs(type);
+    }
+
+    /**
+     * Returns summary of the handled types (count, mean, p99 and max execution times)
+     * @return String
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (Message.Type type : TYPES) {
+            if (getCount(type) == 0) {
+                continue;
+            }
+            if (!stringBuilder.isEmpty()) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(String.format("%s: %d x %.1f us (p99 < %d us, max %d us)",
+                    type, getCount(type), getMeanUs(type), getPercentileUs(type, 99), getMaxUs(type)));
+        }
+        return stringBuilder.toString();
+    }
+
+}
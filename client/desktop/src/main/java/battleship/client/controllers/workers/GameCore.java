@@ -0,0 +1,102 @@
+package battleship.client.controllers.workers;
+
+import battleship.client.models.GameSnapshot;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Game Core
+ * Single writer of the game state, commands (submitted by any thread) are applied in order by its own thread,
+ * each one derives a new immutable snapshot from the current one, which is then published (and passed to listeners)
+ * Readers (views, bots, recorders) read the latest published snapshot without locks
+ */
+public class GameCore {
+
+    private final Logger logger = LogManager.getLogger();
+
+    private final ExecutorService writer;
+    private final List<Consumer<GameSnapshot>> listeners = new CopyOnWriteArrayList<>();
+
+    /** Latest published snapshot (written by the writer thread only) */
+    private volatile GameSnapshot snapshot = GameSnapshot.INITIAL;
+
+    /**
+     * Constructs a game core and starts its writer thread (daemon)
+     */
+    public GameCore() {
+        CountingThreadFactory threadFactory = new CountingThreadFactory("game");
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = threadFactory.newThread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits a command, it is applied after the previously submitted ones
+     * A command returning the same state publishes nothing
+     * @param command Command (derives the next state from the current one, must not block)
+     */
+    public void submit(UnaryOperator<GameSnapshot> command) {
+        writer.execute(() -> apply(command));
+    }
+
+    /**
+     * Submits a reset to the initial state (no game)
+     */
+    public void reset() {
+        submit(snapshot -> GameSnapshot.INITIAL.withVersion(snapshot.version()));
+    }
+
+    /**
+     * Returns the latest published snapshot
+     * @return Snapshot
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Adds a listener of published snapshots (called on the writer thread, in order of versions, must not block)
+     * @param listener Listener
+     */
+    public void addListener(Consumer<GameSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops the writer thread (pending commands are discarded)
+     */
+    public void stop() {
+        writer.shutdownNow();
+    }
+
+    private void apply(UnaryOperator<GameSnapshot> command) {
+        GameSnapshot current = snapshot;
+        GameSnapshot next;
+        try {
+            next = command.apply(current);
+        }
+        catch (RuntimeException e) {
+            logger.error("Command Failed: " + e.getMessage());
+            return;
+        }
+
+        if (next.equals(current)) {
+            return;
+        }
+        snapshot = next.withVersion(current.version() + 1);
+
+        for (Consumer<GameSnapshot> listener : listeners) {
+            listener.accept(snapshot);
+        }
+    }
+
+}
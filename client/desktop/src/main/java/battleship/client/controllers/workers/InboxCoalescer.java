@@ -0,0 +1,144 @@
+package battleship.client.controllers.workers;
+
+import battleship.client.controllers.messages.Message;
+import battleship.client.controllers.messages.Payload;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Inbox Coalescer
+ * Drops messages of a batch (taken from the inbox at once) made obsolete by later messages of the same batch,
+ * so that a backlog (a rejoined or lagging session) is applied in time proportional to the state, not to the backlog
+ * Each message type writes parts of the state, a message is dropped if all the parts it writes are overwritten as a whole
+ * by later messages (e.g. turn sets by a later turn set, opponent's turns by a board state of the same board or a game end),
+ * messages with other effects (alerts, scenes, tokens) are never dropped, though they may overwrite parts as a whole
+ * Some handlers read the state written by earlier ones (opponent's turns and invalidated fields are set on the current board),
+ * but such a handler writes only the part it reads: a dropped write is read only by messages writing the same overwritten part
+ * (dropped too), the rest read it after it has been overwritten, so the result is the same as of the whole batch
+ * Used by the state machine thread, counters are read by any thread
+ */
+public class InboxCoalescer {
+
+    private static final Message.Type[] TYPES = Message.Type.values();
+
+    /** Parts of the state written by messages */
+    private static final int CLIENT_BOARD = 1;
+    private static final int OPPONENT_BOARD = 1 << 1;
+    private static final int CLIENT_BOARD_READY = 1 << 2;
+    private static final int OPPONENT_BOARD_READY = 1 << 3;
+    private static final int TURN = 1 << 4;
+    private static final int OPPONENT_RESPONDING = 1 << 5;
+    private static final int OPPONENT_NICKNAME = 1 << 6;
+    /** Parts reset when a game ends */
+    private static final int GAME = CLIENT_BOARD | OPPONENT_BOARD | CLIENT_BOARD_READY | OPPONENT_BOARD_READY | TURN;
+
+    private final AtomicLongArray coalescedCounts = new AtomicLongArray(TYPES.length);
+
+    /**
+     * Drops the obsolete messages of the batch (sets them to null)
+     * @param batch Messages in the order of arrival
+     * @param size Count of messages in the batch
+     * @return Count of dropped messages
+     */
+    public int coalesce(Message[] batch, int size) {
+        int droppedCnt = 0;
+        int overwritten = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            Message message = batch[i];
+            if (message == null) {
+                continue;
+            }
+
+            int written = getWritten(message);
+            if (written != 0 && (written & ~overwritten) == 0) {
+                batch[i] = null;
+                coalescedCounts.incrementAndGet(message.getType().ordinal());
+                droppedCnt++;
+                continue;
+            }
+            overwritten |= getOverwritten(message);
+        }
+        return droppedCnt;
+    }
+
+    /**
+     * Returns count of dropped messages of the type
+     * @param type Message Type
+     * @return Count
+     */
+    public long getCoalescedCount(Message.Type type) {
+        return coalescedCounts.get(type.ordinal());
+    }
+
+    /**
+     * Returns count of dropped messages of all types
+     * @return Count
+     */
+    public long getCoalescedCount() {
+        long count = 0;
+        for (Message.Type type : TYPES) {
+            count += getCoalescedCount(type);
+        }
+        return count;
+    }
+
+    /**
+     * Returns summary of the dropped types (count)
+     * @return String
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (Message.Type type : TYPES) {
+            if (getCoalescedCount(type) == 0) {
+                continue;
+            }
+            if (!stringBuilder.isEmpty()) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(String.format("%s: %d", type, getCoalescedCount(type)));
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Returns parts of the state the message writes, if it has no other effect
+     * @param message Message
+     * @return Parts (0 if the message is never dropped)
+     */
+    private static int getWritten(Message message) {
+        return switch (message.getType()) {
+            case TURN_SET -> TURN;
+            case OPPONENT_REJOIN -> OPPONENT_RESPONDING;
+            case OPPONENT_NO_RESPONSE -> ((Payload.OpponentNoResponse) message.getPayload()).isShort() ? OPPONENT_RESPONDING : 0;
+            case OPPONENT_NICKNAME_SET -> OPPONENT_NICKNAME;
+            case OPPONENT_BOARD_READY -> OPPONENT_BOARD_READY;
+            case OPPONENT_TURN, OPPONENT_SALVO -> CLIENT_BOARD;
+            case INVALIDATE_FIELD -> ((Payload.InvalidateField) message.getPayload()).isOwn() ? CLIENT_BOARD : OPPONENT_BOARD;
+            case BOARD_STATE, BOARD_STATE_PACKED -> getOverwritten(message);
+            default -> 0;
+        };
+    }
+
+    /**
+     * Returns parts of the state the message overwrites as a whole
+     * @param message Message
+     * @return Parts
+     */
+    private static int getOverwritten(Message message) {
+        return switch (message.getType()) {
+            case TURN_SET -> TURN;
+            case OPPONENT_REJOIN -> OPPONENT_RESPONDING;
+            case OPPONENT_NO_RESPONSE -> ((Payload.OpponentNoResponse) message.getPayload()).isShort() ? OPPONENT_RESPONDING : GAME | OPPONENT_NICKNAME;
+            case OPPONENT_NICKNAME_SET -> OPPONENT_NICKNAME;
+            case OPPONENT_BOARD_READY -> OPPONENT_BOARD_READY;
+            case BOARD_STATE, BOARD_STATE_PACKED -> ((Payload.BoardStateSnapshot) message.getPayload()).isOwn()
+                    ? CLIENT_BOARD | CLIENT_BOARD_READY
+                    : OPPONENT_BOARD | OPPONENT_BOARD_READY;
+            case GAME_END -> GAME;
+            case OPPONENT_ROOM_LEAVE -> GAME | OPPONENT_NICKNAME;
+            default -> 0;
+        };
+    }
+
+}
@@ -2,49 +2,158 @@ package battleship.client.controllers.workers;
 
 import battleship.client.controllers.messages.Communicator;
 import battleship.client.controllers.messages.Message;
+import battleship.client.controllers.messages.Payload;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.IOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Alive Keeper
+ * Sends a keep alive message only once nothing has been sent for the keep alive interval
+ * The message is a timestamped echo request, the server echoes it back, so that idle links keep sampling the RTT
+ * Runs on the shared scheduler (no thread of its own), checks are scheduled to the end of the current idle interval
+ * Once the link has been stable for a while, proposes a doubled interval to the server (up to a cap),
+ * the interval accepted by the server is passed to the messages manager (its failure detection)
  */
-public class KeepAlive implements Runnable {
+public class KeepAlive {
 
     private final Logger logger = LogManager.getLogger();
 
     private static final boolean IS_DEBUG = false;
-    private static final int INTERVAL_MS = IS_DEBUG ? 30_000 : 5_000;
-    private static final Message KEEP_ALIVE_MESSAGE = new Message(Message.Type.KEEP_ALIVE);
+    private static final int INTERVAL_S = IS_DEBUG ? 30 : 5;
+    private static final int MAX_INTERVAL_S = IS_DEBUG ? 30 : 20;
+    /** Count of intervals the link must be stable for before stretching the interval */
+    private static final int STRETCH_AFTER_INTERVALS_CNT = 12;
+    private static final int RESPONSE_TIMEOUT_MS = 5_000;
 
     private final Communicator communicator;
+    private final MessagesManager messagesManager;
+
+    private volatile int intervalS = INTERVAL_S;
+    private volatile long stableSinceMs;
+    private volatile boolean isNegotiating = false;
+    private volatile boolean isStopped = false;
+    private volatile ScheduledFuture<?> check;
+
+    private volatile int sentCount = 0;
+    private volatile int suppressedCount = 0;
 
     /**
      * Constructs an Alive Keeper
      * @param communicator Messages Communicator
+     * @param messagesManager Messages Manager (of the communicator) to negotiate the interval through
      */
-    public KeepAlive(Communicator communicator) {
+    public KeepAlive(Communicator communicator, MessagesManager messagesManager) {
         this.communicator = communicator;
+        this.messagesManager = messagesManager;
     }
 
     /**
-     * Alive Keeper Loop
+     * Starts keeping the link alive (does not block)
      */
-    @Override
-    public void run() {
-        try {
-            for (;;) {
-                logger.trace("Sending Keep Alive Message");
-                communicator.send(KEEP_ALIVE_MESSAGE);
-                Thread.sleep(INTERVAL_MS);
-            }
+    public void start() {
+        stableSinceMs = System.currentTimeMillis();
+        scheduleCheck(intervalS * 1_000L);
+    }
+
+    /**
+     * Stops keeping the link alive
+     */
+    public void stop() {
+        logger.trace("Stopping");
+        isStopped = true;
+        ScheduledFuture<?> check = this.check;
+        if (check != null) {
+            check.cancel(false);
         }
-        catch (IOException e) {
-            logger.error(e.getMessage());
+    }
+
+    /**
+     * Returns the current keep alive interval
+     * @return Interval [s]
+     */
+    public int getIntervalS() {
+        return intervalS;
+    }
+
+    /**
+     * Returns count of sent keep alive messages
+     * @return Count
+     */
+    public int getSentCount() {
+        return sentCount;
+    }
+
+    /**
+     * Returns count of keep alive messages not sent thanks to other traffic
+     * @return Count
+     */
+    public int getSuppressedCount() {
+        return suppressedCount;
+    }
+
+    private void scheduleCheck(long delayMs) {
+        if (!isStopped) {
+            check = Scheduler.get().schedule(this::check, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Check task, sends a keep alive message if the link has been idle for the interval
+     * Reschedules itself to the end of the current idle interval
+     */
+    private void check() {
+        if (isStopped) {
+            return;
+        }
+
+        long intervalMs = intervalS * 1_000L;
+        long now = System.currentTimeMillis();
+        long idleMs = now - communicator.getLastSendMs();
+        if (idleMs >= intervalMs) {
+            logger.trace("Sending Keep Alive Message");
+            sentCount++;
+            communicator.send(new Message(Message.Type.KEEP_ALIVE_ECHO, System.nanoTime()));
+            idleMs = 0;
         }
-        catch (InterruptedException e) {
-            logger.trace("Interrupted");
+        else {
+            suppressedCount++;
         }
+
+        if (!isNegotiating && intervalS < MAX_INTERVAL_S && now - stableSinceMs >= STRETCH_AFTER_INTERVALS_CNT * intervalMs) {
+            proposeInterval(Math.min(2 * intervalS, MAX_INTERVAL_S));
+        }
+        scheduleCheck(intervalMs - idleMs);
     }
+
+    /**
+     * Proposes a keep alive interval to the server (does not block)
+     * The accepted interval applies once the response is received, if the server does not respond,
+     * the proposal is retried after the link has been stable for a while again
+     * Nothing awaits the response, so that a connection error is still handled by the messages manager
+     * @param proposedS Proposed interval [s]
+     */
+    private void proposeInterval(int proposedS) {
+        logger.debug("Proposing Keep Alive Interval: " + proposedS + " s");
+        isNegotiating = true;
+        Message request = new Message(Message.Type.KEEP_ALIVE_INTERVAL, proposedS);
+        messagesManager.request(request, RESPONSE_TIMEOUT_MS, false, Message.Type.KEEP_ALIVE_INTERVAL).whenComplete((response, exception) -> {
+            if (exception != null) {
+                logger.warn("Keep Alive Interval Not Negotiated");
+                stableSinceMs = System.currentTimeMillis();
+                isNegotiating = false;
+                return;
+            }
+
+            int acceptedS = ((Payload.KeepAliveInterval) response.getPayload()).intervalS();
+            logger.info("Keep Alive Interval: " + acceptedS + " s");
+            messagesManager.setKeepAliveIntervalMs(acceptedS * 1_000L);
+            intervalS = acceptedS;
+            stableSinceMs = System.currentTimeMillis();
+            isNegotiating = false;
+        });
+    }
+
 }
@@ -2,20 +2,31 @@ package battleship.client.controllers.workers;
 
 import battleship.client.controllers.messages.Communicator;
 import battleship.client.controllers.messages.Message;
+import battleship.client.controllers.messages.Payload;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.text.SimpleDateFormat;
-import java.util.*;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 /**
  * Messages Manager
- * Receives messages, handles expected messages requests or passes the messages to the state machine
+ * Receives messages, completes expected messages requests or passes the messages to the state machine
+ * Receives on its own (single, long-lived) thread, receive timeout is guarded by a watchdog on the shared scheduler
+ * The connection is considered failed once the phi accrual failure detector, learning inter-arrival times of keep alive
+ * messages (and echoes), suspects it (or at the latest after a few keep alive intervals without any message)
+ * Any number of requests may be pending, they are correlated with responses by {@link CorrelationRegistry}
+ * in the order they are written
+ * Keep alive echoes are consumed here, they sample the RTT
+ * The receiving thread is the single producer of the state machine inbox, stopping joins it,
+ * so that the messages manager of the next session does not produce alongside it
  */
 public class MessagesManager implements Runnable {
 
@@ -23,25 +34,46 @@ public class MessagesManager implements Runnable {
 
     private static final boolean IS_DEBUG = false;
     private static final int ANY_MESSAGE_TIMEOUT_MS = IS_DEBUG ? 150_000 : 15_000;
-    private final Object ACCESS_EXPECTED_MESSAGE = new Object();
+    private static final int KEEP_ALIVE_INTERVAL_MS = IS_DEBUG ? 30_000 : 5_000;
+    /** Receive timeout in keep alive intervals (upper bound of the failure detection) */
+    private static final int TIMEOUT_INTERVALS_CNT = 3;
+    private static final int PHI_WINDOW_SIZE = 100;
+    private static final int PHI_MIN_STD_DEV_MS = 200;
+    private static final int PHI_ACCEPTABLE_PAUSE_MS = 500;
+    /** Default suspicion level the connection is considered failed at (chance of a false suspicion 1e-8) */
+    public static final double DEFAULT_PHI_THRESHOLD = 8.0;
 
     private final Communicator communicator;
     private final StateMachine stateMachine;
     private final Runnable onConnectionError;
+    private final ThreadFactory threadFactory;
+    private final RttEstimator rttEstimator;
 
-    private CompletableFuture<Message> future;
-    private Collection<Message.Type> awaitedMessageTypes;
+    private final CorrelationRegistry correlationRegistry = new CorrelationRegistry();
+    private final PhiAccrualDetector failureDetector = new PhiAccrualDetector(PHI_WINDOW_SIZE, PHI_MIN_STD_DEV_MS, PHI_ACCEPTABLE_PAUSE_MS, KEEP_ALIVE_INTERVAL_MS);
+
+    private volatile long receiveTimeoutMs = ANY_MESSAGE_TIMEOUT_MS;
+    private volatile double phiThreshold = DEFAULT_PHI_THRESHOLD;
+    private volatile long lastActive;
+    private volatile boolean isTimedOut = false;
+    private volatile boolean isStopped = false;
+    private volatile ScheduledFuture<?> watchdog;
+    private volatile Thread receivingThread;
 
     /**
      * Constructs a messages manager
      * @param communicator Messages Communicator
      * @param stateMachine State Machine
      * @param onConnectionError On Connection Error Handler
+     * @param threadFactory Factory of the connection error handler thread
+     * @param rttEstimator RTT estimator (sampled by keep alive echoes)
      */
-    public MessagesManager(Communicator communicator, StateMachine stateMachine, Runnable onConnectionError) {
+    public MessagesManager(Communicator communicator, StateMachine stateMachine, Runnable onConnectionError, ThreadFactory threadFactory, RttEstimator rttEstimator) {
         this.communicator = communicator;
         this.stateMachine = stateMachine;
         this.onConnectionError = onConnectionError;
+        this.threadFactory = threadFactory;
+        this.rttEstimator = rttEstimator;
     }
 
     /**
@@ -50,26 +82,21 @@ public class MessagesManager implements Runnable {
      */
     @Override
     public void run() {
+        receivingThread = Thread.currentThread();
+        lastActive = System.currentTimeMillis();
+        failureDetector.reset(KEEP_ALIVE_INTERVAL_MS);
+        scheduleWatchdog(receiveTimeoutMs);
         try {
-            long lastActive = System.currentTimeMillis();
             for (;;) {
                 logger.trace("Receiving Message");
-                CompletableFuture<Message> futureMessage = new CompletableFuture<>();
-                new Thread(() -> {
-                    try {
-                        futureMessage.complete(communicator.receive());
-                    } catch (IOException e) {
-                        futureMessage.completeExceptionally(e);
-                    }
-                }).start();
-
-                Message message = futureMessage.get(lastActive - System.currentTimeMillis() + ANY_MESSAGE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                Message message = communicator.receive();
                 logger.trace("Message Received In Time: " + message.serialize());
                 lastActive = System.currentTimeMillis();
+                failureDetector.arrival(lastActive, message.getType() == Message.Type.KEEP_ALIVE || message.getType() == Message.Type.KEEP_ALIVE_ECHO);
                 logger.info("Last Active: " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(lastActive)));
 
-                if (Thread.interrupted()) {
-                    throw new InterruptedException();
+                if (isStopped) {
+                    return;
                 }
 
                 if (message.getType() == Message.Type.KEEP_ALIVE) {
@@ -77,62 +104,224 @@ public class MessagesManager implements Runnable {
                     continue;
                 }
 
-                synchronized (ACCESS_EXPECTED_MESSAGE) {
-                    if (future != null && awaitedMessageTypes.contains(message.getType())) {
-                        logger.debug("Completing Awaited Message Future: " + message.serialize());
-                        future.complete(message);
-                        future = null;
-                        continue;
-                    }
+                if (message.getPayload() instanceof Payload.KeepAliveEcho echo) {
+                    rttEstimator.sample((System.nanoTime() - echo.timestampNs()) / 1_000_000.0);
+                    continue;
+                }
+
+                if (correlationRegistry.complete(message)) {
+                    logger.debug("Completed Awaited Message Future: " + message.serialize());
+                    continue;
                 }
 
                 logger.trace("Enqueue Message: " + message.serialize());
-                stateMachine.enqueueMessage(message);
+                if (!stateMachine.enqueueMessage(message)) {
+                    // resuming the session replays events from the last applied one
+                    throw new IOException("State Machine Inbox Overflow");
+                }
             }
         }
-        catch (TimeoutException e) {
-            if (Thread.interrupted()) {
-                return;
-            }
+        catch (IOException e) {
+            handleError(e);
+        }
+        catch (RuntimeException e) {
+            logger.error("Illegal Message");
+            handleError(new IOException(e));
+        }
+        catch (InterruptedException e) {
+            logger.debug("Interrupted");
+        }
+        finally {
+            cancelWatchdog();
+        }
+    }
 
-            logger.error("Receive Message Timed Out");
-            synchronized (ACCESS_EXPECTED_MESSAGE) {
-                if (future != null) {
-                    future.completeExceptionally(new TimeoutException());
-                    return;
-                }
-            }
+    /**
+     * Stops the messages manager
+     * Closes the communicator and interrupts the receiving thread (e.g. waiting for the inbox), then awaits its termination,
+     * so that no message is enqueued once stopped, the connection error handler is not run
+     * Pending requests fail with IOException
+     */
+    public void stop() {
+        logger.trace("Stopping");
+        isStopped = true;
+        cancelWatchdog();
+        communicator.close();
+        correlationRegistry.failAll(new IOException("Messages Manager Stopped"));
 
-            new Thread(onConnectionError).start();
+        // if the thread has not run yet, it sees the manager stopped before enqueuing anything
+        Thread receivingThread = this.receivingThread;
+        if (receivingThread == null || receivingThread == Thread.currentThread()) {
+            return;
         }
-        catch (ExecutionException e) {
-            if (e.getCause() instanceof IOException) {
-                logger.error(e.getCause().getMessage());
-                synchronized (ACCESS_EXPECTED_MESSAGE) {
-                    if (future != null) {
-                        future.completeExceptionally(e.getCause());
-                        return;
-                    }
-                }
-
-                new Thread(onConnectionError).start();
-            }
+        receivingThread.interrupt();
+        try {
+            receivingThread.join();
         }
         catch (InterruptedException e) {
-            //
+            logger.warn("Interrupted Awaiting Receiving Thread");
+            Thread.currentThread().interrupt();
         }
     }
 
     /**
-     * Sets a request to expect a message
-     * @param type Expected Message Type
-     * @return Future
+     * Registers a request to expect a message, does not replace other pending requests
+     * The request is awaited by an operation, on connection error the operation (not the messages manager) reconnects
+     * @param timeoutMs Request deadline (from now)
+     * @param type Expected Message Types
+     * @return Future completed with the message (exceptionally with TimeoutException on deadline expiry)
+     */
+    public CompletableFuture<Message> expectMessage(long timeoutMs, Message.Type... type) {
+        return expectMessage(timeoutMs, true, type);
+    }
+
+    /**
+     * Registers a request to expect a message, does not replace other pending requests
+     * @param timeoutMs Request deadline (from now)
+     * @param isAwaited True if an operation awaits the response (it reconnects on connection error),
+     * false if not (the messages manager reconnects)
+     * @param type Expected Message Types
+     * @return Future completed with the message (exceptionally with TimeoutException on deadline expiry)
      */
-    public CompletableFuture<Message> expectMessage(Message.Type... type) {
+    public CompletableFuture<Message> expectMessage(long timeoutMs, boolean isAwaited, Message.Type... type) {
         logger.trace("Expect Message: " + Arrays.toString(type));
-        future = new CompletableFuture<>();
-        awaitedMessageTypes = new HashSet<>(List.of(type));
+        return correlationRegistry.expect(timeoutMs, isAwaited, type);
+    }
+
+    /**
+     * Sends a request and expects its response, does not replace other pending requests
+     * The request is awaited by an operation, on connection error the operation (not the messages manager) reconnects
+     * @param message Request
+     * @param timeoutMs Response deadline (from the request being written)
+     * @param type Expected Message Types
+     * @return Future completed with the response (exceptionally with TimeoutException on deadline expiry, IOException if not sent)
+     */
+    public CompletableFuture<Message> request(Message message, long timeoutMs, Message.Type... type) {
+        return request(message, timeoutMs, true, type);
+    }
+
+    /**
+     * Sends a request and expects its response, does not replace other pending requests
+     * The expectation is registered once the writer takes the request, responses are correlated by type
+     * (the oldest expectation first), so they have to be expected in the order the requests are written
+     * (the outbound lanes write a later request of a higher priority first)
+     * @param message Request
+     * @param timeoutMs Response deadline (from the request being written)
+     * @param isAwaited True if an operation awaits the response (it reconnects on connection error),
+     * false if not (the messages manager reconnects)
+     * @param type Expected Message Types
+     * @return Future completed with the response (exceptionally with TimeoutException on deadline expiry, IOException if not sent)
+     */
+    public CompletableFuture<Message> request(Message message, long timeoutMs, boolean isAwaited, Message.Type... type) {
+        CompletableFuture<Message> future = new CompletableFuture<>();
+        communicator.send(message, () -> {
+            CompletableFuture<Message> expectation = expectMessage(timeoutMs, isAwaited, type);
+            // stopping fails the expectations registered before, this one sees the manager stopped
+            if (isStopped) {
+                expectation.completeExceptionally(new IOException("Messages Manager Stopped"));
+            }
+            expectation.whenComplete((response, exception) -> {
+                if (exception != null) {
+                    future.completeExceptionally(exception);
+                }
+                else {
+                    future.complete(response);
+                }
+            });
+        }).whenComplete((value, exception) -> {
+            if (exception != null) {
+                future.completeExceptionally(exception);
+            }
+        });
         return future;
     }
 
+    /**
+     * Sets the keep alive interval negotiated with the server (it sends keep alive messages once idle for the interval)
+     * Restarts learning of the inter-arrival times, the receive timeout is a few intervals
+     * @param keepAliveIntervalMs Keep alive interval
+     */
+    public void setKeepAliveIntervalMs(long keepAliveIntervalMs) {
+        failureDetector.reset(keepAliveIntervalMs);
+        receiveTimeoutMs = TIMEOUT_INTERVALS_CNT * keepAliveIntervalMs;
+    }
+
+    /**
+     * Sets the suspicion level the connection is considered failed at
+     * @param phiThreshold Phi threshold
+     */
+    public void setPhiThreshold(double phiThreshold) {
+        this.phiThreshold = phiThreshold;
+    }
+
+    /**
+     * Returns the current suspicion level of the connection
+     * @return Phi
+     */
+    public double getPhi() {
+        return failureDetector.phi(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns count of pending requests
+     * @return Count
+     */
+    public int getPendingRequestsCount() {
+        return correlationRegistry.getPendingCount();
+    }
+
+    private void handleError(IOException exception) {
+        if (isStopped) {
+            return;
+        }
+
+        Exception cause = exception;
+        if (isTimedOut) {
+            logger.error("Receive Message Timed Out");
+            cause = new TimeoutException();
+        }
+        else {
+            logger.error(exception.getMessage());
+        }
+
+        if (correlationRegistry.failAll(cause)) { // an awaiting operation reconnects
+            return;
+        }
+
+        threadFactory.newThread(onConnectionError).start();
+    }
+
+    private void scheduleWatchdog(long delayMs) {
+        watchdog = Scheduler.get().schedule(this::checkDeadline, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelWatchdog() {
+        ScheduledFuture<?> watchdog = this.watchdog;
+        if (watchdog != null) {
+            watchdog.cancel(false);
+        }
+    }
+
+    /**
+     * Watchdog task, reschedules itself to the current deadline
+     * The deadline is the time the failure detector suspicion reaches the threshold, at most last active + timeout
+     * On deadline expiry closes the communicator, the receiving thread then reports timeout
+     */
+    private void checkDeadline() {
+        if (isStopped) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long deadline = Math.min(lastActive + receiveTimeoutMs, failureDetector.getSuspicionTimeMs(phiThreshold, receiveTimeoutMs));
+        if (deadline > now) {
+            scheduleWatchdog(deadline - now);
+            return;
+        }
+
+        logger.warn("Connection Suspected, Phi: " + failureDetector.phi(now) + ", Mean: " + failureDetector.getMeanMs() + " ms, Std Dev: " + failureDetector.getStdDevMs() + " ms");
+        isTimedOut = true;
+        communicator.close();
+    }
+
 }
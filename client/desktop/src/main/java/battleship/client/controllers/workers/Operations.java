@@ -0,0 +1,36 @@
+package battleship.client.controllers.workers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared Operations Executor
+ * Runs controller operations (of all sessions), each on its own virtual thread
+ * Operations mostly block awaiting responses, so that they do not hold platform threads
+ */
+public final class Operations {
+
+    private static final CountingThreadFactory THREAD_FACTORY = new CountingThreadFactory("operation", true);
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(THREAD_FACTORY);
+
+    private Operations() {
+        //
+    }
+
+    /**
+     * Returns the shared operations executor
+     * @return Executor
+     */
+    public static ExecutorService get() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Returns count of threads created by the shared operations executor
+     * @return Count
+     */
+    public static int getCreatedThreadsCount() {
+        return THREAD_FACTORY.getCreatedCount();
+    }
+
+}
@@ -0,0 +1,185 @@
+package battleship.client.controllers.workers;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Phi Accrual Failure Detector
+ * Learns the distribution (mean, variance) of heartbeat inter-arrival times over a sliding window,
+ * reports suspicion phi = -log10(P(heartbeat arrives later than now)), phi of 1 means 10% chance of a false suspicion,
+ * 2 means 1%, 3 means 0.1%, ...
+ * The normal distribution is approximated by the logistic function, a minimal standard deviation and
+ * an acceptable pause (added to the mean) keep very regular links from being suspected on small delays
+ */
+public class PhiAccrualDetector {
+
+    private final double[] intervals;
+    private final double minStdDevMs;
+    private final double acceptablePauseMs;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int intervalsCnt = 0;
+    private int intervalIdx = 0;
+    private double intervalsSum = 0;
+    private double intervalsSquaresSum = 0;
+    private long lastArrivalMs;
+
+    /**
+     * Constructs a failure detector
+     * @param windowSize Count of inter-arrival times the distribution is learnt from
+     * @param minStdDevMs Minimal standard deviation
+     * @param acceptablePauseMs Acceptable pause (added to the mean)
+     * @param expectedIntervalMs Expected inter-arrival time (the distribution is seeded with it)
+     */
+    public PhiAccrualDetector(int windowSize, double minStdDevMs, double acceptablePauseMs, long expectedIntervalMs) {
+        this.intervals = new double[windowSize];
+        this.minStdDevMs = minStdDevMs;
+        this.acceptablePauseMs = acceptablePauseMs;
+        reset(expectedIntervalMs);
+    }
+
+    /**
+     * Forgets the learnt distribution, seeds it with the expected inter-arrival time (standard deviation of a quarter of it)
+     * Starts measuring from now
+     * @param expectedIntervalMs Expected inter-arrival time
+     */
+    public void reset(long expectedIntervalMs) {
+        lock.lock();
+        try {
+            intervalsCnt = 0;
+            intervalIdx = 0;
+            intervalsSum = 0;
+            intervalsSquaresSum = 0;
+            addInterval(expectedIntervalMs - expectedIntervalMs / 4.0);
+            addInterval(expectedIntervalMs + expectedIntervalMs / 4.0);
+            lastArrivalMs = System.currentTimeMillis();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records an arrival
+     * @param nowMs Arrival time
+     * @param isHeartbeat True if the inter-arrival time (since the last arrival) is to be learnt
+     */
+    public void arrival(long nowMs, boolean isHeartbeat) {
+        lock.lock();
+        try {
+            if (isHeartbeat) {
+                addInterval(nowMs - lastArrivalMs);
+            }
+            lastArrivalMs = nowMs;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the suspicion level
+     * @param nowMs Current time
+     * @return Phi (0 right after an arrival, grows with time)
+     */
+    public double phi(long nowMs) {
+        lock.lock();
+        try {
+            return phi(nowMs - lastArrivalMs, mean(), stdDev());
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the time when the suspicion level reaches the threshold (unless an arrival comes first)
+     * @param threshold Phi threshold
+     * @param maxDelayMs Upper bound of the search (since the last arrival)
+     * @return Time [ms]
+     */
+    public long getSuspicionTimeMs(double threshold, long maxDelayMs) {
+        lock.lock();
+        try {
+            double mean = mean();
+            double stdDev = stdDev();
+            long low = 0;
+            long high = maxDelayMs;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                if (phi(middle, mean, stdDev) >= threshold) {
+                    high = middle;
+                }
+                else {
+                    low = middle + 1;
+                }
+            }
+            return lastArrivalMs + low;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the learnt mean inter-arrival time
+     * @return Mean [ms]
+     */
+    public double getMeanMs() {
+        lock.lock();
+        try {
+            return mean();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the learnt standard deviation of inter-arrival times (at least the minimal one)
+     * @return Standard deviation [ms]
+     */
+    public double getStdDevMs() {
+        lock.lock();
+        try {
+            return stdDev();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void addInterval(double intervalMs) {
+        if (intervalsCnt == intervals.length) {
+            double evicted = intervals[intervalIdx];
+            intervalsSum -= evicted;
+            intervalsSquaresSum -= evicted * evicted;
+        }
+        else {
+            intervalsCnt++;
+        }
+        intervals[intervalIdx] = intervalMs;
+        intervalIdx = (intervalIdx + 1) % intervals.length;
+        intervalsSum += intervalMs;
+        intervalsSquaresSum += intervalMs * intervalMs;
+    }
+
+    private double mean() {
+        return intervalsSum / intervalsCnt;
+    }
+
+    private double stdDev() {
+        double mean = mean();
+        double variance = Math.max(0, intervalsSquaresSum / intervalsCnt - mean * mean);
+        return Math.max(minStdDevMs, Math.sqrt(variance));
+    }
+
+    private double phi(long elapsedMs, double mean, double stdDev) {
+        double y = (elapsedMs - mean - acceptablePauseMs) / stdDev;
+        double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        if (elapsedMs > mean + acceptablePauseMs) {
+            return -Math.log10(e / (1.0 + e));
+        }
+        return -Math.log10(1.0 - 1.0 / (1.0 + e));
+    }
+
+}
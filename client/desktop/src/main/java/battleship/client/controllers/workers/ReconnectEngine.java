@@ -0,0 +1,284 @@
+package battleship.client.controllers.workers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reconnect Engine
+ * Retries reconnect attempts until one succeeds or the reconnect deadline expires
+ * Attempts are delayed by exponential backoff with full jitter (random delay up to min(cap, base * 2^attempt)),
+ * so that clients of a restarted server do not retry in lockstep
+ * Delays are timed on the shared scheduler (no thread waits), attempts (they block) run on virtual threads of the engine,
+ * never on the executor of the operation awaiting the reconnect (a bounded one would deadlock)
+ * A reconnect can be cancelled, the attempt in progress (if any) still finishes but its result is discarded
+ */
+public class ReconnectEngine {
+
+    private final Logger logger = LogManager.getLogger();
+
+    /**
+     * Reconnect Attempt
+     */
+    @FunctionalInterface
+    public interface Attempt {
+        /**
+         * Performs a single attempt (blocks)
+         * @return True if reconnected, false if the attempt failed (it is retried)
+         * @throws RuntimeException if reconnecting must not be retried
+         */
+        boolean run();
+    }
+
+    /**
+     * Engine State
+     */
+    public enum State {
+        IDLE,
+        BACKING_OFF,
+        ATTEMPTING
+    }
+
+    private final Attempt attempt;
+    private final CountingThreadFactory threadFactory = new CountingThreadFactory("reconnect", true);
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long timeoutMs;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private State state = State.IDLE;
+    private CompletableFuture<Boolean> future;
+    private ScheduledFuture<?> scheduledAttempt;
+    private long startMs;
+    private int attemptIdx;
+
+    private volatile int attemptsCount = 0;
+    private volatile int reconnectsCount = 0;
+    private volatile int failuresCount = 0;
+    private volatile long lastAttemptLatencyMs = -1;
+    private volatile long lastReconnectLatencyMs = -1;
+
+    /**
+     * Constructs a reconnect engine
+     * @param attempt Reconnect attempt
+     * @param baseDelayMs Backoff delay base
+     * @param maxDelayMs Backoff delay cap
+     * @param timeoutMs Reconnect deadline (from start), no attempt starts after it
+     */
+    public ReconnectEngine(Attempt attempt, long baseDelayMs, long maxDelayMs, long timeoutMs) {
+        this.attempt = attempt;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Starts reconnecting (does not block), the first attempt is delayed by the jitter only
+     * If already reconnecting, returns the future of the reconnect in progress
+     * @return Future completed with true if reconnected, false if the deadline expired or cancelled
+     * (exceptionally if an attempt threw)
+     */
+    public CompletableFuture<Boolean> start() {
+        lock.lock();
+        try {
+            if (state != State.IDLE) {
+                return future;
+            }
+
+            logger.debug("Starting Reconnect");
+            future = new CompletableFuture<>();
+            startMs = System.currentTimeMillis();
+            attemptIdx = 0;
+            scheduleAttempt();
+            return future;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels reconnecting, completes the reconnect future with false
+     * @return True if there has been a reconnect in progress
+     */
+    public boolean cancel() {
+        lock.lock();
+        try {
+            if (state == State.IDLE) {
+                return false;
+            }
+
+            logger.debug("Cancelling Reconnect");
+            scheduledAttempt.cancel(false);
+            finish(false);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the engine state
+     * @return State
+     */
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns count of attempts (of all reconnects)
+     * @return Count
+     */
+    public int getAttemptsCount() {
+        return attemptsCount;
+    }
+
+    /**
+     * Returns count of successful reconnects
+     * @return Count
+     */
+    public int getReconnectsCount() {
+        return reconnectsCount;
+    }
+
+    /**
+     * Returns count of failed (deadline expired, cancelled or thrown) reconnects
+     * @return Count
+     */
+    public int getFailuresCount() {
+        return failuresCount;
+    }
+
+    /**
+     * Returns count of threads created for attempts
+     * @return Count
+     */
+    public int getCreatedThreadsCount() {
+        return threadFactory.getCreatedCount();
+    }
+
+    /**
+     * Returns duration of the last finished attempt
+     * @return Latency [ms], -1 if there has not been any
+     */
+    public long getLastAttemptLatencyMs() {
+        return lastAttemptLatencyMs;
+    }
+
+    /**
+     * Returns duration of the last successful reconnect (from start, backoff delays included)
+     * @return Latency [ms], -1 if there has not been any
+     */
+    public long getLastReconnectLatencyMs() {
+        return lastReconnectLatencyMs;
+    }
+
+    /**
+     * Schedules the next attempt (lock held)
+     * Finishes the reconnect if the attempt would start after the deadline
+     */
+    private void scheduleAttempt() {
+        long ceilingMs = Math.min(maxDelayMs, baseDelayMs << Math.min(attemptIdx, 30));
+        long delayMs = ThreadLocalRandom.current().nextLong(ceilingMs + 1);
+        long remainingMs = startMs + timeoutMs - System.currentTimeMillis();
+        if (delayMs >= remainingMs) {
+            logger.debug("Reconnect Deadline Expired");
+            finish(false);
+            return;
+        }
+
+        logger.debug("Next Attempt In: " + delayMs + " ms");
+        state = State.BACKING_OFF;
+        CompletableFuture<Boolean> future_ = future;
+        scheduledAttempt = Scheduler.get().schedule(
+                () -> threadFactory.newThread(() -> runAttempt(future_)).start(), delayMs, TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Runs an attempt of the reconnect (unless it has been finished meanwhile), schedules the next one on failure
+     * @param future_ Future of the reconnect the attempt belongs to
+     */
+    private void runAttempt(CompletableFuture<Boolean> future_) {
+        lock.lock();
+        try {
+            if (future_ != future || state != State.BACKING_OFF) {
+                return;
+            }
+            state = State.ATTEMPTING;
+            attemptIdx++;
+            attemptsCount++;
+        }
+        finally {
+            lock.unlock();
+        }
+
+        logger.debug("Attempting Reconnect: " + attemptIdx);
+        long attemptStartMs = System.currentTimeMillis();
+        boolean isReconnected;
+        RuntimeException exception = null;
+        try {
+            isReconnected = attempt.run();
+        }
+        catch (RuntimeException e) {
+            logger.error("Attempt Threw: " + e.getMessage());
+            isReconnected = false;
+            exception = e;
+        }
+        long nowMs = System.currentTimeMillis();
+        lastAttemptLatencyMs = nowMs - attemptStartMs;
+
+        lock.lock();
+        try {
+            if (future_ != future || state != State.ATTEMPTING) {
+                logger.debug("Attempt Result Discarded");
+                return;
+            }
+
+            if (exception != null) {
+                failuresCount++;
+                state = State.IDLE;
+                future.completeExceptionally(exception);
+            }
+            else if (isReconnected) {
+                lastReconnectLatencyMs = nowMs - startMs;
+                logger.info("Reconnected In: " + lastReconnectLatencyMs + " ms, Attempts: " + attemptIdx);
+                finish(true);
+            }
+            else {
+                scheduleAttempt();
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finishes the reconnect (lock held)
+     * @param isReconnected Result
+     */
+    private void finish(boolean isReconnected) {
+        if (isReconnected) {
+            reconnectsCount++;
+        }
+        else {
+            failuresCount++;
+        }
+        state = State.IDLE;
+        future.complete(isReconnected);
+    }
+
+}
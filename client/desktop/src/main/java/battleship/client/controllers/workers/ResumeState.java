@@ -0,0 +1,56 @@
+package battleship.client.controllers.workers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resume State
+ * Resume token of the session and sequence number of the last applied room event,
+ * read and set right away by the state machine (ordering events) and by the controller (resuming the session),
+ * so they are kept here rather than in the JavaFX model
+ */
+public class ResumeState {
+
+    private final AtomicInteger eventSequence = new AtomicInteger(0);
+    private volatile String token = "";
+
+    /**
+     * Returns session resume token
+     * @return Resume token (empty if none has been issued)
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Sets session resume token
+     * @param token Resume token (empty if none)
+     */
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Returns sequence number of the last applied room event
+     * @return Sequence number (0 if none)
+     */
+    public int getEventSequence() {
+        return eventSequence.get();
+    }
+
+    /**
+     * Sets sequence number of the last applied room event
+     * @param sequence Sequence number
+     */
+    public void setEventSequence(int sequence) {
+        eventSequence.set(sequence);
+    }
+
+    /**
+     * Forgets the resume token and the applied events
+     */
+    public void reset() {
+        token = "";
+        eventSequence.set(0);
+    }
+
+}
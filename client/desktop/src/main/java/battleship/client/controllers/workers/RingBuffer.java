@@ -0,0 +1,234 @@
+package battleship.client.controllers.workers;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Ring Buffer
+ * Bounded single-producer single-consumer queue of preallocated, reusable slots
+ * The producer writes into the next free slot and publishes it, the consumer reads the next published slot and releases it,
+ * slots are never allocated after construction (the producer and consumer sequences only grow, the slot is sequence mod capacity)
+ * A side waits while the buffer is full (producer) or empty (consumer) as set by the wait strategy,
+ * the other side takes the lock to signal only if the waiting side has announced it is parked
+ * Exactly one thread may put and one thread may take at a time
+ * @param <E> Slot type
+ */
+public class RingBuffer<E> {
+
+    /**
+     * Wait Strategy
+     */
+    public enum WaitStrategy {
+        /** Parks at once (lowest CPU usage) */
+        BLOCKING(0),
+        /** Spins a while before parking (lowest hand-off latency, e.g. for bots), parks at once on a single CPU */
+        SPIN_PARK(10_000);
+
+        private final int spinsCnt;
+
+        WaitStrategy(int spinsCnt) {
+            // Spinning on a single CPU only delays the other side
+            this.spinsCnt = Runtime.getRuntime().availableProcessors() > 1 ? spinsCnt : 0;
+        }
+    }
+
+    private final Object[] slots;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+
+    /** Sequence of the next slot to be published (written by the producer only) */
+    private final AtomicLong producerSequence = new AtomicLong();
+    /** Sequence of the next slot to be taken (written by the consumer only) */
+    private final AtomicLong consumerSequence = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition isNotEmpty = lock.newCondition();
+    private final Condition isNotFull = lock.newCondition();
+    private volatile boolean isConsumerParked = false;
+    private volatile boolean isProducerParked = false;
+
+    private volatile int highWaterMark = 0;
+
+    /**
+     * Constructs a ring buffer with all its slots
+     * @param capacity Capacity (a power of two)
+     * @param slotFactory Factory of slots
+     * @param waitStrategy Wait strategy
+     * @throws IllegalArgumentException if the capacity is not a power of two
+     */
+    public RingBuffer(int capacity, Supplier<E> slotFactory, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity Not Power Of Two");
+        }
+
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = slotFactory.get();
+        }
+    }
+
+    /**
+     * Writes the next free slot and publishes it (producer), waits while the buffer is full
+     * @param writer Writer of the slot
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void put(Consumer<E> writer) throws InterruptedException {
+        offer(writer, Long.MAX_VALUE);
+    }
+
+    /**
+     * Writes the next free slot and publishes it (producer), waits at most the timeout while the buffer is full
+     * @param writer Writer of the slot
+     * @param timeoutNs Timeout [ns]
+     * @return True if published, false if the buffer has stayed full (the writer has not been called)
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean offer(Consumer<E> writer, long timeoutNs) throws InterruptedException {
+        long sequence = producerSequence.get();
+        if (sequence - consumerSequence.get() == slots.length && !awaitNotFull(sequence, timeoutNs)) {
+            return false;
+        }
+
+        writer.accept(slot(sequence));
+        producerSequence.set(sequence + 1);
+
+        int depth = (int) (sequence + 1 - consumerSequence.get());
+        if (depth > highWaterMark) {
+            highWaterMark = depth;
+        }
+        if (isConsumerParked) {
+            signal(isNotEmpty);
+        }
+        return true;
+    }
+
+    /**
+     * Reads the next published slot and releases it (consumer), waits while the buffer is empty
+     * The reader must copy out what it needs (and clear references it does not want retained), the slot is reused
+     * @param reader Reader of the slot
+     * @param <R> Result type
+     * @return Result of the reader
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public <R> R take(Function<E, R> reader) throws InterruptedException {
+        long sequence = consumerSequence.get();
+        if (sequence == producerSequence.get()) {
+            awaitNotEmpty(sequence);
+        }
+
+        R result = reader.apply(slot(sequence));
+        consumerSequence.set(sequence + 1);
+
+        if (isProducerParked) {
+            signal(isNotFull);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the capacity
+     * @return Capacity [slots]
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Returns count of published slots not taken yet
+     * @return Depth [slots]
+     */
+    public int getDepth() {
+        return (int) (producerSequence.get() - consumerSequence.get());
+    }
+
+    /**
+     * Returns the highest depth reached
+     * @return High water mark [slots]
+     */
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Returns count of slots published so far
+     * @return Count
+     */
+    public long getPublishedCount() {
+        return producerSequence.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private E slot(long sequence) {
+        return (E) slots[(int) sequence & mask];
+    }
+
+    private void awaitNotEmpty(long sequence) throws InterruptedException {
+        for (int i = 0; i < waitStrategy.spinsCnt; i++) {
+            if (sequence != producerSequence.get()) {
+                return;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            Thread.onSpinWait();
+        }
+
+        lock.lockInterruptibly();
+        try {
+            isConsumerParked = true;
+            while (sequence == producerSequence.get()) {
+                isNotEmpty.await();
+            }
+        }
+        finally {
+            isConsumerParked = false;
+            lock.unlock();
+        }
+    }
+
+    private boolean awaitNotFull(long sequence, long timeoutNs) throws InterruptedException {
+        for (int i = 0; i < waitStrategy.spinsCnt; i++) {
+            if (sequence - consumerSequence.get() != slots.length) {
+                return true;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            Thread.onSpinWait();
+        }
+
+        lock.lockInterruptibly();
+        try {
+            isProducerParked = true;
+            long remainingNs = timeoutNs;
+            while (sequence - consumerSequence.get() == slots.length) {
+                if (remainingNs <= 0) {
+                    return false;
+                }
+                remainingNs = isNotFull.awaitNanos(remainingNs);
+            }
+            return true;
+        }
+        finally {
+            isProducerParked = false;
+            lock.unlock();
+        }
+    }
+
+    private void signal(Condition condition) {
+        lock.lock();
+        try {
+            condition.signal();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package battleship.client.controllers.workers;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Round-Trip Time Estimator
+ * Keeps smoothed RTT and RTT variation of the samples as TCP does (RFC 6298)
+ */
+public class RttEstimator {
+
+    private static final double ALPHA = 1 / 8.0;
+    private static final double BETA = 1 / 4.0;
+
+    private final DoubleConsumer onSmoothedRtt;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double smoothedRttMs = -1;
+    private double rttVariationMs = 0;
+    private int samplesCount = 0;
+
+    /**
+     * Constructs an RTT estimator
+     * @param onSmoothedRtt Smoothed RTT listener [ms], called on every sample (on the sampling thread)
+     */
+    public RttEstimator(DoubleConsumer onSmoothedRtt) {
+        this.onSmoothedRtt = onSmoothedRtt;
+    }
+
+    /**
+     * Forgets all samples (e.g. on connecting to another server)
+     */
+    public void reset() {
+        lock.lock();
+        try {
+            smoothedRttMs = -1;
+            rttVariationMs = 0;
+            samplesCount = 0;
+        }
+        finally {
+            lock.unlock();
+        }
+        onSmoothedRtt.accept(-1);
+    }
+
+    /**
+     * Records an RTT sample
+     * @param rttMs Measured RTT
+     */
+    public void sample(double rttMs) {
+        double smoothedRttMs;
+        lock.lock();
+        try {
+            if (samplesCount++ == 0) {
+                this.smoothedRttMs = rttMs;
+                rttVariationMs = rttMs / 2;
+            }
+            else {
+                rttVariationMs = (1 - BETA) * rttVariationMs + BETA * Math.abs(this.smoothedRttMs - rttMs);
+                this.smoothedRttMs = (1 - ALPHA) * this.smoothedRttMs + ALPHA * rttMs;
+            }
+            smoothedRttMs = this.smoothedRttMs;
+        }
+        finally {
+            lock.unlock();
+        }
+        onSmoothedRtt.accept(smoothedRttMs);
+    }
+
+    /**
+     * Returns the smoothed RTT
+     * @return SRTT [ms] (-1 if there has not been any sample)
+     */
+    public double getSmoothedRttMs() {
+        lock.lock();
+        try {
+            return smoothedRttMs;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the RTT variation
+     * @return RTTVAR [ms]
+     */
+    public double getRttVariationMs() {
+        lock.lock();
+        try {
+            return rttVariationMs;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns count of samples (since the last reset)
+     * @return Count
+     */
+    public int getSamplesCount() {
+        lock.lock();
+        try {
+            return samplesCount;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+}
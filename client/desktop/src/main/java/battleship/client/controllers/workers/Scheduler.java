@@ -0,0 +1,31 @@
+package battleship.client.controllers.workers;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Shared Scheduler
+ * Single daemon thread running timed tasks (deadlines, watchdogs) of all sessions
+ */
+public final class Scheduler {
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Scheduler() {
+        //
+    }
+
+    /**
+     * Returns the shared scheduled executor
+     * Scheduled tasks must not block
+     * @return Scheduled executor
+     */
+    public static ScheduledExecutorService get() {
+        return EXECUTOR;
+    }
+
+}
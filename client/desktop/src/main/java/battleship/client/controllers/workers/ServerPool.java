@@ -0,0 +1,259 @@
+package battleship.client.controllers.workers;
+
+import battleship.client.controllers.messages.Communicator;
+import battleship.client.controllers.messages.Message;
+import battleship.client.controllers.messages.Payload;
+import battleship.client.controllers.messages.StreamCommunicator;
+import battleship.client.controllers.transport.MemoryTransport;
+import battleship.client.controllers.transport.Transport;
+import battleship.client.controllers.transport.UnixDomainTransport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server Pool
+ * Servers the client may connect to (several instances, each capped by its clients and rooms count limits)
+ * Servers are probed in parallel (connect, WELCOME, SERVER_LOAD, close) for their RTT and load,
+ * the ones with capacity are ranked by RTT weighted by their clients load (RTT * (1 + clients / limit))
+ * Probes learn the servers' nodes (digits prefixing their room codes), so that room codes are routed to the hosting server
+ * A pool of a single server is never probed
+ * Probes run on virtual threads of the pool, never on the executor of the operation awaiting the ranking
+ * (a bounded one could be starved by its own probes)
+ */
+public class ServerPool {
+
+    private final Logger logger = LogManager.getLogger();
+
+    private static final long PROBE_TIMEOUT_MS = 2_000;
+    private static final char SERVERS_DELIMITER = ',';
+    private static final char PORT_DELIMITER = ':';
+
+    /**
+     * Server Endpoint
+     * @param address Server address (including the scheme, see {@link Transport#of(String)})
+     * @param port Server port
+     */
+    public record Endpoint(String address, int port) {
+        @Override
+        public String toString() {
+            return address + PORT_DELIMITER + port;
+        }
+    }
+
+    /**
+     * Probe Result
+     * @param endpoint Server endpoint
+     * @param rttMs Round-trip time of SERVER_LOAD [ms]
+     * @param clientsCnt Connected clients count (the probe included)
+     * @param limClients Clients count limit
+     * @param roomsCnt Rooms count
+     * @param limRooms Rooms count limit
+     * @param node Node digit prefixing room codes of the server (empty if none)
+     */
+    public record Probe(Endpoint endpoint, double rttMs, int clientsCnt, int limClients, int roomsCnt, int limRooms, String node) {
+        /**
+         * Returns whether a room can be created on the server
+         * @return True if the rooms count limit has not been reached
+         */
+        public boolean hasRoomsCapacity() {
+            return roomsCnt < limRooms;
+        }
+
+        /**
+         * Returns the rank score of the server (lower is better)
+         * @return RTT weighted by the clients load
+         */
+        public double getScore() {
+            return rttMs * (1.0 + (double) clientsCnt / Math.max(1, limClients));
+        }
+    }
+
+    private final List<Endpoint> endpoints;
+    private final CountingThreadFactory threadFactory = new CountingThreadFactory("probe", true);
+    private final Executor executor = runnable -> threadFactory.newThread(runnable).start();
+    private final Map<String, Endpoint> nodes = new ConcurrentHashMap<>();
+    private volatile boolean isProbed = false;
+
+    /**
+     * Constructs a server pool
+     * @param endpoints Servers (in the configured order)
+     */
+    public ServerPool(List<Endpoint> endpoints) {
+        this.endpoints = List.copyOf(endpoints);
+    }
+
+    /**
+     * Parses servers separated by ','
+     * A server is an address optionally followed by ':' and a port ("host:port"), else the default port applies
+     * Addresses with a scheme (unix:, memory:) never carry a port
+     * @param servers Servers
+     * @param defaultPort Default port (parsed only if a server does not carry a port)
+     * @return Endpoints, not empty
+     * @throws IllegalArgumentException if a port is not a number or there is no server
+     */
+    public static List<Endpoint> parse(String servers, String defaultPort) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (String server : servers.split(String.valueOf(SERVERS_DELIMITER))) {
+            server = server.strip();
+            if (server.isEmpty()) {
+                continue;
+            }
+
+            int portIdx = server.lastIndexOf(PORT_DELIMITER);
+            boolean hasPort = portIdx != -1 && portIdx == server.indexOf(PORT_DELIMITER)
+                    && !server.startsWith(UnixDomainTransport.SCHEME) && !server.startsWith(MemoryTransport.SCHEME);
+            if (hasPort) {
+                endpoints.add(new Endpoint(server.substring(0, portIdx), Integer.parseInt(server.substring(portIdx + 1))));
+            }
+            else {
+                endpoints.add(new Endpoint(server, Integer.parseInt(defaultPort)));
+            }
+        }
+
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("No Server");
+        }
+        return endpoints;
+    }
+
+    /**
+     * Returns count of servers
+     * @return Count
+     */
+    public int size() {
+        return endpoints.size();
+    }
+
+    /**
+     * Returns the servers in the configured order
+     * @return Endpoints
+     */
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Probes the servers (in parallel, blocks) and returns the ones with capacity, the best one first
+     * A pool of a single server returns it without probing
+     * @param isRoomsCapacityRequired True if the servers must have capacity for a new room
+     * @return Endpoints, empty if no server has capacity (or is reachable)
+     */
+    public List<Endpoint> rank(boolean isRoomsCapacityRequired) {
+        if (endpoints.size() == 1) {
+            return endpoints;
+        }
+
+        List<CompletableFuture<Probe>> futures = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            futures.add(CompletableFuture.supplyAsync(() -> probe(endpoint), executor));
+        }
+
+        List<Probe> probes = new ArrayList<>();
+        for (CompletableFuture<Probe> future : futures) {
+            Probe probe = future.join();
+            if (probe != null && (!isRoomsCapacityRequired || probe.hasRoomsCapacity())) {
+                probes.add(probe);
+            }
+        }
+
+        isProbed = true;
+        probes.sort(Comparator.comparingDouble(Probe::getScore));
+        logger.info("Servers Ranked: " + probes);
+        return probes.stream().map(Probe::endpoint).toList();
+    }
+
+    /**
+     * Returns the server hosting rooms of the node (the first digit of the room code)
+     * Probes the servers if the node has not been learnt yet (unless probed servers do not have nodes at all)
+     * @param node Node
+     * @return Endpoint, null if no server is known to be the node
+     */
+    public Endpoint locate(String node) {
+        if (endpoints.size() == 1 || (isProbed && nodes.isEmpty())) {
+            return null;
+        }
+
+        Endpoint endpoint = nodes.get(node);
+        if (endpoint == null) {
+            rank(false);
+            endpoint = nodes.get(node);
+        }
+        return endpoint;
+    }
+
+    /**
+     * Probes the server (blocks)
+     * The probe connection is closed by the probe deadline at the latest
+     * @param endpoint Server endpoint
+     * @return Probe result, null if the server is not reachable or has reached its clients count limit
+     */
+    private Probe probe(Endpoint endpoint) {
+        Communicator communicator;
+        try {
+            communicator = new StreamCommunicator(Transport.of(endpoint.address()).connect(endpoint.address(), endpoint.port(), (int) PROBE_TIMEOUT_MS), threadFactory);
+        }
+        catch (IOException e) {
+            logger.debug("Probe Failed: " + endpoint + ": " + e.getMessage());
+            return null;
+        }
+
+        ScheduledFuture<?> deadline = Scheduler.get().schedule(communicator::close, PROBE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        try {
+            Message message = receive(communicator, Message.Type.WELCOME, Message.Type.LIMIT_CLIENTS);
+            if (message.getType() == Message.Type.LIMIT_CLIENTS) {
+                logger.debug("Probe: " + endpoint + " Reached Clients Count Limit");
+                return null;
+            }
+
+            long startNs = System.nanoTime();
+            communicator.send(new Message(Message.Type.SERVER_LOAD));
+            Payload.ServerLoad load = (Payload.ServerLoad) receive(communicator, Message.Type.SERVER_LOAD).getPayload();
+            double rttMs = (System.nanoTime() - startNs) / 1_000_000.0;
+
+            if (!load.node().isEmpty()) {
+                nodes.put(load.node(), endpoint);
+            }
+            Probe probe = new Probe(endpoint, rttMs, load.clientsCnt(), load.limClients(), load.roomsCnt(), load.limRooms(), load.node());
+            logger.debug("Probe: " + probe);
+            return probe;
+        }
+        catch (IOException | RuntimeException e) {
+            logger.debug("Probe Failed: " + endpoint + ": " + e.getMessage());
+            return null;
+        }
+        finally {
+            deadline.cancel(false);
+            communicator.close();
+        }
+    }
+
+    /**
+     * Receives messages until one of the expected types (skips the others, e.g. KEEP_ALIVE)
+     * @param communicator Communicator
+     * @param types Expected Message Types
+     * @return Message
+     * @throws IOException on IO error
+     */
+    private static Message receive(Communicator communicator, Message.Type... types) throws IOException {
+        for (;;) {
+            Message message = communicator.receive();
+            for (Message.Type type : types) {
+                if (message.getType() == type) {
+                    return message;
+                }
+            }
+        }
+    }
+
+}
@@ -2,29 +2,135 @@ package battleship.client.controllers.workers;
 
 import battleship.client.controllers.StateMachineController;
 import battleship.client.controllers.messages.Message;
+import battleship.client.controllers.messages.Payload;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.function.Consumer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 /**
  * State Machine
+ * Validates ordering of sequenced room events, the last applied sequence number is kept in the resume state ({@link ResumeState})
+ * Sequence number 1 starts a new event stream (room), replayed events already applied are skipped,
+ * gaps (events covered by a full state resync) are logged and counted
+ * Messages are handed off from the messages manager through a preallocated ring buffer (single producer, single consumer),
+ * its depth and high water mark are exposed
+ * The state machine takes all enqueued messages at once, validates their ordering and drops those made obsolete
+ * by later ones of the batch ({@link InboxCoalescer}), so that a backlog is applied in time proportional to the state
+ * If the inbox stays full, the message is not enqueued (the messages manager fails the connection, the session is resumed,
+ * events are replayed from the last applied one, unsequenced messages may be lost)
+ * Handlers are registered once in a table indexed by the message type ordinal, dispatch is wrapped by interceptors
+ * (dispatch metrics by default), messages of types without a handler are counted and logged
  */
 public class StateMachine implements Runnable {
 
     private final Logger logger = LogManager.getLogger();
 
+    /** Inbox capacity [messages] */
+    public static final int INBOX_CAPACITY = 1024;
+    /** Time a message waits for a free inbox slot before the inbox is considered overflowed */
+    private static final int INBOX_FULL_TIMEOUT_MS = 2_000;
+
+    /**
+     * Inbox Slot (reused for the messages passing through it)
+     */
+    private static final class Slot {
+        private Message message;
+    }
+
+    /**
+     * Message Handler
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * Handles the message
+         * @param payload Payload of the message
+         */
+        void handle(Payload payload);
+    }
+
+    /**
+     * Dispatch Interceptor
+     * Called on the state machine thread around each handled message (in the order of registration)
+     */
+    public interface Interceptor {
+        /**
+         * Called before the handler
+         * @param message Message
+         */
+        default void beforeHandle(Message message) {
+            //
+        }
+
+        /**
+         * Called after the handler has returned
+         * @param message Message
+         * @param durationNs Handler execution time [ns]
+         */
+        void afterHandle(Message message, long durationNs);
+    }
+
     private final StateMachineController stateMachineController;
-    private final BlockingDeque<Message> messages = new LinkedBlockingDeque<>();
+    private final RingBuffer<Slot> inbox;
+    private final Handler[] handlers = new Handler[Message.Type.values().length];
+    private final List<Interceptor> interceptors = new CopyOnWriteArrayList<>();
+    private final DispatchMetrics dispatchMetrics = new DispatchMetrics();
+    private final InboxCoalescer coalescer = new InboxCoalescer();
+    /** Messages taken from the inbox at once (used by the state machine thread only) */
+    private final Message[] batch = new Message[INBOX_CAPACITY];
+
+    private volatile int inboxOverflowsCount = 0;
+    private volatile int duplicateEventsCount = 0;
+    private volatile int eventGapsCount = 0;
+    private volatile int unhandledCount = 0;
 
     /**
      * Constructs a state machine
      * @param stateMachineController State machine controller
+     * @param waitStrategy Inbox wait strategy of the state machine thread (and of the messages manager if the inbox is full)
      */
-    public StateMachine(StateMachineController stateMachineController) {
+    public StateMachine(StateMachineController stateMachineController, RingBuffer.WaitStrategy waitStrategy) {
         this.stateMachineController = stateMachineController;
+        this.inbox = new RingBuffer<>(INBOX_CAPACITY, Slot::new, waitStrategy);
+
+        register(Message.Type.CONN_TERM, payload -> stateMachineController.handleConnTerm());
+        register(Message.Type.OPPONENT_NICKNAME_SET, payload -> stateMachineController.handleOpponentNicknameSet((Payload.OpponentNicknameSet) payload));
+        register(Message.Type.OPPONENT_BOARD_READY, payload -> stateMachineController.handleOpponentBoardReady());
+        register(Message.Type.OPPONENT_ROOM_LEAVE, payload -> stateMachineController.handleOpponentRoomLeave());
+        register(Message.Type.GAME_BEGIN, payload -> stateMachineController.handleGameBegin((Payload.GameBegin) payload));
+        register(Message.Type.TURN_SET, payload -> stateMachineController.handleTurnSet((Payload.TurnSet) payload));
+        register(Message.Type.OPPONENT_NO_RESPONSE, payload -> stateMachineController.handleOpponentNoResponse((Payload.OpponentNoResponse) payload));
+        register(Message.Type.OPPONENT_TURN, payload -> stateMachineController.handleOpponentTurn((Payload.OpponentTurn) payload));
+        register(Message.Type.OPPONENT_SALVO, payload -> stateMachineController.handleOpponentSalvo((Payload.OpponentSalvo) payload));
+        register(Message.Type.GAME_END, payload -> stateMachineController.handleGameEnd((Payload.GameEnd) payload));
+        register(Message.Type.OPPONENT_REJOIN, payload -> stateMachineController.handleOpponentRejoin());
+        register(Message.Type.BOARD_STATE, payload -> stateMachineController.handleBoardState((Payload.BoardStateSnapshot) payload));
+        register(Message.Type.BOARD_STATE_PACKED, payload -> stateMachineController.handleBoardState((Payload.BoardStateSnapshot) payload));
+        register(Message.Type.INVALIDATE_FIELD, payload -> stateMachineController.handleInvalidateField((Payload.InvalidateField) payload));
+        register(Message.Type.RESUME_TOKEN, payload -> stateMachineController.handleResumeToken((Payload.ResumeToken) payload));
+
+        addInterceptor(dispatchMetrics);
+    }
+
+    /**
+     * Registers the handler of the message type (replaces the registered one)
+     * Handlers are to be registered before the state machine thread is started
+     * @param type Message Type
+     * @param handler Handler
+     */
+    public void register(Message.Type type, Handler handler) {
+        handlers[type.ordinal()] = handler;
+    }
+
+    /**
+     * Adds an interceptor of handled messages
+     * @param interceptor Interceptor
+     */
+    public void addInterceptor(Interceptor interceptor) {
+        interceptors.add(interceptor);
     }
 
     /**
@@ -34,49 +140,192 @@ public class StateMachine implements Runnable {
     public void run() {
         try {
             for (;;) {
-                Message message = messages.take();
-                logger.trace("Take Message: " + message.serialize());
+                int size = takeBatch();
 
                 if (Thread.interrupted()) {
                     throw new InterruptedException();
                 }
 
+                for (int i = 0; i < size; i++) {
+                    if (!isInOrder(batch[i])) {
+                        logger.debug("Skip Applied Event: " + batch[i].serialize());
+                        batch[i] = null;
+                    }
+                }
 
-                Consumer<Message> handler;
-                switch (message.getType()) {
-                    case CONN_TERM -> handler = stateMachineController::handleConnTerm;
-                    case OPPONENT_NICKNAME_SET -> handler = stateMachineController::handleOpponentNicknameSet;
-                    case OPPONENT_BOARD_READY -> handler = stateMachineController::handleOpponentBoardReady;
-                    case OPPONENT_ROOM_LEAVE -> handler = stateMachineController::handleOpponentRoomLeave;
-                    case GAME_BEGIN -> handler = stateMachineController::handleGameBegin;
-                    case TURN_SET -> handler = stateMachineController::handleTurnSet;
-                    case OPPONENT_NO_RESPONSE -> handler = stateMachineController::handleOpponentNoResponse;
-                    case OPPONENT_TURN -> handler = stateMachineController::handleOpponentTurn;
-                    case GAME_END -> handler = stateMachineController::handleGameEnd;
-                    case OPPONENT_REJOIN -> handler = stateMachineController::handleOpponentRejoin;
-                    case BOARD_STATE -> handler = stateMachineController::handleBoardState;
-                    case INVALIDATE_FIELD -> handler = stateMachineController::handleInvalidateField;
-                    default -> {
-                        logger.error("No Suitable Handler: " + message.serialize());
-                        continue;
+                int droppedCnt = coalescer.coalesce(batch, size);
+                if (droppedCnt != 0) {
+                    logger.debug("Coalesced Messages: " + droppedCnt + " of " + size);
+                }
+
+                for (int i = 0; i < size; i++) {
+                    if (batch[i] != null) {
+                        dispatch(batch[i]);
+                        batch[i] = null;
                     }
                 }
-                logger.trace("Handle Message");
-                handler.accept(message);
             }
         }
         catch (InterruptedException e) {
             logger.debug("Interrupted");
         }
+        finally {
+            logger.debug("Dispatch: " + dispatchMetrics);
+            logger.debug("Coalesced: " + coalescer);
+        }
+    }
+
+    /**
+     * Takes the next message (waits while the inbox is empty) and all the messages enqueued meanwhile
+     * @return Count of messages in the batch
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private int takeBatch() throws InterruptedException {
+        int size = 0;
+        // the depth only grows meanwhile (this is the only consumer), so the takes do not wait
+        int depth = 1;
+        while (size < depth) {
+            batch[size++] = inbox.take(slot -> {
+                Message message_ = slot.message;
+                slot.message = null;
+                return message_;
+            });
+            logger.trace("Take Message: " + batch[size - 1].serialize());
+            if (size == depth) {
+                depth = size + Math.min(inbox.getDepth(), batch.length - size);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the dispatch metrics (per message type count and handlers execution times)
+     * @return Dispatch metrics
+     */
+    public DispatchMetrics getDispatchMetrics() {
+        return dispatchMetrics;
+    }
+
+    /**
+     * Returns the inbox coalescer (per message type count of dropped obsolete messages)
+     * @return Inbox coalescer
+     */
+    public InboxCoalescer getCoalescer() {
+        return coalescer;
     }
 
     /**
-     * Enqueues a message for state machine to handle
+     * Returns count of messages not enqueued for the inbox has stayed full
+     * @return Count
+     */
+    public int getInboxOverflowsCount() {
+        return inboxOverflowsCount;
+    }
+
+    /**
+     * Returns count of messages without a handler
+     * @return Count
+     */
+    public int getUnhandledCount() {
+        return unhandledCount;
+    }
+
+    /**
+     * Returns count of skipped events (already applied)
+     * @return Count
+     */
+    public int getDuplicateEventsCount() {
+        return duplicateEventsCount;
+    }
+
+    /**
+     * Returns count of gaps in event sequence numbers
+     * @return Count
+     */
+    public int getEventGapsCount() {
+        return eventGapsCount;
+    }
+
+    /**
+     * Dispatches the message to its handler, wrapped by the interceptors
+     * @param message Message
+     */
+    private void dispatch(Message message) {
+        Handler handler = handlers[message.getType().ordinal()];
+        if (handler == null) {
+            logger.error("No Suitable Handler: " + message.serialize());
+            unhandledCount++;
+            return;
+        }
+
+        logger.trace("Handle Message");
+        for (Interceptor interceptor : interceptors) {
+            interceptor.beforeHandle(message);
+        }
+        long startNs = System.nanoTime();
+        handler.handle(message.getPayload());
+        long durationNs = System.nanoTime() - startNs;
+        for (Interceptor interceptor : interceptors) {
+            interceptor.afterHandle(message, durationNs);
+        }
+    }
+
+    /**
+     * Validates the event sequence number against the last applied one, records it as applied
+     * @param message Message
+     * @return True if the message is to be handled, false if it is an event already applied
+     */
+    private boolean isInOrder(Message message) {
+        int sequence = message.getSequence();
+        if (sequence == 0) {
+            return true;
+        }
+
+        int lastSequence = stateMachineController.getEventSequence();
+        if (sequence != 1 && sequence <= lastSequence) {
+            duplicateEventsCount++;
+            return false;
+        }
+        if (sequence != 1 && sequence != lastSequence + 1) {
+            logger.warn("Event Sequence Gap: " + lastSequence + " -> " + sequence);
+            eventGapsCount++;
+        }
+
+        stateMachineController.setEventSequence(sequence);
+        return true;
+    }
+
+    /**
+     * Returns count of messages enqueued and not taken yet
+     * @return Inbox depth
+     */
+    public int getInboxDepth() {
+        return inbox.getDepth();
+    }
+
+    /**
+     * Returns the highest count of messages enqueued and not taken yet
+     * @return Inbox high water mark
+     */
+    public int getInboxHighWaterMark() {
+        return inbox.getHighWaterMark();
+    }
+
+    /**
+     * Enqueues a message for state machine to handle, waits a while if the inbox is full
+     * Must be called by a single thread at a time (the messages manager)
      * @param message Message
+     * @return True if enqueued, false if the inbox has stayed full (overflowed)
+     * @throws InterruptedException if interrupted while waiting
      */
-    public void enqueueMessage(Message message) {
+    public boolean enqueueMessage(Message message) throws InterruptedException {
         logger.trace("Enqueue Message: " + message.serialize());
-        messages.add(message);
+        if (!inbox.offer(slot -> slot.message = message, TimeUnit.MILLISECONDS.toNanos(INBOX_FULL_TIMEOUT_MS))) {
+            logger.error("Inbox Overflow: " + message.serialize());
+            inboxOverflowsCount++;
+            return false;
+        }
+        return true;
     }
 
 }
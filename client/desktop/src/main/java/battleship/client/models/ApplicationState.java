@@ -1,7 +1,9 @@
 package battleship.client.models;
 
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
@@ -18,8 +20,10 @@ public class ApplicationState {
 
     private final StringProperty serverAddress = new SimpleStringProperty(IS_DEBUG ? "localhost" : "");
     private final StringProperty serverPort = new SimpleStringProperty(IS_DEBUG ? "50000" : "");
+    private final StringProperty connectedServer = new SimpleStringProperty("");
     private final StringProperty nickname = new SimpleStringProperty(IS_DEBUG ? "nickname" : "");
     private final StringProperty roomCode = new SimpleStringProperty(IS_DEBUG ? "7938" : "");
+    private final IntegerProperty salvoSize = new SimpleIntegerProperty(1);
 
     /**
      * Returns "index scene disable" status
@@ -61,6 +65,14 @@ public class ApplicationState {
         return serverPort;
     }
 
+    /**
+     * Returns the server connected to (one of the servers of the server address)
+     * @return Connected server (address:port, empty if not connected)
+     */
+    public StringProperty connectedServerProperty() {
+        return connectedServer;
+    }
+
     /**
      * Returns client's nickname
      * @return Client's nickname
@@ -77,6 +89,14 @@ public class ApplicationState {
         return roomCode;
     }
 
+    /**
+     * Returns shots per turn of the game (1 in a classic room, set on game begin, projected from game snapshots)
+     * @return Salvo size
+     */
+    public IntegerProperty salvoSizeProperty() {
+        return salvoSize;
+    }
+
     /**
      * Sets all controls disable status
      * @param isDisabled Boolean
@@ -93,6 +113,7 @@ public class ApplicationState {
     public void reset() {
         setControlsDisable(false);
         resetRoomCode();
+        connectedServer.set("");
     }
 
     /**
@@ -5,6 +5,7 @@ import javafx.collections.ObservableList;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,6 +22,13 @@ public class BoardState {
         INVALIDATED
     }
 
+    /**
+     * Field Position
+     * @param row Row
+     * @param col Col
+     */
+    public record Position(int row, int col) { }
+
     /** Board Size */
     public static final int SIZE = 10;
 
@@ -110,6 +118,22 @@ public class BoardState {
         return getField(row, col) == Field.INVALIDATED;
     }
 
+    /**
+     * Returns count of fields which can be guessed (neither guessed nor invalidated)
+     * @return Count
+     */
+    public int getGuessableCount() {
+        int count = 0;
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                if (!isGuess(row, col) && !isInvalidated(row, col)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
     /**
      * Sets field on (row, col)
      * @param field Field
@@ -129,6 +153,26 @@ public class BoardState {
         board.set(fieldIndex, field);
     }
 
+    /**
+     * Sets all fields (a single change of the observable list)
+     * @param fields Fields (row-major)
+     */
+    public void setFields(Field[] fields) {
+        board.setAll(fields);
+    }
+
+    /**
+     * Applies fields of a snapshot, sets the changed fields only (each one a single change of the observable list)
+     * @param fields Fields (row-major)
+     */
+    public void apply(List<Field> fields) {
+        for (int fieldIndex = 0; fieldIndex < fields.size(); fieldIndex++) {
+            if (board.get(fieldIndex) != fields.get(fieldIndex)) {
+                board.set(fieldIndex, fields.get(fieldIndex));
+            }
+        }
+    }
+
     /**
      * Returns observable list of fields
      * @return Observable list of fields
@@ -138,10 +182,10 @@ public class BoardState {
     }
 
     /**
-     * Resets board state
+     * Resets board state (a single change of the observable list)
      */
     public void reset() {
-        Collections.fill(board, Field.NONE);
+        board.setAll(Collections.nCopies(SIZE * SIZE, Field.NONE));
     }
 
     /**
@@ -154,6 +198,19 @@ public class BoardState {
         return String.format("%d%d", row, col);
     }
 
+    /**
+     * Serializes field positions (concatenated)
+     * @param positions Positions
+     * @return String
+     */
+    public static String SerializeFields(List<Position> positions) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (Position position : positions) {
+            stringBuilder.append(SerializeField(position.row(), position.col()));
+        }
+        return stringBuilder.toString();
+    }
+
     private static int getFieldIndex(int row, int col) {
         return SIZE * row + col;
     }
@@ -3,12 +3,15 @@ package battleship.client.models;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
 /**
  * Client State
+ * The board, readiness and turn are set by applying game snapshots (on the JavaFX thread)
  */
 public class ClientState {
 
@@ -19,6 +22,7 @@ public class ClientState {
     private final BooleanProperty isOnTurn = new SimpleBooleanProperty(false);
 
     private final BooleanProperty isResponding = new SimpleBooleanProperty(false);
+    private final DoubleProperty rttMs = new SimpleDoubleProperty(-1);
 
     /**
      * Return nickname
@@ -68,23 +72,30 @@ public class ClientState {
         return isResponding;
     }
 
+    /**
+     * Returns smoothed round-trip time to the server
+     * @return Smoothed RTT [ms] (-1 if not measured yet)
+     */
+    public DoubleProperty rttMsProperty() {
+        return rttMs;
+    }
+
     /**
      * Reset model
-     * (does not reset "is responding" status)
+     * (does not reset "is responding" status, the game state is reset through the game core)
      */
     public void reset() {
         nickname.set("");
-        resetExceptNickname();
     }
 
     /**
-     * Reset model except nickname
-     * (does not reset "is responding" status)
+     * Applies player's state of a game snapshot (the board, readiness and turn are projections of snapshots)
+     * @param player Player's State
      */
-    public void resetExceptNickname() {
-        boardState.reset();
-        isBoardReady.set(false);
-        isOnTurn.set(false);
+    public void apply(GameSnapshot.Player player) {
+        boardState.apply(player.board());
+        isBoardReady.set(player.isBoardReady());
+        isOnTurn.set(player.isOnTurn());
     }
 
 }
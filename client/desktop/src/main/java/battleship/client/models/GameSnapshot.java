@@ -0,0 +1,161 @@
+package battleship.client.models;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Game Snapshot
+ * Immutable state of the game (boards, readiness and turn of both players, salvo size) at a version,
+ * commands derive a new snapshot from the current one, so a snapshot can be read by any thread without locks
+ * @param version Version (incremented by each applied command which changes the state)
+ * @param salvoSize Shots per turn (1 in a classic room, set on game begin)
+ * @param client Client's state
+ * @param opponent Opponent's state
+ */
+public record GameSnapshot(long version, int salvoSize, Player client, Player opponent) {
+
+    /** Initial snapshot (no game) */
+    public static final GameSnapshot INITIAL = new GameSnapshot(0, 1, Player.INITIAL, Player.INITIAL);
+
+    /**
+     * Player's State
+     * @param board Fields (row-major, unmodifiable)
+     * @param isBoardReady Board is ready
+     * @param isOnTurn Player is on turn
+     */
+    public record Player(List<BoardState.Field> board, boolean isBoardReady, boolean isOnTurn) {
+
+        /** Initial state (empty board) */
+        public static final Player INITIAL = new Player(
+                List.copyOf(Collections.nCopies(BoardState.SIZE * BoardState.SIZE, BoardState.Field.NONE)), false, false
+        );
+
+        /**
+         * Returns field on (row, col)
+         * @param row Row
+         * @param col Col
+         * @return Field
+         */
+        public BoardState.Field getField(int row, int col) {
+            return board.get(BoardState.SIZE * row + col);
+        }
+
+        /**
+         * Returns whether (row, col) has been previously guessed
+         * @param row Row
+         * @param col Col
+         * @return Boolean
+         */
+        public boolean isGuess(int row, int col) {
+            BoardState.Field field = getField(row, col);
+            return field == BoardState.Field.HIT || field == BoardState.Field.MISS;
+        }
+
+        /**
+         * Returns whether (row, col) has been previously invalidated
+         * @param row Row
+         * @param col Col
+         * @return Boolean
+         */
+        public boolean isInvalidated(int row, int col) {
+            return getField(row, col) == BoardState.Field.INVALIDATED;
+        }
+
+        /**
+         * Returns the state with field on (row, col) set
+         * @param field Field
+         * @param row Row
+         * @param col Col
+         * @return Player's State
+         */
+        public Player withField(BoardState.Field field, int row, int col) {
+            BoardState.Field[] fields = board.toArray(BoardState.Field[]::new);
+            fields[BoardState.SIZE * row + col] = field;
+            return new Player(List.of(fields), isBoardReady, isOnTurn);
+        }
+
+        /**
+         * Returns the state with all fields set
+         * @param fields Fields (row-major)
+         * @return Player's State
+         */
+        public Player withFields(BoardState.Field[] fields) {
+            return new Player(List.of(Arrays.copyOf(fields, fields.length)), isBoardReady, isOnTurn);
+        }
+
+        /**
+         * Returns the state with "board is ready" status set
+         * @param isBoardReady Board is ready
+         * @return Player's State
+         */
+        public Player withBoardReady(boolean isBoardReady) {
+            return new Player(board, isBoardReady, isOnTurn);
+        }
+
+        /**
+         * Returns the state with "is on turn" status set
+         * @param isOnTurn Player is on turn
+         * @return Player's State
+         */
+        public Player withOnTurn(boolean isOnTurn) {
+            return new Player(board, isBoardReady, isOnTurn);
+        }
+
+        /**
+         * Returns a detached (not displayed) board state of the fields, e.g. to validate ships placement
+         * @return Board State
+         */
+        public BoardState toBoardState() {
+            BoardState boardState = new BoardState();
+            boardState.setFields(board.toArray(BoardState.Field[]::new));
+            return boardState;
+        }
+    }
+
+    /**
+     * Returns the snapshot with client's or opponent's state replaced
+     * @param isClient True for client's state, false for opponent's state
+     * @param player Player's State
+     * @return Snapshot
+     */
+    public GameSnapshot with(boolean isClient, Player player) {
+        return isClient ? new GameSnapshot(version, salvoSize, player, opponent) : new GameSnapshot(version, salvoSize, client, player);
+    }
+
+    /**
+     * Returns client's or opponent's state
+     * @param isClient True for client's state, false for opponent's state
+     * @return Player's State
+     */
+    public Player player(boolean isClient) {
+        return isClient ? client : opponent;
+    }
+
+    /**
+     * Returns the snapshot with salvo size set
+     * @param salvoSize Shots per turn
+     * @return Snapshot
+     */
+    public GameSnapshot withSalvoSize(int salvoSize) {
+        return new GameSnapshot(version, salvoSize, client, opponent);
+    }
+
+    /**
+     * Returns the snapshot with both players' states reset (e.g. on game end or leaving a room), salvo size is kept
+     * @return Snapshot
+     */
+    public GameSnapshot withPlayersReset() {
+        return new GameSnapshot(version, salvoSize, Player.INITIAL, Player.INITIAL);
+    }
+
+    /**
+     * Returns the snapshot at a version
+     * @param version Version
+     * @return Snapshot
+     */
+    public GameSnapshot withVersion(long version) {
+        return new GameSnapshot(version, salvoSize, client, opponent);
+    }
+
+}
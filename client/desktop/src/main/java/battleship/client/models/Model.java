@@ -21,10 +21,20 @@ public class Model {
 
     /**
      * Resets the application model (except client's nickname)
+     * The game state is reset through the game core
      */
     public void reset() {
         applicationState.reset();
-        clientState.resetExceptNickname();
         opponentState.reset();
     }
+
+    /**
+     * Applies a game snapshot (on the JavaFX thread)
+     * @param snapshot Snapshot
+     */
+    public void apply(GameSnapshot snapshot) {
+        applicationState.salvoSizeProperty().set(snapshot.salvoSize());
+        clientState.apply(snapshot.client());
+        opponentState.apply(snapshot.opponent());
+    }
 }
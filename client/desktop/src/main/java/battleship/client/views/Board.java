@@ -20,10 +20,13 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Board
+ * In a salvo room, fields of opponent's board are targeted by clicks first, the salvo is fired once all its shots are targeted
  */
 public class Board extends GridPane {
 
@@ -32,6 +35,9 @@ public class Board extends GridPane {
     private static final int STROKE_WIDTH = 1;
     private static final Color GRAY = Color.rgb(160, 160, 160);
     private static final Color YELLOW = Color.rgb(237, 234, 182);
+    private static final Color BLUE = Color.rgb(182, 204, 237);
+
+    private final List<BoardState.Position> salvoTargets = new ArrayList<>();
 
     /**
      * Constructs a Board
@@ -86,7 +92,15 @@ public class Board extends GridPane {
         }
 
         clientState.getBoardState().getBoard().addListener((ListChangeListener<BoardState.Field>) change -> {
-            repaint(clientState.getBoardState());
+            while (change.next()) {
+                repaint(clientState.getBoardState(), change.getFrom(), change.getTo());
+            }
+        });
+        disabledProperty().addListener((observable, wasDisabled, isDisabled) -> {
+            if (isDisabled && !salvoTargets.isEmpty()) {
+                salvoTargets.clear();
+                repaint(clientState.getBoardState());
+            }
         });
 
         setOnMouseClicked(e -> handleClick(e, applicationState, clientState.getBoardState(), controller, isClient));
@@ -120,26 +134,36 @@ public class Board extends GridPane {
     }
 
     private void repaint(BoardState boardState) {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                BoardState.Field field = boardState.getField(row, col);
-                StackPane cell = getCell(row, col);
-                Rectangle rectangle = getRectangle(cell);
-                Text text = getText(cell);
-
-                switch (field) {
-                    case NONE -> rectangle.setFill(Color.TRANSPARENT);
-                    case SHIP -> rectangle.setFill(GRAY);
-                    case HIT -> {
-                        rectangle.setFill(GRAY);
-                        rectangle.setStroke(Color.RED);
-                        text.setText("X");
-                        text.setFill(Color.RED);
-                    }
-                    case MISS, INVALIDATED -> {
-                        rectangle.setFill(YELLOW);
-                        text.setText("•");
-                    }
+        repaint(boardState, 0, BOARD_SIZE * BOARD_SIZE);
+    }
+
+    /**
+     * Repaints the changed fields only
+     * @param boardState Board State
+     * @param from Index of the first changed field
+     * @param to Index after the last changed field
+     */
+    private void repaint(BoardState boardState, int from, int to) {
+        for (int fieldIndex = from; fieldIndex < to; fieldIndex++) {
+            int row = fieldIndex / BOARD_SIZE;
+            int col = fieldIndex % BOARD_SIZE;
+            BoardState.Field field = boardState.getField(row, col);
+            StackPane cell = getCell(row, col);
+            Rectangle rectangle = getRectangle(cell);
+            Text text = getText(cell);
+
+            switch (field) {
+                case NONE -> rectangle.setFill(salvoTargets.contains(new BoardState.Position(row, col)) ? BLUE : Color.TRANSPARENT);
+                case SHIP -> rectangle.setFill(GRAY);
+                case HIT -> {
+                    rectangle.setFill(GRAY);
+                    rectangle.setStroke(Color.RED);
+                    text.setText("X");
+                    text.setFill(Color.RED);
+                }
+                case MISS, INVALIDATED -> {
+                    rectangle.setFill(YELLOW);
+                    text.setText("•");
                 }
             }
         }
@@ -154,14 +178,61 @@ public class Board extends GridPane {
         }
 
         if (client) {
-            if (!boardState.isShip(row, col)) {
-                boardState.setField(BoardState.Field.SHIP, row, col);
-            } else {
-                boardState.setField(BoardState.Field.NONE, row, col);
-            }
-        } else {
+            controller.toggleShip(row, col);
+        } else if (applicationState.salvoSizeProperty().get() == 1) {
             handleTurn(row, col, applicationState, controller);
+        } else {
+            handleSalvoTarget(row, col, applicationState, boardState, controller);
+        }
+    }
+
+    private void handleSalvoTarget(int row, int col, ApplicationState applicationState, BoardState boardState, Controller controller) {
+        if (boardState.isGuess(row, col) || boardState.isInvalidated(row, col)) {
+            handleIllegalTurn(controller.getStageManager());
+            return;
+        }
+
+        BoardState.Position position = new BoardState.Position(row, col);
+        if (!salvoTargets.remove(position)) {
+            salvoTargets.add(position);
+        }
+
+        // The last salvo of a game may have less shots than fields left
+        int shotsCnt = Math.min(applicationState.salvoSizeProperty().get(), boardState.getGuessableCount());
+        if (salvoTargets.size() < shotsCnt) {
+            repaint(boardState);
+            return;
         }
+
+        List<BoardState.Position> positions = List.copyOf(salvoTargets);
+        salvoTargets.clear();
+        repaint(boardState);
+        handleSalvo(positions, applicationState, controller);
+    }
+
+    private void handleSalvo(List<BoardState.Position> positions, ApplicationState applicationState, Controller controller) {
+        applicationState.roomDisableProperty().set(true);
+
+        CompletableFuture<Void> future = controller.salvo(positions);
+        future.whenCompleteAsync((value, exception) -> {
+            if (exception == null) {
+                applicationState.roomDisableProperty().set(false);
+                return;
+            }
+
+            StageManager stageManager = controller.getStageManager();
+            try {
+                throw exception;
+            }
+            catch (IllegalArgumentException e) {
+                handleIllegalTurn(stageManager);
+            }
+            catch (Throwable e) {
+                //
+            }
+
+            applicationState.roomDisableProperty().set(false);
+        });
     }
 
     private void handleTurn(int row, int col, ApplicationState applicationState, Controller controller) {
@@ -28,10 +28,14 @@ public class StageManager {
     private static final int MIN_WIDTH = 800;
     private static final int MIN_HEIGHT = 600;
 
+    /** Key of scene updates (a later scene supersedes a pending one) */
+    private static final Object SCENE_KEY = new Object();
+
     private Stage stage;
 
     private final Model model = new Model();
     private final Controller controller = new Controller(model);
+    private final UpdateBatcher updateBatcher = new UpdateBatcher(Platform::runLater);
 
     /**
      * Constructs a Stage Manager
@@ -68,11 +72,28 @@ public class StageManager {
     }
 
     /**
-     * Sets a JavaFX request to set scene
+     * Sets a JavaFX request to set scene (batched, supersedes a pending scene)
      * @param scene Scene
      */
     public void setSceneLater(Scene scene) {
-        Platform.runLater(() -> setScene(scene));
+        updateBatcher.submit(SCENE_KEY, () -> setScene(scene));
+    }
+
+    /**
+     * Sets a JavaFX request to update the model (batched, supersedes a pending update with the same key)
+     * @param key Key of what the update sets (e.g. a property, or the game core for its snapshots)
+     * @param update Update
+     */
+    public void updateLater(Object key, Runnable update) {
+        updateBatcher.submit(key, update);
+    }
+
+    /**
+     * Sets a JavaFX request to update the model (batched, never superseded)
+     * @param update Update
+     */
+    public void updateLater(Runnable update) {
+        updateBatcher.submit(update);
     }
 
     /**
@@ -97,13 +118,21 @@ public class StageManager {
     }
 
     /**
-     * Sets a JavaFX request to show an alert
+     * Sets a JavaFX request to show an alert (batched, shown after the other updates of the batch)
      * @param type Alert Type
      * @param header Header message
      * @param content Content message
      */
     public void showAlertLater(Alert.AlertType type, String header, String content) {
-        Platform.runLater(() -> showAlert(type, header, content));
+        updateBatcher.submitDeferred(() -> showAlert(type, header, content));
+    }
+
+    /**
+     * Returns the batcher of JavaFX requests
+     * @return Update Batcher
+     */
+    public UpdateBatcher getUpdateBatcher() {
+        return updateBatcher;
     }
 
     /**
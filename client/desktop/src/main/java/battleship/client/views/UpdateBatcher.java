@@ -0,0 +1,141 @@
+package battleship.client.views;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Update Batcher
+ * Accumulates updates (of the model and the stage) submitted off the FX thread and applies them in a single FX runnable,
+ * at most one is pending at a time, so a burst of network events costs one reconcile on the FX thread
+ * An update superseded by a later update with the same key (e.g. the same property or board field) is dropped,
+ * the later one keeps its own (later) position, updates are otherwise applied in the order of submission
+ * Deferred updates (e.g. modal alerts, they block) are applied after all the other updates of the batch
+ */
+public class UpdateBatcher {
+
+    private final Executor fxExecutor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<Object, Runnable> updates = new LinkedHashMap<>();
+    private List<Runnable> deferredUpdates = new ArrayList<>();
+    private boolean isScheduled = false;
+
+    private volatile long submittedCount = 0;
+    private volatile long appliedCount = 0;
+    private volatile long batchesCount = 0;
+
+    /**
+     * Constructs an update batcher
+     * @param fxExecutor Executor of the FX thread (Platform::runLater)
+     */
+    public UpdateBatcher(Executor fxExecutor) {
+        this.fxExecutor = fxExecutor;
+    }
+
+    /**
+     * Submits an update, supersedes a pending update with the same key
+     * @param key Key of what the update sets
+     * @param update Update
+     */
+    public void submit(Object key, Runnable update) {
+        lock.lock();
+        try {
+            updates.remove(key);
+            updates.put(key, update);
+            submittedCount++;
+            schedule();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Submits an update which is never superseded
+     * @param update Update
+     */
+    public void submit(Runnable update) {
+        submit(new Object(), update);
+    }
+
+    /**
+     * Submits an update applied after the other updates of the batch (never superseded)
+     * @param update Update
+     */
+    public void submitDeferred(Runnable update) {
+        lock.lock();
+        try {
+            deferredUpdates.add(update);
+            submittedCount++;
+            schedule();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns count of submitted updates
+     * @return Count
+     */
+    public long getSubmittedCount() {
+        return submittedCount;
+    }
+
+    /**
+     * Returns count of applied updates (submitted ones minus superseded and pending ones)
+     * @return Count
+     */
+    public long getAppliedCount() {
+        return appliedCount;
+    }
+
+    /**
+     * Returns count of applied batches (FX runnables)
+     * @return Count
+     */
+    public long getBatchesCount() {
+        return batchesCount;
+    }
+
+    private void schedule() {
+        if (!isScheduled) {
+            isScheduled = true;
+            fxExecutor.execute(this::apply);
+        }
+    }
+
+    /**
+     * Applies the pending updates (on the FX thread)
+     * The batch is taken at once, updates submitted meanwhile (e.g. while an alert is shown) form the next batch
+     */
+    private void apply() {
+        Map<Object, Runnable> updates_;
+        List<Runnable> deferredUpdates_;
+        lock.lock();
+        try {
+            updates_ = updates;
+            deferredUpdates_ = deferredUpdates;
+            updates = new LinkedHashMap<>();
+            deferredUpdates = new ArrayList<>();
+            isScheduled = false;
+            appliedCount += updates_.size() + deferredUpdates_.size();
+            batchesCount++;
+        }
+        finally {
+            lock.unlock();
+        }
+
+        for (Runnable update : updates_.values()) {
+            update.run();
+        }
+        for (Runnable update : deferredUpdates_) {
+            update.run();
+        }
+    }
+
+}
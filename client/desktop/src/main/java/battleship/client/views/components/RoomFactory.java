@@ -169,7 +169,7 @@ public class RoomFactory {
         ApplicationState applicationState = model.applicationState;
         applicationState.roomDisableProperty().set(true);
 
-        CompletableFuture<Void> future = controller.boardReady(model.clientState.getBoardState());
+        CompletableFuture<Void> future = controller.boardReady();
         future.whenCompleteAsync((value, exception) -> {
             if (exception == null) {
                 applicationState.roomDisableProperty().set(false);
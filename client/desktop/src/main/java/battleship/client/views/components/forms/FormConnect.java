@@ -37,7 +37,7 @@ public class FormConnect extends VBox {
         setMaxWidth(MAX_WIDTH);
         setAlignment(Pos.CENTER);
 
-        FormInputField fieldAddress = FormFactory.getBidirectionallyBoundFormInputField("Server Address", applicationState.serverAddressProperty());
+        FormInputField fieldAddress = FormFactory.getBidirectionallyBoundFormInputField("Server Address(es)", applicationState.serverAddressProperty());
         fieldAddress.disableProperty().bind(applicationState.indexDisableProperty());
 
         FormInputField fieldPort = FormFactory.getBidirectionallyBoundFormInputField("Server Port", applicationState.serverPortProperty());
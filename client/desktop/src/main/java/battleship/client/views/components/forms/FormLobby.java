@@ -58,12 +58,16 @@ public class FormLobby extends HBox {
     private VBox constructFormCreate(ApplicationState applicationState, Controller controller) {
         VBox vBox = new VBox();
         vBox.setMinWidth(ITEM_MAX_WIDTH);
+        vBox.setSpacing(FormFactory.SPACING);
         vBox.setAlignment(Pos.CENTER);
 
-        Button button = FormFactory.getButton("Create Room", (e) -> handleButtonCreateRoom(applicationState, controller));
+        Button button = FormFactory.getButton("Create Room", (e) -> handleButtonCreateRoom(applicationState, controller, false));
         button.disableProperty().bind(applicationState.lobbyDisableProperty());
 
-        vBox.getChildren().add(button);
+        Button buttonSalvo = FormFactory.getButton("Create Salvo Room", (e) -> handleButtonCreateRoom(applicationState, controller, true));
+        buttonSalvo.disableProperty().bind(applicationState.lobbyDisableProperty());
+
+        vBox.getChildren().addAll(button, buttonSalvo);
         return vBox;
     }
 
@@ -99,10 +103,10 @@ public class FormLobby extends HBox {
         });
     }
 
-    private void handleButtonCreateRoom(ApplicationState applicationState, Controller controller) {
+    private void handleButtonCreateRoom(ApplicationState applicationState, Controller controller, boolean isSalvo) {
         applicationState.lobbyDisableProperty().set(true);
 
-        CompletableFuture<Void> future = controller.createRoom();
+        CompletableFuture<Void> future = controller.createRoom(isSalvo);
         future.whenCompleteAsync((value, exception) -> {
             if (exception == null) {
                 controller.getStageManager().setSceneLater(StageManager.Scene.Room);
@@ -2,6 +2,7 @@ package battleship.client.views.components.status;
 
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.StringProperty;
 import javafx.scene.layout.FlowPane;
 import javafx.scene.text.Text;
@@ -15,25 +16,29 @@ public class ServerStatus extends FlowPane {
      * Constructs a Server Status
      * @param address Server address
      * @param isResponding Server is responding / Client is connected
+     * @param rttMs Smoothed round-trip time to the server [ms] (negative if not measured)
      */
-    public ServerStatus(StringProperty address, BooleanProperty isResponding) {
-        construct(address, isResponding);
+    public ServerStatus(StringProperty address, BooleanProperty isResponding, DoubleProperty rttMs) {
+        construct(address, isResponding, rttMs);
     }
 
-    private void construct(StringProperty address, BooleanProperty isResponding) {
+    private void construct(StringProperty address, BooleanProperty isResponding, DoubleProperty rttMs) {
         Text text = new Text();
         text.textProperty().bind(
                 Bindings.createStringBinding(
-                        () -> getDescription(address, isResponding),
-                        address, isResponding
+                        () -> getDescription(address, isResponding, rttMs),
+                        address, isResponding, rttMs
                 )
         );
         getChildren().add(text);
     }
 
-    private String getDescription(StringProperty address, BooleanProperty isResponding) {
+    private String getDescription(StringProperty address, BooleanProperty isResponding, DoubleProperty rttMs) {
         String status = isResponding.get() ? "OK" : "Reconnecting";
-        return String.format("Server: %s (%s)", status, address.get());
+        if (rttMs.get() < 0) {
+            return String.format("Server: %s (%s)", status, address.get());
+        }
+        return String.format("Server: %s (%s, RTT %.1f ms)", status, address.get(), rttMs.get());
     }
 
 }
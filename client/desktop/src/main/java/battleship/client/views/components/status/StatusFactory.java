@@ -2,6 +2,7 @@ package battleship.client.views.components.status;
 
 import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.StringProperty;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -18,10 +19,11 @@ public class StatusFactory {
      * Constructs a server status
      * @param address Server address
      * @param isResponding Server is responding / Client is connected
+     * @param rttMs Smoothed round-trip time to the server [ms]
      * @return Server Status
      */
-    public static ServerStatus getServerStatus(StringProperty address, BooleanProperty isResponding) {
-        ServerStatus serverStatus = new ServerStatus(address, isResponding);
+    public static ServerStatus getServerStatus(StringProperty address, BooleanProperty isResponding, DoubleProperty rttMs) {
+        ServerStatus serverStatus = new ServerStatus(address, isResponding, rttMs);
         serverStatus.setAlignment(Pos.CENTER_LEFT);
         serverStatus.setPadding(new Insets(PADDING));
         serverStatus.setMaxWidth(MAX_WIDTH);
@@ -31,7 +31,7 @@ public class Lobby extends BorderPane {
         vBox.setAlignment(Pos.CENTER);
         setTop(new MenuBar());
         setCenter(vBox);
-        setBottom(StatusFactory.getServerStatus(applicationState.serverAddressProperty(), model.clientState.isRespondingProperty()));
+        setBottom(StatusFactory.getServerStatus(applicationState.connectedServerProperty(), model.clientState.isRespondingProperty(), model.clientState.rttMsProperty()));
     }
 
 }
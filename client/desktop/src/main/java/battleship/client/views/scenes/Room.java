@@ -36,7 +36,7 @@ public class Room extends BorderPane {
 
     private BorderPane constructBottom(Model model) {
         BorderPane borderPane = new BorderPane();
-        borderPane.setLeft(StatusFactory.getServerStatus(model.applicationState.serverAddressProperty(), model.clientState.isRespondingProperty()));
+        borderPane.setLeft(StatusFactory.getServerStatus(model.applicationState.connectedServerProperty(), model.clientState.isRespondingProperty(), model.clientState.rttMsProperty()));
         borderPane.setRight(StatusFactory.getOpponentStatus(model.opponentState.isInRoomBinding(), model.opponentState.isRespondingProperty()));
         return borderPane;
     }
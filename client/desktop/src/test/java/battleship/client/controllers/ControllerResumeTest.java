@@ -0,0 +1,243 @@
+package battleship.client.controllers;
+
+import battleship.client.controllers.transport.Connection;
+import battleship.client.controllers.transport.MemoryTransport;
+import battleship.client.controllers.workers.ReconnectEngine;
+import battleship.client.models.Model;
+import battleship.client.views.StageManager;
+import javafx.scene.control.Alert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Controller Resume Test
+ * Session restored after the connection drops, against a scripted server on the memory transport:
+ * resume token accepted, rejected (the server still holds the session by the nickname) and expired (the session is gone),
+ * events replayed from the last applied one of the room
+ */
+class ControllerResumeTest {
+
+    private static final String SERVER = "resume-test";
+    private static final String NICKNAME = "player";
+    private static final long TIMEOUT_MS = 10_000;
+
+    /**
+     * Stage manager recording scenes and alerts, model updates are applied at once (there is no JavaFX thread)
+     */
+    private static final class RecordingStageManager extends StageManager {
+
+        private final List<StageManager.Scene> scenes = new CopyOnWriteArrayList<>();
+        private final List<String> alerts = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void setSceneLater(StageManager.Scene scene) {
+            scenes.add(scene);
+        }
+
+        @Override
+        public void updateLater(Object key, Runnable update) {
+            update.run();
+        }
+
+        @Override
+        public void updateLater(Runnable update) {
+            update.run();
+        }
+
+        @Override
+        public void showAlertLater(Alert.AlertType type, String header, String content) {
+            alerts.add(header);
+        }
+    }
+
+    /**
+     * Server side of a connection, text frames as lines
+     */
+    private static final class ServerConnection {
+
+        private final Connection connection;
+        private final BufferedReader reader;
+        private final OutputStream outputStream;
+
+        private ServerConnection(Connection connection) {
+            this.connection = connection;
+            this.reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(connection.getReadChannel()), StandardCharsets.UTF_8));
+            this.outputStream = Channels.newOutputStream(connection.getWriteChannel());
+        }
+
+        private void send(String frame) throws IOException {
+            outputStream.write((frame + "\n").getBytes(StandardCharsets.UTF_8));
+            outputStream.flush();
+        }
+
+        /**
+         * Receives a frame (skips keep alive messages)
+         */
+        private String receive() throws IOException {
+            for (;;) {
+                String frame = reader.readLine();
+                if (frame == null) {
+                    throw new IOException("EOF");
+                }
+                if (!frame.startsWith("KEEP_ALIVE")) {
+                    return frame;
+                }
+            }
+        }
+
+        /**
+         * Welcomes the client and accepts sequenced events only (the framing stays text)
+         */
+        private void welcome() throws IOException {
+            send("WELCOME|bserver|test|test|test");
+            assertTrue(receive().startsWith("CAPABILITIES|"));
+            send("CAPABILITIES|SEQUENCE");
+        }
+    }
+
+    private final BlockingQueue<Connection> connections = new LinkedBlockingQueue<>();
+    private final RecordingStageManager stageManager = new RecordingStageManager();
+    private final Model model = new Model();
+    private final Controller controller = new Controller(model);
+
+    @AfterEach
+    void tearDown() {
+        MemoryTransport.unregister(SERVER);
+        controller.cancelReconnect();
+        Connection connection;
+        while ((connection = connections.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Connects the client, issues the resume token, then drops the connection
+     * @return Server side of the reconnection (welcomed)
+     */
+    private ServerConnection connectAndDrop() throws Exception {
+        return connectAndDrop(() -> true);
+    }
+
+    /**
+     * Connects the client, issues the resume token, sends the room events, then drops the connection
+     * @param isApplied Condition met once the events are applied
+     * @param events Room events (sequenced frames) sent before the drop
+     * @return Server side of the reconnection (welcomed)
+     */
+    private ServerConnection connectAndDrop(BooleanSupplier isApplied, String... events) throws Exception {
+        MemoryTransport.register(SERVER, connections::add);
+        controller.setStageManager(stageManager);
+
+        CompletableFuture<Void> connectFuture = controller.connect(MemoryTransport.SCHEME + SERVER, "0", NICKNAME);
+        ServerConnection first = new ServerConnection(connections.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        first.welcome();
+        assertEquals("NICKNAME_SET|" + NICKNAME, first.receive());
+        first.send("ACK");
+        connectFuture.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        first.send("RESUME_TOKEN|token1");
+        awaitCondition(() -> controller.getResumeState().getToken().equals("token1"));
+        for (String event : events) {
+            first.send(event);
+        }
+        awaitCondition(isApplied);
+        first.connection.close();
+
+        ServerConnection second = new ServerConnection(connections.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        second.welcome();
+        return second;
+    }
+
+    private void awaitReconnected() throws InterruptedException {
+        awaitCondition(() -> controller.getReconnectEngine().getReconnectsCount() == 1
+                && controller.getReconnectEngine().getState() == ReconnectEngine.State.IDLE);
+        assertTrue(model.clientState.isRespondingProperty().get());
+        assertEquals(0, controller.getReconnectEngine().getFailuresCount());
+        assertEquals(List.of(), stageManager.alerts);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadlineMs = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadlineMs, "Condition Not Met In Time");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void resumesAcceptedToken() throws Exception {
+        ServerConnection server = connectAndDrop();
+
+        assertEquals("RESUME|token1|0", server.receive());
+        server.send("RESUMED");
+        server.send("RESUME_TOKEN|token2");
+
+        awaitReconnected();
+        awaitCondition(() -> controller.getResumeState().getToken().equals("token2"));
+        // resumed session keeps the scene, nickname is not set again
+        assertEquals(List.of(StageManager.Scene.Lobby), stageManager.scenes);
+    }
+
+    @Test
+    void setsNicknameOnRejectedToken() throws Exception {
+        ServerConnection server = connectAndDrop();
+
+        assertEquals("RESUME|token1|0", server.receive());
+        server.send("RESUME_REJECTED");
+        assertEquals("NICKNAME_SET|" + NICKNAME, server.receive());
+        server.send("REJOIN|ROOM|1234");
+
+        awaitReconnected();
+        assertEquals("", controller.getResumeState().getToken());
+        assertEquals("1234", model.applicationState.roomCodeProperty().get());
+        assertEquals(List.of(StageManager.Scene.Lobby, StageManager.Scene.Room), stageManager.scenes);
+    }
+
+    @Test
+    void returnsToLobbyOnExpiredToken() throws Exception {
+        ServerConnection server = connectAndDrop();
+
+        assertEquals("RESUME|token1|0", server.receive());
+        server.send("RESUME_REJECTED");
+        assertEquals("NICKNAME_SET|" + NICKNAME, server.receive());
+        server.send("ACK");
+
+        awaitReconnected();
+        assertEquals("", controller.getResumeState().getToken());
+        assertEquals(List.of(StageManager.Scene.Lobby, StageManager.Scene.Lobby), stageManager.scenes);
+    }
+
+    @Test
+    void resumesFromLastAppliedEvent() throws Exception {
+        ServerConnection server = connectAndDrop(() -> controller.getResumeState().getEventSequence() == 2,
+                "OPPONENT_BOARD_READY#1", "OPPONENT_BOARD_READY#2");
+
+        assertEquals("RESUME|token1|2", server.receive());
+    }
+
+    @Test
+    void resumesFromRoomStartAfterOpponentLeft() throws Exception {
+        ServerConnection server = connectAndDrop(() -> stageManager.alerts.contains("Opponent Left Room"),
+                "OPPONENT_BOARD_READY#1", "OPPONENT_ROOM_LEAVE#2");
+
+        // events of the next room are numbered from 1, none of the left one is replayed
+        assertEquals("RESUME|token1|0", server.receive());
+    }
+}
@@ -0,0 +1,212 @@
+package battleship.client.controllers.messages;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Binary Codec Test
+ * Round trips of each parameter tag, sequenced events and the u16 frame length limit,
+ * frames are laid out as the server's binary serialization (Message::Serialize_Binary) produces them
+ */
+class BinaryCodecTest {
+
+    private static final byte TAG_STRING = 0;
+    private static final byte TAG_TOKEN = 1;
+    private static final byte TAG_TWO_DIGITS = 2;
+
+    /** Overhead of a single string parameter frame body (type code, parameters count, tag, u16 length) */
+    private static final int STRING_BODY_OVERHEAD = 5;
+
+    private static byte[] encode(Message message) {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.HEADER_SIZE + BinaryCodec.MAX_BODY_SIZE);
+        BinaryCodec.encode(message, buffer);
+
+        byte[] frame = new byte[buffer.position()];
+        buffer.flip().get(frame);
+        return frame;
+    }
+
+    private static Message roundTrip(Message message) {
+        byte[] frame = encode(message);
+        int bodyLength = BinaryCodec.decodeBodyLength(frame, 0);
+        assertEquals(frame.length - BinaryCodec.HEADER_SIZE, bodyLength);
+        return BinaryCodec.decode(frame, BinaryCodec.HEADER_SIZE, bodyLength);
+    }
+
+    private static Message decodeBody(int... body) {
+        byte[] frame = new byte[body.length];
+        for (int i = 0; i < body.length; i++) {
+            frame[i] = (byte) body[i];
+        }
+        return BinaryCodec.decode(frame, 0, frame.length);
+    }
+
+    private static void assertParameters(Message message, String... parameters) {
+        assertEquals(parameters.length, message.getParametersCnt());
+        for (int i = 0; i < parameters.length; i++) {
+            assertEquals(parameters[i], message.getParameter(i));
+        }
+    }
+
+    @Test
+    void encodesTokenTag() {
+        byte[] frame = encode(new Message(Message.Type.TURN_SET, "OPPONENT"));
+
+        assertArrayEquals(new byte[] {0, 4, (byte) Message.Type.TURN_SET.ordinal(), 1, TAG_TOKEN, 1}, frame);
+    }
+
+    @Test
+    void roundTripsTokenTag() {
+        Message message = roundTrip(new Message(Message.Type.TURN_SET, "YOU"));
+
+        assertEquals(Message.Type.TURN_SET, message.getType());
+        assertParameters(message, "YOU");
+        assertEquals(new Payload.TurnSet(true), message.getPayload());
+    }
+
+    @Test
+    void decodesTokensToSharedStrings() {
+        Message first = roundTrip(new Message(Message.Type.OPPONENT_NO_RESPONSE, "LONG"));
+        Message second = roundTrip(new Message(Message.Type.OPPONENT_NO_RESPONSE, "LONG"));
+
+        assertSame(first.getParameter(0), second.getParameter(0));
+    }
+
+    @Test
+    void encodesTwoDigitsTag() {
+        byte[] frame = encode(new Message(Message.Type.OPPONENT_TURN, "07", "MISS"));
+
+        assertArrayEquals(new byte[] {0, 6, (byte) Message.Type.OPPONENT_TURN.ordinal(), 2, TAG_TWO_DIGITS, 7, TAG_TOKEN, 3}, frame);
+    }
+
+    @Test
+    void roundTripsTwoDigitsTag() {
+        for (int value = 0; value < 100; value++) {
+            String field = String.format("%02d", value);
+            Message message = roundTrip(new Message(Message.Type.OPPONENT_TURN, field, "HIT"));
+
+            assertParameters(message, field, "HIT");
+            assertEquals(new Payload.OpponentTurn(value / 10, value % 10, true), message.getPayload());
+        }
+    }
+
+    @Test
+    void roundTripsStringTag() {
+        Message message = roundTrip(new Message(Message.Type.OPPONENT_NICKNAME_SET, "pla|yer\\ž"));
+
+        assertParameters(message, "pla|yer\\ž");
+    }
+
+    @Test
+    void keepsDigitsOtherThanTwoAsStrings() {
+        byte[] frame = encode(new Message(Message.Type.LIMIT_ROOMS, "100"));
+
+        assertEquals(TAG_STRING, frame[BinaryCodec.HEADER_SIZE + 2]);
+        assertParameters(roundTrip(new Message(Message.Type.LIMIT_ROOMS, "100")), "100");
+        assertParameters(roundTrip(new Message(Message.Type.LIMIT_ROOMS, "5")), "5");
+    }
+
+    @Test
+    void roundTripsMixedTags() {
+        Message message = roundTrip(new Message(Message.Type.SERVER_LOAD, "12", "100", "03", "50", "NONE"));
+
+        assertParameters(message, "12", "100", "03", "50", "NONE");
+        assertEquals(new Payload.ServerLoad(12, 100, 3, 50, ""), message.getPayload());
+    }
+
+    @Test
+    void roundTripsEmptyString() {
+        assertParameters(roundTrip(new Message(Message.Type.OPPONENT_NICKNAME_SET, "")), "");
+    }
+
+    @Test
+    void roundTripsParameterless() {
+        Message message = roundTrip(new Message(Message.Type.OPPONENT_BOARD_READY));
+
+        assertEquals(Message.Type.OPPONENT_BOARD_READY, message.getType());
+        assertEquals(0, message.getParametersCnt());
+        assertEquals(0, message.getSequence());
+    }
+
+    @Test
+    void decodesSequenceFlag() {
+        int typeCode = Message.Type.OPPONENT_TURN.ordinal() | 0x80;
+        Message message = decodeBody(typeCode, 0x01, 0x02, 0x03, 0x04, 2, TAG_TWO_DIGITS, 37, TAG_TOKEN, 2);
+
+        assertEquals(Message.Type.OPPONENT_TURN, message.getType());
+        assertEquals(0x01020304, message.getSequence());
+        assertEquals(new Payload.OpponentTurn(3, 7, true), message.getPayload());
+    }
+
+    @Test
+    void decodesSequenceFlagOfParameterless() {
+        Message message = decodeBody(Message.Type.OPPONENT_BOARD_READY.ordinal() | 0x80, 0, 0, 0, 9, 0);
+
+        assertEquals(Message.Type.OPPONENT_BOARD_READY, message.getType());
+        assertEquals(9, message.getSequence());
+    }
+
+    @Test
+    void decodesWithoutSequenceFlag() {
+        Message message = decodeBody(Message.Type.TURN_SET.ordinal(), 1, TAG_TOKEN, 0);
+
+        assertEquals(0, message.getSequence());
+        assertParameters(message, "YOU");
+    }
+
+    @Test
+    void encodesMaxBodyLength() {
+        int stringLength = BinaryCodec.MAX_BODY_SIZE - STRING_BODY_OVERHEAD;
+        String nickname = "n".repeat(stringLength);
+        byte[] frame = encode(new Message(Message.Type.OPPONENT_NICKNAME_SET, nickname));
+
+        assertEquals(0xFF, frame[0] & 0xFF);
+        assertEquals(0xFF, frame[1] & 0xFF);
+        assertEquals(BinaryCodec.MAX_BODY_SIZE, BinaryCodec.decodeBodyLength(frame, 0));
+        assertParameters(BinaryCodec.decode(frame, BinaryCodec.HEADER_SIZE, BinaryCodec.MAX_BODY_SIZE), nickname);
+    }
+
+    @Test
+    void rejectsBodyOverMaxLength() {
+        String nickname = "n".repeat(BinaryCodec.MAX_BODY_SIZE - STRING_BODY_OVERHEAD + 1);
+
+        assertThrows(BufferOverflowException.class, () -> encode(new Message(Message.Type.OPPONENT_NICKNAME_SET, nickname)));
+        assertThrows(BufferOverflowException.class, () -> encode(new Message(Message.Type.OPPONENT_NICKNAME_SET, "n".repeat(0x10000))));
+    }
+
+    @Test
+    void rejectsTooManyParameters() {
+        Object[] parameters = new Object[0x100];
+        Arrays.fill(parameters, "YOU");
+
+        assertThrows(BufferOverflowException.class, () -> encode(new Message(Message.Type.TURN_SET, parameters)));
+    }
+
+    @Test
+    void rejectsMalformedBody() {
+        int turnSet = Message.Type.TURN_SET.ordinal();
+
+        assertThrows(RuntimeException.class, () -> decodeBody(0x7F, 0));
+        assertThrows(RuntimeException.class, () -> decodeBody(turnSet, 1, 3, 0));
+        assertThrows(RuntimeException.class, () -> decodeBody(turnSet, 1, TAG_TOKEN, 11));
+        assertThrows(RuntimeException.class, () -> decodeBody(turnSet, 1, TAG_TWO_DIGITS, 100));
+        assertThrows(RuntimeException.class, () -> decodeBody(turnSet, 1, TAG_STRING, 0, 4, 'Y', 'O', 'U'));
+        assertThrows(RuntimeException.class, () -> decodeBody(turnSet, 1, TAG_TOKEN));
+        assertThrows(RuntimeException.class, () -> decodeBody(turnSet, 1, TAG_TOKEN, 0, 0));
+        assertThrows(RuntimeException.class, () -> decodeBody(turnSet | 0x80, 0, 0));
+    }
+
+    @Test
+    void rejectsUnexpectedParametersCount() {
+        assertThrows(RuntimeException.class, () -> decodeBody(Message.Type.TURN_SET.ordinal(), 2, TAG_TOKEN, 0, TAG_TOKEN, 0));
+        assertThrows(RuntimeException.class, () -> decodeBody(Message.Type.TURN.ordinal(), 1, TAG_TWO_DIGITS, 0));
+    }
+}
@@ -0,0 +1,210 @@
+package battleship.client.controllers.messages;
+
+import battleship.client.controllers.transport.Connection;
+import battleship.client.controllers.transport.MemoryTransport;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Channel Communicator Test
+ * Text framing over reads split at arbitrary bytes (escapes, delimiters, UTF-8 sequences), round trip over the memory transport
+ */
+class ChannelCommunicatorTest {
+
+    /**
+     * Connection whose read channel returns the scripted chunks, one per read, then EOF
+     */
+    private static final class ChunkedConnection implements Connection {
+
+        private final Deque<byte[]> chunks = new ArrayDeque<>();
+        private final WritableByteChannel writeChannel = Channels.newChannel(OutputStream.nullOutputStream());
+
+        private ChunkedConnection(byte[]... chunks) {
+            this.chunks.addAll(Arrays.asList(chunks));
+        }
+
+        @Override
+        public ReadableByteChannel getReadChannel() {
+            return new ReadableByteChannel() {
+                @Override
+                public int read(ByteBuffer buffer) {
+                    byte[] chunk = chunks.poll();
+                    if (chunk == null) {
+                        return -1;
+                    }
+                    // at most the free space, as a channel does, the rest is read next
+                    int count = Math.min(chunk.length, buffer.remaining());
+                    buffer.put(chunk, 0, count);
+                    if (count < chunk.length) {
+                        chunks.addFirst(Arrays.copyOfRange(chunk, count, chunk.length));
+                    }
+                    return count;
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return true;
+                }
+
+                @Override
+                public void close() {
+                    //
+                }
+            };
+        }
+
+        @Override
+        public WritableByteChannel getWriteChannel() {
+            return writeChannel;
+        }
+
+        @Override
+        public void close() {
+            //
+        }
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Splits the bytes to single byte chunks
+     */
+    private static byte[][] singleBytes(String string) {
+        byte[] bytes = bytes(string);
+        byte[][] chunks = new byte[bytes.length][];
+        for (int i = 0; i < bytes.length; i++) {
+            chunks[i] = new byte[] { bytes[i] };
+        }
+        return chunks;
+    }
+
+    private static ChannelCommunicator communicator(Connection connection) {
+        return new ChannelCommunicator(connection, Thread::new);
+    }
+
+    @Test
+    void receivesFrameReadByteByByte() throws IOException {
+        ChannelCommunicator communicator = communicator(new ChunkedConnection(singleBytes("OPPONENT_TURN|34|HIT\n")));
+
+        assertEquals(new Payload.OpponentTurn(3, 4, true), communicator.receive().getPayload());
+        communicator.close();
+    }
+
+    @Test
+    void receivesSeveralFramesOfSingleRead() throws IOException {
+        ChannelCommunicator communicator = communicator(new ChunkedConnection(bytes("OPPONENT_TURN|00|MISS\nOPPONENT_TURN|99|HIT\n")));
+
+        assertEquals(new Payload.OpponentTurn(0, 0, false), communicator.receive().getPayload());
+        assertEquals(new Payload.OpponentTurn(9, 9, true), communicator.receive().getPayload());
+        communicator.close();
+    }
+
+    @Test
+    void receivesFrameWithDelimiterSplitFromItsBody() throws IOException {
+        ChannelCommunicator communicator = communicator(new ChunkedConnection(bytes("OPPONENT_NICKNAME_SET|ab"), bytes("\nOPPONENT_NICKNAME_SET|c"), bytes("d"), bytes("\n")));
+
+        assertEquals(new Payload.OpponentNicknameSet("ab"), communicator.receive().getPayload());
+        assertEquals(new Payload.OpponentNicknameSet("cd"), communicator.receive().getPayload());
+        communicator.close();
+    }
+
+    @Test
+    void receivesEscapedDelimiterSplitAfterEscapeCharacter() throws IOException {
+        ChannelCommunicator communicator = communicator(new ChunkedConnection(bytes("OPPONENT_NICKNAME_SET|a\\"), bytes("\nb\n")));
+
+        assertEquals(new Payload.OpponentNicknameSet("a\nb"), communicator.receive().getPayload());
+        communicator.close();
+    }
+
+    @Test
+    void receivesEscapedEscapeCharacterSplitAfterEscapeCharacter() throws IOException {
+        // framing unescapes \\ to \, which escapes the parameter delimiter on the message level
+        ChannelCommunicator communicator = communicator(new ChunkedConnection(bytes("OPPONENT_NICKNAME_SET|a\\"), bytes("\\|b\n")));
+
+        assertEquals(new Payload.OpponentNicknameSet("a|b"), communicator.receive().getPayload());
+        communicator.close();
+    }
+
+    @Test
+    void receivesMultiByteCharacterSplitAcrossReads() throws IOException {
+        byte[] frame = bytes("OPPONENT_NICKNAME_SET|žluť\n");
+        int split = bytes("OPPONENT_NICKNAME_SET|ž").length - 1;
+        ChannelCommunicator communicator = communicator(new ChunkedConnection(Arrays.copyOf(frame, split), Arrays.copyOfRange(frame, split, frame.length)));
+
+        assertEquals(new Payload.OpponentNicknameSet("žluť"), communicator.receive().getPayload());
+        communicator.close();
+    }
+
+    @Test
+    void receivesFrameLongerThanReadBuffer() throws IOException {
+        String nickname = "n".repeat(20_000);
+        ChannelCommunicator communicator = communicator(new ChunkedConnection(bytes("OPPONENT_NICKNAME_SET|" + nickname.substring(0, 9_000)), bytes(nickname.substring(9_000) + "\n")));
+
+        assertEquals(new Payload.OpponentNicknameSet(nickname), communicator.receive().getPayload());
+        communicator.close();
+    }
+
+    @Test
+    void pollReturnsNullUntilFrameIsComplete() throws IOException {
+        ChannelCommunicator communicator = communicator(new ChunkedConnection(bytes("OPPONENT_TURN|3"), bytes("4|HIT"), bytes("\n")));
+
+        assertNull(communicator.poll());
+        assertNull(communicator.poll());
+        assertEquals(new Payload.OpponentTurn(3, 4, true), communicator.poll().getPayload());
+        communicator.close();
+    }
+
+    @Test
+    void receiveThrowsOnEndOfStreamInsideFrame() {
+        ChannelCommunicator communicator = communicator(new ChunkedConnection(bytes("OPPONENT_TURN|34")));
+
+        assertThrows(IOException.class, communicator::receive);
+        communicator.close();
+    }
+
+    @Test
+    void sentFrameIsReceivedBackOverMemoryTransport() throws IOException {
+        MemoryTransport.register("echo", connection -> new Thread(() -> {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            try {
+                while (connection.getReadChannel().read(buffer) != -1) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        connection.getWriteChannel().write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+            catch (IOException e) {
+                //
+            }
+        }).start());
+
+        ChannelCommunicator communicator = communicator(MemoryTransport.INSTANCE.connect(MemoryTransport.SCHEME + "echo", 0, 0));
+        String nickname = "a\nb|c\\d\n";
+        communicator.send(new Message(Message.Type.OPPONENT_NICKNAME_SET, nickname));
+        communicator.send(new Message(Message.Type.OPPONENT_TURN, "12", "MISS"));
+
+        assertEquals(new Payload.OpponentNicknameSet(nickname), communicator.receive().getPayload());
+        assertEquals(new Payload.OpponentTurn(1, 2, false), communicator.receive().getPayload());
+        communicator.close();
+        MemoryTransport.unregister("echo");
+    }
+
+}
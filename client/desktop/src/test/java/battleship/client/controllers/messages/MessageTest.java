@@ -0,0 +1,172 @@
+package battleship.client.controllers.messages;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Message Test
+ * Single pass text decoding (escapes, sequenced events, parameterless messages), malformed input rejected
+ */
+class MessageTest {
+
+    @Test
+    void decodesParameters() {
+        Message message = Message.deserialize("TURN_RESULT|23|HIT");
+
+        assertEquals(Message.Type.TURN_RESULT, message.getType());
+        assertEquals(2, message.getParametersCnt());
+        assertEquals("23", message.getParameter(0));
+        assertEquals("HIT", message.getParameter(1));
+        assertEquals(0, message.getSequence());
+        assertEquals(new Payload.TurnResult(2, 3, true), message.getPayload());
+    }
+
+    @Test
+    void decodesEscapes() {
+        Message message = Message.deserialize("OPPONENT_NICKNAME_SET|a\\|b\\\\c\\\\");
+
+        assertEquals("a|b\\c\\", message.getParameter(0));
+        assertEquals(new Payload.OpponentNicknameSet("a|b\\c\\"), message.getPayload());
+    }
+
+    @Test
+    void escapedDelimiterDoesNotSplitParameters() {
+        Message message = Message.deserialize("REJOIN|ROOM|a\\|b");
+
+        assertEquals(2, message.getParametersCnt());
+        assertEquals("ROOM", message.getParameter(0));
+        assertEquals("a|b", message.getParameter(1));
+    }
+
+    @Test
+    void roundTripsSerializedParameters() {
+        String nickname = "|\\x|\\\\|";
+        String serialized = new Message(Message.Type.OPPONENT_NICKNAME_SET, nickname).serialize();
+
+        Message message = Message.deserialize(serialized);
+
+        assertEquals(nickname, message.getParameter(0));
+        assertEquals(serialized, message.serialize());
+    }
+
+    @Test
+    void decodesSequence() {
+        Message message = Message.deserialize("TURN_SET#42|YOU");
+
+        assertEquals(Message.Type.TURN_SET, message.getType());
+        assertEquals(42, message.getSequence());
+        assertEquals("YOU", message.getParameter(0));
+        assertEquals(new Payload.TurnSet(true), message.getPayload());
+    }
+
+    @Test
+    void decodesSequenceOfParameterlessMessage() {
+        Message message = Message.deserialize("OPPONENT_BOARD_READY#7");
+
+        assertEquals(Message.Type.OPPONENT_BOARD_READY, message.getType());
+        assertEquals(7, message.getSequence());
+        assertEquals(0, message.getParametersCnt());
+    }
+
+    @Test
+    void sequenceDelimiterInParameterIsNotSequence() {
+        Message message = Message.deserialize("OPPONENT_NICKNAME_SET|a#1");
+
+        assertEquals(0, message.getSequence());
+        assertEquals("a#1", message.getParameter(0));
+    }
+
+    @Test
+    void decodesParameterlessMessage() {
+        Message message = Message.deserialize("KEEP_ALIVE");
+
+        assertEquals(Message.Type.KEEP_ALIVE, message.getType());
+        assertEquals(0, message.getParametersCnt());
+    }
+
+    @Test
+    void acceptsParameterlessMessageWithExpectedParameters() {
+        Message message = Message.deserialize("GAME_BEGIN");
+
+        assertEquals(Message.Type.GAME_BEGIN, message.getType());
+        assertEquals(0, message.getParametersCnt());
+        assertEquals(new Payload.GameBegin(1), message.getPayload());
+
+        assertEquals(new Payload.GameBegin(3), Message.deserialize("GAME_BEGIN|3").getPayload());
+        assertEquals(new Payload.GameBegin(1), Message.deserialize("GAME_BEGIN#5").getPayload());
+    }
+
+    @Test
+    void keepsEmptyParameters() {
+        Message message = Message.deserialize("REJOIN|ROOM|");
+
+        assertEquals(2, message.getParametersCnt());
+        assertEquals("ROOM", message.getParameter(0));
+        assertEquals("", message.getParameter(1));
+    }
+
+    @Test
+    void serializesDecodedMessageAsSource() {
+        String serialized = "OPPONENT_TURN#3|99|MISS";
+
+        assertEquals(serialized, Message.deserialize(serialized).serialize());
+    }
+
+    @Test
+    void rejectsUnknownType() {
+        assertThrows(RuntimeException.class, () -> Message.deserialize(""));
+        assertThrows(RuntimeException.class, () -> Message.deserialize("UNKNOWN"));
+        assertThrows(RuntimeException.class, () -> Message.deserialize("TURN_SE|YOU"));
+        assertThrows(RuntimeException.class, () -> Message.deserialize("turn_set|YOU"));
+        assertThrows(RuntimeException.class, () -> Message.deserialize("X".repeat(1_000)));
+    }
+
+    @Test
+    void rejectsOutgoingType() {
+        assertThrows(RuntimeException.class, () -> Message.deserialize("TURN|01"));
+        assertThrows(RuntimeException.class, () -> Message.deserialize("ROOM_CREATE"));
+    }
+
+    @Test
+    void rejectsTooManyParameters() {
+        assertThrows(RuntimeException.class, () -> Message.deserialize("TURN_SET|YOU|YOU"));
+        assertThrows(RuntimeException.class, () -> Message.deserialize("KEEP_ALIVE|"));
+        assertThrows(RuntimeException.class, () -> Message.deserialize("TURN_RESULT|01|HIT|"));
+    }
+
+    @Test
+    void rejectsTooFewParameters() {
+        assertThrows(RuntimeException.class, () -> Message.deserialize("TURN_RESULT|01"));
+        assertThrows(RuntimeException.class, () -> Message.deserialize("REJOIN|ROOM\\|a"));
+    }
+
+    @Test
+    void rejectsDanglingEscape() {
+        assertThrows(RuntimeException.class, () -> Message.deserialize("OPPONENT_NICKNAME_SET|a\\"));
+        assertThrows(RuntimeException.class, () -> Message.deserialize("TURN_RESULT|01|HIT\\"));
+    }
+
+    @Test
+    void rejectsMalformedSequence() {
+        assertThrows(RuntimeException.class, () -> Message.deserialize("TURN_SET#|YOU"));
+        assertThrows(RuntimeException.class, () -> Message.deserialize("TURN_SET#x|YOU"));
+        assertThrows(RuntimeException.class, () -> Message.deserialize("TURN_SET#99999999999|YOU"));
+        assertThrows(RuntimeException.class, () -> Message.deserialize("#1|YOU"));
+    }
+
+    @Test
+    void materializesParametersWithinBounds() {
+        Message message = Message.deserialize("SERVER_LOAD|1|2|3|4|NONE");
+
+        assertEquals(5, message.getParametersCnt());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Integer.toString(i + 1), message.getParameter(i));
+        }
+        assertEquals("NONE", message.getParameter(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> message.getParameter(5));
+        assertTrue(message.getPayload() instanceof Payload.ServerLoad);
+    }
+}
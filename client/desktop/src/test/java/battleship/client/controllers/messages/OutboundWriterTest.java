@@ -0,0 +1,229 @@
+package battleship.client.controllers.messages;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Outbound Writer Test
+ * Lanes drained by priority, order kept within a lane, a lane passed over a bounded number of times, queue latency per lane
+ */
+class OutboundWriterTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+    private static final String HOLD_FRAME = "KEEP_ALIVE";
+
+    /**
+     * Channel holding writes until opened, records the written frames
+     */
+    private static final class GatedChannel implements WritableByteChannel {
+
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final CountDownLatch isWriting = new CountDownLatch(1);
+        private final StringBuilder written = new StringBuilder();
+        private volatile boolean isOpen = true;
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            isWriting.countDown();
+            try {
+                gate.await();
+            }
+            catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+
+            byte[] bytes = new byte[src.remaining()];
+            src.get(bytes);
+            synchronized (written) {
+                written.append(new String(bytes, StandardCharsets.UTF_8));
+            }
+            return bytes.length;
+        }
+
+        private List<String> getFrames() {
+            synchronized (written) {
+                return written.isEmpty() ? List.of() : List.of(written.toString().split("\n"));
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return isOpen;
+        }
+
+        @Override
+        public void close() {
+            isOpen = false;
+        }
+    }
+
+    private final GatedChannel channel = new GatedChannel();
+    private final OutboundWriter writer = new OutboundWriter(channel);
+    private final Thread writerThread = new Thread(writer);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.gate.countDown();
+        writer.close();
+        writerThread.join(TIMEOUT_MS);
+    }
+
+    /**
+     * Starts the writer held writing a frame, messages enqueued then wait in their lanes
+     */
+    private void startHeld() throws InterruptedException {
+        writerThread.start();
+        writer.enqueue(new Message(Message.Type.KEEP_ALIVE));
+        assertTrue(channel.isWriting.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Lets the writer go, awaits the enqueued messages to be written
+     * @return Frames written after the holding one
+     */
+    private List<String> release(List<CompletableFuture<Void>> futures) throws Exception {
+        channel.gate.countDown();
+        for (CompletableFuture<Void> future : futures) {
+            future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        }
+        List<String> frames = channel.getFrames();
+        assertEquals(HOLD_FRAME, frames.getFirst());
+        return frames.subList(1, frames.size());
+    }
+
+    private static Message message(Message.Priority priority, int index) {
+        return switch (priority) {
+            case INTERACTIVE -> new Message(Message.Type.TURN, index);
+            case CONTROL -> new Message(Message.Type.KEEP_ALIVE_INTERVAL, index);
+            case BULK -> new Message(Message.Type.BOARD_READY, index);
+        };
+    }
+
+    private static Message.Priority priority(String frame) {
+        if (frame.startsWith("TURN|")) {
+            return Message.Priority.INTERACTIVE;
+        }
+        if (frame.startsWith("KEEP_ALIVE_INTERVAL|")) {
+            return Message.Priority.CONTROL;
+        }
+        return Message.Priority.BULK;
+    }
+
+    private static int index(String frame) {
+        return Integer.parseInt(frame.substring(frame.indexOf('|') + 1));
+    }
+
+    @Test
+    void drainsLanesByPriority() throws Exception {
+        startHeld();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        futures.add(writer.enqueue(message(Message.Priority.BULK, 0)));
+        futures.add(writer.enqueue(message(Message.Priority.CONTROL, 0)));
+        futures.add(writer.enqueue(message(Message.Priority.INTERACTIVE, 0)));
+
+        assertEquals(List.of("TURN|0", "KEEP_ALIVE_INTERVAL|0", "BOARD_READY|0"), release(futures));
+    }
+
+    @Test
+    void keepsOrderWithinLanes() throws Exception {
+        startHeld();
+        Random random = new Random(42);
+        Message.Priority[] priorities = Message.Priority.values();
+        int[] enqueuedCnts = new int[priorities.length];
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Message.Priority priority = priorities[random.nextInt(priorities.length)];
+            futures.add(writer.enqueue(message(priority, enqueuedCnts[priority.ordinal()]++)));
+        }
+
+        List<String> frames = release(futures);
+        assertEquals(300, frames.size());
+        int[] writtenCnts = new int[priorities.length];
+        for (String frame : frames) {
+            Message.Priority priority = priority(frame);
+            assertEquals(writtenCnts[priority.ordinal()]++, index(frame), "Lane " + priority + " Out Of Order");
+        }
+    }
+
+    @Test
+    void boundsStarvationUnderInteractiveFlood() throws Exception {
+        startHeld();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(writer.enqueue(message(Message.Priority.BULK, i)));
+            futures.add(writer.enqueue(message(Message.Priority.CONTROL, i)));
+        }
+        for (int i = 0; i < 100; i++) {
+            futures.add(writer.enqueue(message(Message.Priority.INTERACTIVE, i)));
+        }
+
+        List<String> frames = release(futures);
+        for (Message.Priority starved : List.of(Message.Priority.CONTROL, Message.Priority.BULK)) {
+            int nextIndex = 0;
+            int passedCnt = 0;
+            for (String frame : frames) {
+                Message.Priority priority = priority(frame);
+                if (priority == starved) {
+                    assertEquals(nextIndex++, index(frame), "Lane " + starved + " Out Of Order");
+                    passedCnt = 0;
+                }
+                else if (priority.ordinal() < starved.ordinal() && nextIndex < 3) {
+                    passedCnt++;
+                    assertTrue(passedCnt <= OutboundWriter.MAX_PASSED_CNT, "Lane " + starved + " Passed Over " + passedCnt + " Times");
+                }
+            }
+            assertEquals(3, nextIndex);
+        }
+    }
+
+    @Test
+    void recordsQueueLatencyPerLane() throws Exception {
+        startHeld();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(writer.enqueue(message(Message.Priority.INTERACTIVE, i)));
+        }
+        futures.add(writer.enqueue(message(Message.Priority.BULK, 0)));
+        Thread.sleep(20);
+        release(futures);
+
+        assertEquals(20, writer.getTakenCount(Message.Priority.INTERACTIVE));
+        assertEquals(1, writer.getTakenCount(Message.Priority.CONTROL));
+        assertEquals(1, writer.getTakenCount(Message.Priority.BULK));
+        for (Message.Priority priority : List.of(Message.Priority.INTERACTIVE, Message.Priority.BULK)) {
+            // held while the writer has been held
+            assertTrue(writer.getMeanQueueLatencyUs(priority) >= 20_000, priority + ": " + writer.getMeanQueueLatencyUs(priority));
+            assertTrue(writer.getMaxQueueLatencyUs(priority) >= (long) writer.getMeanQueueLatencyUs(priority));
+        }
+    }
+
+    @Test
+    void writesEnqueuedBeforeClose() throws Exception {
+        startHeld();
+        CompletableFuture<Void> before = writer.enqueue(message(Message.Priority.BULK, 0));
+        writer.close();
+        CompletableFuture<Void> after = writer.enqueue(message(Message.Priority.INTERACTIVE, 0));
+
+        assertEquals(List.of("BOARD_READY|0"), release(List.of(before)));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> after.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+}
@@ -0,0 +1,74 @@
+package battleship.client.controllers.workers;
+
+import battleship.client.controllers.messages.Message;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Correlation Registry Test
+ * Responses complete the oldest expectation of their type, failing all reports only expectations awaited by operations
+ */
+class CorrelationRegistryTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Test
+    void completesOldestExpectationOfType() throws Exception {
+        CorrelationRegistry registry = new CorrelationRegistry();
+        CompletableFuture<Message> first = registry.expect(TIMEOUT_MS, Message.Type.ACK);
+        CompletableFuture<Message> second = registry.expect(TIMEOUT_MS, Message.Type.ACK, Message.Type.ROOM_FULL);
+
+        Message ack = new Message(Message.Type.ACK);
+        assertTrue(registry.complete(ack));
+        assertSame(ack, first.get());
+        assertFalse(second.isDone());
+
+        assertTrue(registry.complete(new Message(Message.Type.ROOM_FULL)));
+        assertEquals(Message.Type.ROOM_FULL, second.get().getType());
+        assertFalse(registry.complete(new Message(Message.Type.ACK)));
+        assertEquals(0, registry.getPendingCount());
+    }
+
+    @Test
+    void failsExpectationOnDeadline() {
+        CorrelationRegistry registry = new CorrelationRegistry();
+        CompletableFuture<Message> future = registry.expect(10, Message.Type.ACK);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertFalse(registry.complete(new Message(Message.Type.ACK)));
+    }
+
+    @Test
+    void failAllReportsAwaitedExpectations() {
+        CorrelationRegistry registry = new CorrelationRegistry();
+        CompletableFuture<Message> awaited = registry.expect(TIMEOUT_MS, Message.Type.ACK);
+        CompletableFuture<Message> notAwaited = registry.expect(TIMEOUT_MS, false, Message.Type.KEEP_ALIVE_INTERVAL);
+
+        assertTrue(registry.failAll(new IOException()));
+        assertTrue(awaited.isCompletedExceptionally());
+        assertTrue(notAwaited.isCompletedExceptionally());
+    }
+
+    @Test
+    void failAllDoesNotReportNotAwaitedExpectations() {
+        CorrelationRegistry registry = new CorrelationRegistry();
+        CompletableFuture<Message> notAwaited = registry.expect(TIMEOUT_MS, false, Message.Type.KEEP_ALIVE_INTERVAL);
+
+        assertFalse(registry.failAll(new IOException()));
+        assertTrue(notAwaited.isCompletedExceptionally());
+        assertFalse(registry.failAll(new IOException()));
+    }
+}
@@ -0,0 +1,269 @@
+package battleship.client.controllers.workers;
+
+import battleship.client.controllers.StateMachineController;
+import battleship.client.controllers.messages.Message;
+import battleship.client.models.GameSnapshot;
+import battleship.client.models.Model;
+import battleship.client.views.StageManager;
+import javafx.scene.control.Alert;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inbox Coalescer Test
+ * A batch applied by the state machine at once (coalesced) results in the same state as applied message by message:
+ * the reverse scan over the overwritten parts, short and long opponent's no response, own and opponent's invalidated fields,
+ * the game wiped by a game end and by the opponent leaving the room
+ */
+class InboxCoalescerTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    /**
+     * Stage manager recording scenes and alerts, model updates are applied at once (there is no JavaFX thread)
+     */
+    private static final class RecordingStageManager extends StageManager {
+
+        private final List<StageManager.Scene> scenes = new CopyOnWriteArrayList<>();
+        private final List<String> alerts = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void setSceneLater(StageManager.Scene scene) {
+            scenes.add(scene);
+        }
+
+        @Override
+        public void updateLater(Object key, Runnable update) {
+            update.run();
+        }
+
+        @Override
+        public void updateLater(Runnable update) {
+            update.run();
+        }
+
+        @Override
+        public void showAlertLater(Alert.AlertType type, String header, String content) {
+            alerts.add(header);
+        }
+    }
+
+    /**
+     * State resulting from a batch (the snapshot version depends on the count of applied commands, so it is left out)
+     */
+    private record Result(GameSnapshot snapshot, boolean isOpponentResponding, String opponentNickname,
+                          List<String> alerts, List<StageManager.Scene> scenes) { }
+
+    private long coalescedCnt;
+
+    /**
+     * Applies the frames by the state machine
+     * @param frames Frames in the order of arrival
+     * @param isBatched True if taken from the inbox at once (coalesced), false if one by one
+     * @return Resulting state
+     */
+    private Result apply(List<String> frames, boolean isBatched) throws Exception {
+        Model model = new Model();
+        GameCore gameCore = new GameCore();
+        RecordingStageManager stageManager = new RecordingStageManager();
+        StateMachine stateMachine = new StateMachine(new StateMachineController(model, gameCore, stageManager, new ResumeState()), RingBuffer.WaitStrategy.BLOCKING);
+        AtomicInteger handledCnt = new AtomicInteger();
+        stateMachine.addInterceptor((message, durationNs) -> handledCnt.incrementAndGet());
+        Thread thread = new Thread(stateMachine);
+
+        try {
+            if (isBatched) {
+                for (String frame : frames) {
+                    assertTrue(stateMachine.enqueueMessage(Message.deserialize(frame)));
+                }
+                thread.start();
+                awaitCondition(() -> handledCnt.get() + stateMachine.getCoalescer().getCoalescedCount() == frames.size());
+            }
+            else {
+                thread.start();
+                for (int i = 0; i < frames.size(); i++) {
+                    int handledCnt_ = i + 1;
+                    assertTrue(stateMachine.enqueueMessage(Message.deserialize(frames.get(i))));
+                    awaitCondition(() -> handledCnt.get() == handledCnt_);
+                }
+                assertEquals(0, stateMachine.getCoalescer().getCoalescedCount());
+            }
+            coalescedCnt = stateMachine.getCoalescer().getCoalescedCount();
+
+            // commands are applied in order, so the snapshot is taken once the previous ones have been applied
+            CompletableFuture<GameSnapshot> snapshot = new CompletableFuture<>();
+            gameCore.submit(snapshot_ -> {
+                snapshot.complete(snapshot_);
+                return snapshot_;
+            });
+            return new Result(snapshot.get(TIMEOUT_MS, TimeUnit.MILLISECONDS).withVersion(0),
+                    model.opponentState.isRespondingProperty().get(), model.opponentState.nicknameProperty().get(),
+                    List.copyOf(stageManager.alerts), List.copyOf(stageManager.scenes));
+        }
+        finally {
+            thread.interrupt();
+            thread.join(TIMEOUT_MS);
+            gameCore.stop();
+        }
+    }
+
+    /**
+     * Asserts the batch applied at once results in the same state as applied one by one
+     * @param expectedCoalescedCnt Count of messages expected to be dropped
+     * @param frames Frames in the order of arrival
+     */
+    private void assertCoalesced(int expectedCoalescedCnt, String... frames) throws Exception {
+        Result expected = apply(List.of(frames), false);
+        Result actual = apply(List.of(frames), true);
+        assertEquals(expected, actual);
+        assertEquals(expectedCoalescedCnt, coalescedCnt);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadlineMs = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadlineMs, "Condition Not Met In Time");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void dropsMessagesOverwrittenByLaterOnes() throws Exception {
+        assertCoalesced(3,
+                "TURN_SET|YOU",
+                "OPPONENT_NICKNAME_SET|first",
+                "TURN_SET|OPPONENT",
+                "OPPONENT_NICKNAME_SET|second",
+                "TURN_SET|YOU");
+    }
+
+    @Test
+    void keepsMessagesWithPartsNotOverwritten() throws Exception {
+        // a later board state of the other board, or a later write of a part (not a whole overwrite), does not drop them
+        assertCoalesced(0,
+                "BOARD_STATE_PACKED|YOU|S5N95",
+                "OPPONENT_TURN|00|HIT",
+                "BOARD_STATE_PACKED|OPPONENT|M2N98",
+                "OPPONENT_BOARD_READY",
+                "OPPONENT_SALVO|0102|MH");
+    }
+
+    @Test
+    void boardStateOverwritesOpponentTurnsOfSameBoard() throws Exception {
+        assertCoalesced(4,
+                "BOARD_STATE_PACKED|YOU|S5N95",
+                "OPPONENT_TURN|00|HIT",
+                "OPPONENT_SALVO|0102|MH",
+                "INVALIDATE_FIELD|YOU|33",
+                "BOARD_STATE_PACKED|YOU|H1S4M1N94");
+    }
+
+    @Test
+    void invalidatedFieldIsDroppedByBoardStateOfItsBoard() throws Exception {
+        // own field written to client's board, opponent's one to opponent's board
+        assertCoalesced(1,
+                "INVALIDATE_FIELD|YOU|12",
+                "INVALIDATE_FIELD|OPPONENT|34",
+                "BOARD_STATE_PACKED|OPPONENT|N100");
+        assertCoalesced(1,
+                "INVALIDATE_FIELD|YOU|12",
+                "INVALIDATE_FIELD|OPPONENT|34",
+                "BOARD_STATE_PACKED|YOU|N100");
+    }
+
+    @Test
+    void shortNoResponseIsDroppedByRejoin() throws Exception {
+        assertCoalesced(3,
+                "OPPONENT_NO_RESPONSE|SHORT",
+                "OPPONENT_REJOIN",
+                "OPPONENT_NO_RESPONSE|SHORT",
+                "OPPONENT_REJOIN");
+        // and drops a rejoin, the later one wins
+        assertCoalesced(1,
+                "OPPONENT_REJOIN",
+                "OPPONENT_NO_RESPONSE|SHORT");
+    }
+
+    @Test
+    void longNoResponseWipesGameAndIsKept() throws Exception {
+        // the opponent is disconnected (an alert, a scene), the game and the opponent's nickname are reset
+        assertCoalesced(6,
+                "OPPONENT_NICKNAME_SET|opponent",
+                "BOARD_STATE_PACKED|YOU|S5N95",
+                "OPPONENT_BOARD_READY",
+                "TURN_SET|YOU",
+                "OPPONENT_TURN|00|HIT",
+                "INVALIDATE_FIELD|OPPONENT|11",
+                "OPPONENT_NO_RESPONSE|LONG");
+        // the responding status is not reset by it
+        assertCoalesced(0,
+                "OPPONENT_NO_RESPONSE|SHORT",
+                "OPPONENT_NO_RESPONSE|LONG",
+                "OPPONENT_NO_RESPONSE|LONG");
+    }
+
+    @Test
+    void gameEndWipesGame() throws Exception {
+        assertCoalesced(5,
+                "OPPONENT_NICKNAME_SET|opponent",
+                "GAME_BEGIN|3",
+                "BOARD_STATE_PACKED|YOU|S5N95",
+                "BOARD_STATE_PACKED|OPPONENT|N100",
+                "TURN_SET|YOU",
+                "OPPONENT_SALVO|000102|MMH",
+                "INVALIDATE_FIELD|OPPONENT|11",
+                "GAME_END|YOU");
+    }
+
+    @Test
+    void roomLeaveWipesGameAndOpponent() throws Exception {
+        assertCoalesced(4,
+                "OPPONENT_NICKNAME_SET|opponent",
+                "OPPONENT_BOARD_READY",
+                "TURN_SET|OPPONENT",
+                "OPPONENT_TURN|55|MISS",
+                "OPPONENT_ROOM_LEAVE",
+                "OPPONENT_NICKNAME_SET|next");
+    }
+
+    @Test
+    void randomBatchesResultInSameState() throws Exception {
+        String[] pool = {
+                "TURN_SET|YOU", "TURN_SET|OPPONENT",
+                "OPPONENT_NICKNAME_SET|first", "OPPONENT_NICKNAME_SET|second",
+                "OPPONENT_BOARD_READY", "OPPONENT_REJOIN",
+                "OPPONENT_NO_RESPONSE|SHORT", "OPPONENT_NO_RESPONSE|LONG",
+                "OPPONENT_TURN|00|HIT", "OPPONENT_TURN|00|MISS", "OPPONENT_TURN|12|HIT",
+                "OPPONENT_SALVO|0012|MH",
+                "INVALIDATE_FIELD|YOU|00", "INVALIDATE_FIELD|OPPONENT|00", "INVALIDATE_FIELD|OPPONENT|12",
+                "BOARD_STATE_PACKED|YOU|S5N95", "BOARD_STATE_PACKED|YOU|H1S4M1N94", "BOARD_STATE_PACKED|OPPONENT|M2N98",
+                "GAME_BEGIN|2", "GAME_END|YOU", "OPPONENT_ROOM_LEAVE"
+        };
+        Random random = new Random(11);
+        long totalCoalescedCnt = 0;
+        for (int round = 0; round < 50; round++) {
+            List<String> frames = new ArrayList<>();
+            int size = 1 + random.nextInt(24);
+            for (int i = 0; i < size; i++) {
+                frames.add(pool[random.nextInt(pool.length)]);
+            }
+
+            Result expected = apply(frames, false);
+            Result actual = apply(frames, true);
+            assertEquals(expected, actual, "Frames: " + frames);
+            totalCoalescedCnt += coalescedCnt;
+        }
+        assertTrue(totalCoalescedCnt > 0);
+    }
+}
@@ -0,0 +1,206 @@
+package battleship.client.controllers.workers;
+
+import battleship.client.controllers.messages.Communicator;
+import battleship.client.controllers.messages.Message;
+import battleship.client.controllers.messages.OutboundWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Messages Manager Test
+ * Responses are correlated with requests in the order the requests are written, not the order they are sent in
+ * (the outbound lanes write a later interactive request ahead of an earlier bulk one)
+ */
+class MessagesManagerTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    /**
+     * Channel holding writes until opened, records the written frames
+     */
+    private static final class GatedChannel implements WritableByteChannel {
+
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final CountDownLatch isWriting = new CountDownLatch(1);
+        private final StringBuilder written = new StringBuilder();
+        private volatile boolean isOpen = true;
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            isWriting.countDown();
+            try {
+                gate.await();
+            }
+            catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+
+            byte[] bytes = new byte[src.remaining()];
+            src.get(bytes);
+            synchronized (written) {
+                written.append(new String(bytes, StandardCharsets.UTF_8));
+            }
+            return bytes.length;
+        }
+
+        private List<String> getFrames() {
+            synchronized (written) {
+                return written.isEmpty() ? List.of() : List.of(written.toString().split("\n"));
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return isOpen;
+        }
+
+        @Override
+        public void close() {
+            isOpen = false;
+        }
+    }
+
+    /**
+     * Communicator writing through an outbound writer, receiving the messages put to its inbox
+     */
+    private static final class TestCommunicator implements Communicator {
+
+        private final BlockingQueue<Message> inbox = new LinkedBlockingQueue<>();
+        private final OutboundWriter outboundWriter;
+
+        private TestCommunicator(WritableByteChannel channel) {
+            outboundWriter = new OutboundWriter(channel);
+            new Thread(outboundWriter).start();
+        }
+
+        @Override
+        public Message receive() throws IOException {
+            try {
+                return inbox.take();
+            }
+            catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+        }
+
+        @Override
+        public CompletableFuture<Void> send(Message message, Runnable onTaken) {
+            return outboundWriter.enqueue(message, onTaken);
+        }
+
+        @Override
+        public long getLastSendMs() {
+            return outboundWriter.getLastEnqueuedMs();
+        }
+
+        @Override
+        public double getMeanQueueLatencyUs(Message.Priority priority) {
+            return outboundWriter.getMeanQueueLatencyUs(priority);
+        }
+
+        @Override
+        public long getMaxQueueLatencyUs(Message.Priority priority) {
+            return outboundWriter.getMaxQueueLatencyUs(priority);
+        }
+
+        @Override
+        public void close() {
+            outboundWriter.close();
+        }
+    }
+
+    private final GatedChannel channel = new GatedChannel();
+    private final TestCommunicator communicator = new TestCommunicator(channel);
+    private final MessagesManager messagesManager = new MessagesManager(communicator, null, () -> { }, Thread::new, new RttEstimator(rttMs -> { }));
+
+    @AfterEach
+    void tearDown() {
+        channel.gate.countDown();
+        messagesManager.stop();
+    }
+
+    private void awaitFrames(int count) throws InterruptedException {
+        long deadlineMs = System.currentTimeMillis() + TIMEOUT_MS;
+        while (channel.getFrames().size() < count) {
+            assertTrue(System.currentTimeMillis() < deadlineMs, "Frames Not Written In Time");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void correlatesResponsesInWrittenOrder() throws Exception {
+        new Thread(messagesManager).start();
+        // the writer is held writing a frame, the following requests wait in their lanes
+        communicator.send(new Message(Message.Type.KEEP_ALIVE));
+        assertTrue(channel.isWriting.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<Message> boardReady = messagesManager.request(new Message(Message.Type.BOARD_READY, "00", "01"), TIMEOUT_MS, Message.Type.ACK, Message.Type.BOARD_ILLEGAL);
+        CompletableFuture<Message> roomLeave = messagesManager.request(new Message(Message.Type.ROOM_LEAVE), TIMEOUT_MS, Message.Type.ACK);
+
+        channel.gate.countDown();
+        awaitFrames(3);
+        assertEquals(List.of("KEEP_ALIVE", "ROOM_LEAVE", "BOARD_READY|00|01"), channel.getFrames());
+
+        // the server responds in the order it has received the requests
+        communicator.inbox.add(new Message(Message.Type.ACK));
+        communicator.inbox.add(new Message(Message.Type.BOARD_ILLEGAL));
+
+        assertEquals(Message.Type.ACK, roomLeave.get(TIMEOUT_MS, TimeUnit.MILLISECONDS).getType());
+        assertEquals(Message.Type.BOARD_ILLEGAL, boardReady.get(TIMEOUT_MS, TimeUnit.MILLISECONDS).getType());
+    }
+
+    @Test
+    void expectsResponseOnceRequestWritten() throws Exception {
+        communicator.send(new Message(Message.Type.KEEP_ALIVE));
+        assertTrue(channel.isWriting.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        messagesManager.request(new Message(Message.Type.ROOM_LEAVE), TIMEOUT_MS, Message.Type.ACK);
+        assertEquals(0, messagesManager.getPendingRequestsCount());
+
+        channel.gate.countDown();
+        awaitFrames(2);
+        assertEquals(1, messagesManager.getPendingRequestsCount());
+    }
+
+    @Test
+    void failsRequestNotWritten() {
+        communicator.close();
+
+        CompletableFuture<Message> response = messagesManager.request(new Message(Message.Type.ROOM_LEAVE), TIMEOUT_MS, Message.Type.ACK);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+        assertEquals(0, messagesManager.getPendingRequestsCount());
+    }
+
+    @Test
+    void failsRequestWrittenAfterStop() throws Exception {
+        communicator.send(new Message(Message.Type.KEEP_ALIVE));
+        assertTrue(channel.isWriting.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        CompletableFuture<Message> response = messagesManager.request(new Message(Message.Type.ROOM_LEAVE), TIMEOUT_MS, Message.Type.ACK);
+
+        messagesManager.stop();
+        channel.gate.countDown();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+}
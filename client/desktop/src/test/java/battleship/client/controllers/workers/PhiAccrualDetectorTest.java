@@ -0,0 +1,169 @@
+package battleship.client.controllers.workers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Phi Accrual Detector Test
+ * Seeded and learnt distribution, phi growing with the time since the last arrival (against the normal distribution tail),
+ * suspicion time of regular and jittery links meeting the threshold
+ */
+class PhiAccrualDetectorTest {
+
+    private static final int WINDOW_SIZE = 100;
+    private static final long INTERVAL_MS = 1_000;
+    private static final long START_MS = 1_000_000;
+
+    /**
+     * Feeds heartbeats at the intervals, starting at START_MS
+     * @return Time of the last heartbeat
+     */
+    private static long feed(PhiAccrualDetector detector, long[] intervalsMs) {
+        long nowMs = START_MS;
+        detector.arrival(nowMs, false);
+        for (long intervalMs : intervalsMs) {
+            nowMs += intervalMs;
+            detector.arrival(nowMs, true);
+        }
+        return nowMs;
+    }
+
+    private static long[] regularIntervals(int count) {
+        long[] intervalsMs = new long[count];
+        Arrays.fill(intervalsMs, INTERVAL_MS);
+        return intervalsMs;
+    }
+
+    private static long[] jitteryIntervals(int count, double stdDevMs) {
+        Random random = new Random(7);
+        long[] intervalsMs = new long[count];
+        for (int i = 0; i < count; i++) {
+            intervalsMs[i] = Math.max(1, Math.round(INTERVAL_MS + random.nextGaussian() * stdDevMs));
+        }
+        return intervalsMs;
+    }
+
+    @Test
+    void seedsDistributionWithExpectedInterval() {
+        PhiAccrualDetector detector = new PhiAccrualDetector(WINDOW_SIZE, 10, 0, 4_000);
+        assertEquals(4_000, detector.getMeanMs(), 1e-9);
+        assertEquals(1_000, detector.getStdDevMs(), 1e-9);
+
+        feed(detector, regularIntervals(10));
+        detector.reset(2_000);
+        assertEquals(2_000, detector.getMeanMs(), 1e-9);
+        assertEquals(500, detector.getStdDevMs(), 1e-9);
+    }
+
+    @Test
+    void learnsOverSlidingWindow() {
+        PhiAccrualDetector detector = new PhiAccrualDetector(WINDOW_SIZE, 10, 0, 5_000);
+        feed(detector, regularIntervals(WINDOW_SIZE - 2));
+        // the seeds are still in the window
+        assertTrue(detector.getMeanMs() > INTERVAL_MS);
+
+        feed(detector, regularIntervals(WINDOW_SIZE));
+        assertEquals(INTERVAL_MS, detector.getMeanMs(), 1e-6);
+        assertEquals(10, detector.getStdDevMs(), 1e-9);
+    }
+
+    @Test
+    void doesNotLearnFromOtherArrivals() {
+        PhiAccrualDetector detector = new PhiAccrualDetector(WINDOW_SIZE, 10, 0, INTERVAL_MS);
+        long lastMs = feed(detector, regularIntervals(WINDOW_SIZE));
+        assertTrue(detector.phi(lastMs + 1_100) > 8);
+
+        detector.arrival(lastMs + 1_100, false);
+        assertEquals(INTERVAL_MS, detector.getMeanMs(), 1e-6);
+        // the other arrival restarts the clock
+        assertTrue(detector.phi(lastMs + 1_100) < 0.01);
+    }
+
+    @Test
+    void phiGrowsOverTime() {
+        PhiAccrualDetector detector = new PhiAccrualDetector(WINDOW_SIZE, 200, 500, INTERVAL_MS);
+        long lastMs = feed(detector, regularIntervals(WINDOW_SIZE));
+
+        assertTrue(detector.phi(lastMs) < 0.01);
+        double previous = detector.phi(lastMs);
+        for (long elapsedMs = 50; elapsedMs <= 3_000; elapsedMs += 50) {
+            double phi = detector.phi(lastMs + elapsedMs);
+            // strictly once distinguishable from 0 in double precision
+            if (elapsedMs >= INTERVAL_MS) {
+                assertTrue(phi > previous, "Elapsed: " + elapsedMs + " ms, Phi: " + phi + " <= " + previous);
+            }
+            else {
+                assertTrue(phi >= previous, "Elapsed: " + elapsedMs + " ms, Phi: " + phi + " < " + previous);
+            }
+            previous = phi;
+        }
+        assertTrue(Double.isFinite(previous) && previous > 8);
+        // at the mean (plus the acceptable pause) a heartbeat is as likely to come as not
+        assertEquals(Math.log10(2), detector.phi(lastMs + INTERVAL_MS + 500), 1e-9);
+    }
+
+    @Test
+    void phiApproximatesNormalTail() {
+        PhiAccrualDetector detector = new PhiAccrualDetector(WINDOW_SIZE, 200, 0, INTERVAL_MS);
+        long lastMs = feed(detector, regularIntervals(WINDOW_SIZE));
+
+        // -log10(P(X > mean + k * stdDev)) of the normal distribution, k = 1, 2, 3
+        double[] expected = { 0.79955, 1.64302, 2.86966 };
+        for (int k = 1; k <= expected.length; k++) {
+            double phi = detector.phi(lastMs + INTERVAL_MS + k * 200L);
+            assertEquals(expected[k - 1], phi, 0.05 * expected[k - 1], "k = " + k);
+        }
+    }
+
+    @Test
+    void suspicionTimeMeetsThreshold() {
+        PhiAccrualDetector detector = new PhiAccrualDetector(WINDOW_SIZE, 200, 500, INTERVAL_MS);
+        long lastMs = feed(detector, regularIntervals(WINDOW_SIZE));
+
+        long previousMs = lastMs;
+        for (double threshold : new double[] { 1, 3, 8, 12 }) {
+            long suspicionMs = detector.getSuspicionTimeMs(threshold, 60_000);
+            assertTrue(detector.phi(suspicionMs) >= threshold, "Threshold: " + threshold);
+            assertTrue(detector.phi(suspicionMs - 1) < threshold, "Threshold: " + threshold);
+            assertTrue(suspicionMs > previousMs);
+            previousMs = suspicionMs;
+        }
+        // phi 8 of a regular link: a few standard deviations past the mean and the acceptable pause
+        long suspicionMs = detector.getSuspicionTimeMs(8, 60_000);
+        assertTrue(suspicionMs - lastMs > INTERVAL_MS + 500 && suspicionMs - lastMs < INTERVAL_MS + 500 + 6 * 200, "Delay: " + (suspicionMs - lastMs));
+    }
+
+    @Test
+    void suspicionTimeIsBoundedBySearch() {
+        PhiAccrualDetector detector = new PhiAccrualDetector(WINDOW_SIZE, 200, 500, INTERVAL_MS);
+        long lastMs = feed(detector, regularIntervals(WINDOW_SIZE));
+
+        assertEquals(lastMs + 1_000, detector.getSuspicionTimeMs(8, 1_000));
+    }
+
+    @Test
+    void jitteryLinkIsSuspectedLater() {
+        PhiAccrualDetector regular = new PhiAccrualDetector(WINDOW_SIZE, 10, 0, INTERVAL_MS);
+        long regularLastMs = feed(regular, regularIntervals(WINDOW_SIZE));
+        PhiAccrualDetector jittery = new PhiAccrualDetector(WINDOW_SIZE, 10, 0, INTERVAL_MS);
+        long jitteryLastMs = feed(jittery, jitteryIntervals(WINDOW_SIZE, 150));
+
+        assertTrue(jittery.getStdDevMs() > 100 && jittery.getStdDevMs() < 200, "Std Dev: " + jittery.getStdDevMs());
+        assertEquals(INTERVAL_MS, jittery.getMeanMs(), 50);
+
+        long regularDelayMs = regular.getSuspicionTimeMs(8, 60_000) - regularLastMs;
+        long jitteryDelayMs = jittery.getSuspicionTimeMs(8, 60_000) - jitteryLastMs;
+        assertTrue(jitteryDelayMs > regularDelayMs + 300, "Regular: " + regularDelayMs + " ms, Jittery: " + jitteryDelayMs + " ms");
+        assertTrue(jittery.phi(jitteryLastMs + jitteryDelayMs) >= 8);
+
+        // the same delay suspects the regular link more
+        for (long elapsedMs = 1_100; elapsedMs <= 2_000; elapsedMs += 100) {
+            assertTrue(regular.phi(regularLastMs + elapsedMs) > jittery.phi(jitteryLastMs + elapsedMs), "Elapsed: " + elapsedMs + " ms");
+        }
+    }
+}
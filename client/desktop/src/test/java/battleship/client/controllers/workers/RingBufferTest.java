@@ -0,0 +1,274 @@
+package battleship.client.controllers.workers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ring Buffer Test
+ * Slots reused across the wrap-around, waits of the full and empty buffer (both wait strategies), offer timeout, gauges
+ */
+class RingBufferTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+    /** Time a side is given to reach its wait */
+    private static final long SETTLE_MS = 100;
+
+    private static final class Slot {
+        private int value;
+    }
+
+    private static RingBuffer<Slot> ringBuffer(int capacity, RingBuffer.WaitStrategy waitStrategy) {
+        return new RingBuffer<>(capacity, Slot::new, waitStrategy);
+    }
+
+    private static void put(RingBuffer<Slot> ringBuffer, int value) throws InterruptedException {
+        ringBuffer.put(slot -> slot.value = value);
+    }
+
+    private static int take(RingBuffer<Slot> ringBuffer) throws InterruptedException {
+        return ringBuffer.take(slot -> slot.value);
+    }
+
+    private static Thread startThread(ThrowingRunnable runnable, CompletableFuture<Void> done) {
+        Thread thread = new Thread(() -> {
+            try {
+                runnable.run();
+                done.complete(null);
+            }
+            catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    @Test
+    void rejectsCapacityNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> ringBuffer(0, RingBuffer.WaitStrategy.BLOCKING));
+        assertThrows(IllegalArgumentException.class, () -> ringBuffer(3, RingBuffer.WaitStrategy.BLOCKING));
+        assertThrows(IllegalArgumentException.class, () -> ringBuffer(-4, RingBuffer.WaitStrategy.BLOCKING));
+        assertEquals(1, ringBuffer(1, RingBuffer.WaitStrategy.BLOCKING).getCapacity());
+    }
+
+    @Test
+    void wrapsAroundReusingSlots() throws InterruptedException {
+        RingBuffer<Slot> ringBuffer = ringBuffer(4, RingBuffer.WaitStrategy.BLOCKING);
+        List<Slot> slots = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ringBuffer.put(slots::add);
+        }
+        for (int i = 0; i < 4; i++) {
+            assertSame(slots.get(i), ringBuffer.take(slot -> slot));
+        }
+
+        for (int value = 0; value < 10; value++) {
+            put(ringBuffer, value);
+            put(ringBuffer, value + 100);
+            assertEquals(value, take(ringBuffer));
+            assertEquals(value + 100, take(ringBuffer));
+        }
+
+        for (int i = 0; i < 4; i++) {
+            int i_ = i;
+            ringBuffer.put(slot -> assertSame(slots.get((24 + i_) % 4), slot));
+            ringBuffer.take(slot -> slot);
+        }
+        assertEquals(28, ringBuffer.getPublishedCount());
+        assertEquals(0, ringBuffer.getDepth());
+    }
+
+    @Test
+    void keepsOrderAcrossWrapArounds() throws InterruptedException {
+        RingBuffer<Slot> ringBuffer = ringBuffer(8, RingBuffer.WaitStrategy.BLOCKING);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 100; round++) {
+            int count = round % 8 + 1;
+            for (int i = 0; i < count; i++) {
+                put(ringBuffer, next++);
+            }
+            assertEquals(count, ringBuffer.getDepth());
+            for (int i = 0; i < count; i++) {
+                assertEquals(expected++, take(ringBuffer));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(RingBuffer.WaitStrategy.class)
+    void takeWaitsWhileEmpty(RingBuffer.WaitStrategy waitStrategy) throws Exception {
+        RingBuffer<Slot> ringBuffer = ringBuffer(2, waitStrategy);
+        CompletableFuture<Integer> taken = new CompletableFuture<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        startThread(() -> taken.complete(take(ringBuffer)), done);
+
+        Thread.sleep(SETTLE_MS);
+        assertFalse(taken.isDone());
+
+        put(ringBuffer, 42);
+        assertEquals(42, taken.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        done.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @ParameterizedTest
+    @EnumSource(RingBuffer.WaitStrategy.class)
+    void putWaitsWhileFull(RingBuffer.WaitStrategy waitStrategy) throws Exception {
+        RingBuffer<Slot> ringBuffer = ringBuffer(2, waitStrategy);
+        put(ringBuffer, 1);
+        put(ringBuffer, 2);
+
+        AtomicBoolean isWritten = new AtomicBoolean();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        startThread(() -> ringBuffer.put(slot -> {
+            slot.value = 3;
+            isWritten.set(true);
+        }), done);
+
+        Thread.sleep(SETTLE_MS);
+        assertFalse(isWritten.get());
+        assertEquals(2, ringBuffer.getDepth());
+
+        assertEquals(1, take(ringBuffer));
+        done.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertTrue(isWritten.get());
+        assertEquals(2, take(ringBuffer));
+        assertEquals(3, take(ringBuffer));
+    }
+
+    @ParameterizedTest
+    @EnumSource(RingBuffer.WaitStrategy.class)
+    void offerTimesOutWhileFull(RingBuffer.WaitStrategy waitStrategy) throws InterruptedException {
+        RingBuffer<Slot> ringBuffer = ringBuffer(2, waitStrategy);
+        put(ringBuffer, 1);
+        put(ringBuffer, 2);
+
+        AtomicBoolean isWritten = new AtomicBoolean();
+        long startNs = System.nanoTime();
+        assertFalse(ringBuffer.offer(slot -> isWritten.set(true), TimeUnit.MILLISECONDS.toNanos(50)));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+
+        assertTrue(elapsedMs >= 50, "Elapsed: " + elapsedMs + " ms");
+        assertFalse(isWritten.get());
+        assertEquals(2, ringBuffer.getDepth());
+        assertEquals(2, ringBuffer.getPublishedCount());
+
+        assertEquals(1, take(ringBuffer));
+        assertTrue(ringBuffer.offer(slot -> slot.value = 3, 0));
+        assertEquals(2, take(ringBuffer));
+        assertEquals(3, take(ringBuffer));
+    }
+
+    @Test
+    void offerSucceedsOnceReleasedWithinTimeout() throws Exception {
+        RingBuffer<Slot> ringBuffer = ringBuffer(1, RingBuffer.WaitStrategy.BLOCKING);
+        put(ringBuffer, 1);
+
+        CompletableFuture<Boolean> offered = new CompletableFuture<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        startThread(() -> offered.complete(ringBuffer.offer(slot -> slot.value = 2, TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS))), done);
+
+        Thread.sleep(SETTLE_MS);
+        assertEquals(1, take(ringBuffer));
+        assertTrue(offered.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(2, take(ringBuffer));
+    }
+
+    @Test
+    void interruptsWaits() throws Exception {
+        RingBuffer<Slot> empty = ringBuffer(1, RingBuffer.WaitStrategy.BLOCKING);
+        CompletableFuture<Void> takeDone = new CompletableFuture<>();
+        Thread consumer = startThread(() -> take(empty), takeDone);
+
+        RingBuffer<Slot> full = ringBuffer(1, RingBuffer.WaitStrategy.BLOCKING);
+        put(full, 1);
+        CompletableFuture<Void> offerDone = new CompletableFuture<>();
+        Thread producer = startThread(() -> full.offer(slot -> slot.value = 2, Long.MAX_VALUE), offerDone);
+
+        Thread.sleep(SETTLE_MS);
+        consumer.interrupt();
+        producer.interrupt();
+
+        CountDownLatch failed = new CountDownLatch(2);
+        takeDone.whenComplete((value, e) -> {
+            if (e instanceof InterruptedException) {
+                failed.countDown();
+            }
+        });
+        offerDone.whenComplete((value, e) -> {
+            if (e instanceof InterruptedException) {
+                failed.countDown();
+            }
+        });
+        assertTrue(failed.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(1, full.getDepth());
+    }
+
+    @Test
+    void tracksHighWaterMark() throws InterruptedException {
+        RingBuffer<Slot> ringBuffer = ringBuffer(8, RingBuffer.WaitStrategy.BLOCKING);
+        assertEquals(0, ringBuffer.getHighWaterMark());
+
+        for (int i = 0; i < 3; i++) {
+            put(ringBuffer, i);
+        }
+        assertEquals(3, ringBuffer.getHighWaterMark());
+
+        take(ringBuffer);
+        take(ringBuffer);
+        put(ringBuffer, 3);
+        assertEquals(2, ringBuffer.getDepth());
+        assertEquals(3, ringBuffer.getHighWaterMark());
+
+        for (int i = 0; i < 6; i++) {
+            put(ringBuffer, i);
+        }
+        assertEquals(8, ringBuffer.getDepth());
+        assertEquals(8, ringBuffer.getHighWaterMark());
+
+        while (ringBuffer.getDepth() > 0) {
+            take(ringBuffer);
+        }
+        assertEquals(8, ringBuffer.getHighWaterMark());
+    }
+
+    @ParameterizedTest
+    @EnumSource(RingBuffer.WaitStrategy.class)
+    void handsOffInOrderBetweenThreads(RingBuffer.WaitStrategy waitStrategy) throws Exception {
+        RingBuffer<Slot> ringBuffer = ringBuffer(16, waitStrategy);
+        int count = 200_000;
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        startThread(() -> {
+            for (int i = 0; i < count; i++) {
+                put(ringBuffer, i);
+            }
+        }, done);
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, take(ringBuffer));
+        }
+        done.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertEquals(count, ringBuffer.getPublishedCount());
+        assertTrue(ringBuffer.getHighWaterMark() <= 16);
+    }
+}
@@ -3,10 +3,11 @@
 #include <regex>
 #include <limits>
 #include <array>
+#include <cctype>
 
 
-CliArgsParser::Result::Result(const std::string &ip, uint16_t port, size_t lim_clients, size_t lim_rooms)
-		: ip(ip), port(port), lim_clients(lim_clients), lim_rooms(lim_rooms) {
+CliArgsParser::Result::Result(const std::string &ip, uint16_t port, size_t lim_clients, size_t lim_rooms, const std::string &unix_path, const std::string &node)
+		: ip(ip), port(port), lim_clients(lim_clients), lim_rooms(lim_rooms), unix_path(unix_path), node(node) {
 	//
 }
 
@@ -31,10 +32,12 @@ CliArgsParser::Result CliArgsParser::Parse(int argc, char **argv) {
 	uint16_t port{};
 	size_t lim_clients{};
 	size_t lim_rooms{};
+	std::string unix_path{};
+	std::string node{};
 
 	std::array<bool, kExpected_Args_Cnt> parsed{};
 	try {
-		for (int opt; (opt = getopt_long(argc, argv, "i:p:c:r:", kOptions, nullptr)) != -1; ) {
+		for (int opt; (opt = getopt_long(argc, argv, "i:p:c:r:u:n:", kOptions, nullptr)) != -1; ) {
 			switch (opt) {
 				case 'i':
 					ip = Parse_IP(optarg);
@@ -52,6 +55,12 @@ CliArgsParser::Result CliArgsParser::Parse(int argc, char **argv) {
 					lim_rooms = Parse_Lim_Rooms(optarg);
 					parsed[3] = true;
 					break;
+				case 'u':
+					unix_path = optarg;
+					break;
+				case 'n':
+					node = Parse_Node(optarg);
+					break;
 				default:
 					break;
 			}
@@ -66,7 +75,7 @@ CliArgsParser::Result CliArgsParser::Parse(int argc, char **argv) {
 	if (!std::ranges::all_of(parsed, [](const bool item) { return item; })) {
 		throw std::invalid_argument{"Missing required options"};
 	}
-	return {ip, port, lim_clients, lim_rooms};
+	return {ip, port, lim_clients, lim_rooms, unix_path, node};
 }
 
 void CliArgsParser::Reset_Opt_Ind() {
@@ -112,3 +121,11 @@ size_t CliArgsParser::Parse_Lim_Rooms(const std::string &str) {
 
 	return num;
 }
+
+std::string CliArgsParser::Parse_Node(const std::string &str) {
+	if (str.size() == 1 && std::isdigit(static_cast<unsigned char>(str[0]))) {
+		return str;
+	}
+
+	throw std::invalid_argument{"Invalid node '" + str + "'"};
+}
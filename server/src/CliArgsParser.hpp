@@ -15,9 +15,11 @@ public:
 		const uint16_t port; /// Port
 		const size_t lim_clients; /// Clients Count Limit
 		const size_t lim_rooms; /// Rooms Count Limit
+		const std::string unix_path; /// Unix Domain Socket Path (optional, empty if none)
+		const std::string node; /// Node Digit Prefixing Room Codes (optional, empty if none)
 
 		/// Transparently constructs
-		Result(const std::string &ip, uint16_t port, size_t lim_clients, size_t lim_rooms);
+		Result(const std::string &ip, uint16_t port, size_t lim_clients, size_t lim_rooms, const std::string &unix_path, const std::string &node);
 	};
 
 	/// Ignore getopt error outputs
@@ -37,6 +39,8 @@ private:
 			{"port", required_argument, nullptr, 'p'},
 			{"lim-clients", required_argument, nullptr, 'c'},
 			{"lim-rooms", required_argument, nullptr, 'r'},
+			{"unix", required_argument, nullptr, 'u'},
+			{"node", required_argument, nullptr, 'n'},
 			nullptr
 	};
 
@@ -49,4 +53,5 @@ private:
 	static uint16_t Parse_Port(const std::string &str);
 	static size_t Parse_Lim_Clients(const std::string &str);
 	static size_t Parse_Lim_Rooms(const std::string &str);
+	static std::string Parse_Node(const std::string &str);
 };
@@ -17,6 +17,19 @@ public:
 	/// \return Mutex
 	virtual std::mutex &Get_Mutex() const = 0;
 
+	/// Returns connected clients count
+	/// \return Count
+	virtual size_t Get_Clients_Cnt() const = 0;
+	/// Returns clients count limit
+	/// \return Limit
+	virtual size_t Get_Lim_Clients() const = 0;
+	/// Returns rooms count
+	/// \return Count
+	virtual size_t Get_Rooms_Cnt() const = 0;
+	/// Returns the server node (digit prefixing room codes, empty if none)
+	/// \return Node
+	virtual const std::string &Get_Node() const = 0;
+
 	/// Returns rooms count limit
 	/// \return Limit
 	virtual size_t Get_Lim_Rooms() const = 0;
@@ -24,8 +37,9 @@ public:
 	/// \return Bool
 	virtual bool Is_Reached_Lim_Rooms() const = 0;
 	/// Creates a room
+	/// \param salvo_size Shots per turn (1 in a classic room)
 	/// \return Room code
-	virtual const std::string &Create_Room() = 0;
+	virtual const std::string &Create_Room(size_t salvo_size) = 0;
 
 	/// Returns whether a room with provided code exists
 	/// \param code Room code
@@ -62,4 +76,12 @@ public:
 	/// Reconnects a client
 	/// \param client Client
 	virtual void Reconnect_Client(std::shared_ptr<game::Client> &client) = 0;
+	/// Resumes a disconnected client's session by its resume token
+	/// Sends RESUMED, then replays the room events following the last one the client has applied
+	/// (full state if the room event log does not cover them or the client does not sequence events)
+	/// \param client Client
+	/// \param token Resume token
+	/// \param seq Sequence number of the last room event the client has applied
+	/// \return Whether the session has been resumed (false if there is no disconnected client with the token)
+	virtual bool Resume_Client(std::shared_ptr<game::Client> &client, const std::string &token, uint32_t seq) = 0;
 };
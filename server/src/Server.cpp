@@ -11,9 +11,12 @@
 #include <iostream>
 
 
-Server::Server(const std::string &addr, uint16_t port, size_t lim_clients, size_t lim_rooms) :
-		_lim_clients(lim_clients), _lim_rooms(lim_rooms), _sock_acceptor(addr, port) {
+Server::Server(const std::string &addr, uint16_t port, size_t lim_clients, size_t lim_rooms, const std::string &unix_path, const std::string &node) :
+		_lim_clients(lim_clients), _lim_rooms(lim_rooms), _node(node), _sock_acceptor(addr, port) {
 	util::Logger::Trace("Server.Server");
+	if (!unix_path.empty()) {
+		_unix_sock_acceptor = std::make_unique<ntwrk::SocketAcceptor>(ntwrk::SocketAcceptor::UnixPath{unix_path});
+	}
 }
 
 void Server::Serve() {
@@ -51,7 +54,10 @@ void Server::Serve() {
 
 std::unique_ptr<ntwrk::Socket> Server::Accept_Connection() const {
 	util::Logger::Trace("Server.Accept_Connection");
-	return std::make_unique<ntwrk::Socket>(_sock_acceptor.Accept());
+	if (!_unix_sock_acceptor) {
+		return std::make_unique<ntwrk::Socket>(_sock_acceptor.Accept());
+	}
+	return std::make_unique<ntwrk::Socket>(ntwrk::SocketAcceptor::Accept_Any({&_sock_acceptor, _unix_sock_acceptor.get()}));
 }
 
 void Server::Refuse_Connection(std::unique_ptr<ntwrk::Socket> sock) const {
@@ -68,6 +74,22 @@ void Server::Serve_Client(std::shared_ptr<game::Client> client) {
 	game::StateMachine::Run(*this, client);
 }
 
+size_t Server::Get_Clients_Cnt() const {
+	return _clients.size();
+}
+
+size_t Server::Get_Lim_Clients() const {
+	return _lim_clients;
+}
+
+size_t Server::Get_Rooms_Cnt() const {
+	return _rooms.size();
+}
+
+const std::string &Server::Get_Node() const {
+	return _node;
+}
+
 size_t Server::Get_Lim_Rooms() const {
 	return _lim_rooms;
 }
@@ -76,15 +98,15 @@ bool Server::Is_Reached_Lim_Rooms() const {
 	return _rooms.size() >= _lim_rooms;
 }
 
-const std::string &Server::Create_Room() {
+const std::string &Server::Create_Room(size_t salvo_size) {
 	util::Logger::Trace("Server.Create_Room");
 	for (;;) {
-		const std::string code = game::Room::Generate_Code();
+		const std::string code = game::Room::Generate_Code(_node);
 		if (Exists_Room(code)) {
 			continue;
 		}
 
-		std::shared_ptr<game::Room> room = std::make_shared<game::Room>(code);
+		std::shared_ptr<game::Room> room = std::make_shared<game::Room>(code, salvo_size);
 		_rooms.push_back(room);
 		return room->Get_Code();
 	}
@@ -145,7 +167,7 @@ void Server::Disconnect_Client(const std::shared_ptr<game::Client> client) {
 	std::shared_ptr<game::Room> room = Get_Room(client);
 	if (room && room->Is_Full()) {
 		const game::Client &opponent = room->Get_Opponent(*client);
-		opponent.Send_Msg(msgs::Messages::Opponent_No_Response(msgs::Messages::Duration::kShort));
+		room->Send_Event(opponent, msgs::Messages::Opponent_No_Response(msgs::Messages::Duration::kShort));
 	}
 
 	client->Send_Msg(msgs::Messages::Conn_Term());
@@ -155,29 +177,78 @@ void Server::Disconnect_Client(const std::shared_ptr<game::Client> client) {
 void Server::Reconnect_Client(std::shared_ptr<game::Client> &client) {
 	util::Logger::Trace("Server.Reconnect_Client " + client->Get_Nickname());
 	const auto it = std::ranges::find(_disconnected, client->Get_Nickname(), &game::Client::Get_Nickname);
-	const std::shared_ptr<game::Client> disconnected = *it;
-	_disconnected.erase(it);
+	Restore_Client(client, *it);
+
+	const std::shared_ptr<game::Room> room = Get_Room(client);
+
+	if (client->Get_State() == game::State::kIn_Room) {
+		client->Send_Msg(msgs::Messages::Rejoin(msgs::Messages::State::kIn_Room, room->Get_Code()));
+	}
+	else {
+		client->Send_Msg(msgs::Messages::Rejoin(msgs::Messages::State::kIn_Game, room->Get_Code()));
+	}
+
+	Send_Client_State(client);
+	client->Issue_Resume_Token();
+}
+
+bool Server::Resume_Client(std::shared_ptr<game::Client> &client, const std::string &token, uint32_t seq) {
+	util::Logger::Trace("Server.Resume_Client");
+	const auto it = std::ranges::find(_disconnected, token, &game::Client::Get_Resume_Token);
+	if (token.empty() || it == std::end(_disconnected)) {
+		return false;
+	}
+
+	Restore_Client(client, *it);
+	util::Logger::Info("Resumed " + client->Get_Nickname());
+	client->Send_Msg(msgs::Messages::Resumed());
+
+	const std::shared_ptr<game::Room> room = Get_Room(client);
+	std::optional<std::vector<msgs::Message>> events;
+	if (client->Get_Capabilities().contains(msgs::Messages::Capability::kSequence)) {
+		events = room->Get_Events_Since(*client, seq);
+	}
+	if (!events) {
+		util::Logger::Trace("Events Not Replayable");
+		Send_Client_State(client);
+		client->Issue_Resume_Token();
+		return true;
+	}
+
+	util::Logger::Trace("Replaying Events: " + std::to_string(events->size()));
+	for (const msgs::Message &msg : *events) {
+		client->Send_Msg(msg);
+	}
+
+	if (room->Is_Full()) {
+		room->Send_Event(room->Get_Opponent(*client), msgs::Messages::Opponent_Rejoin());
+	}
+	client->Issue_Resume_Token();
+	return true;
+}
+
+void Server::Restore_Client(std::shared_ptr<game::Client> &client, std::shared_ptr<game::Client> disconnected) {
+	_disconnected.erase(std::ranges::find(_disconnected, disconnected));
 
 	std::unique_ptr<ntwrk::Socket> sock = client->Give_Up_Socket();
 	auto last_active = client->Get_Last_Active();
+	auto capabilities = client->Get_Capabilities();
+	auto keep_alive_interval = client->Get_Keep_Alive_Interval();
 
 	*std::ranges::find(_clients, client) = disconnected;
 	client = disconnected;
 
 	client->Replace_Socket(std::move(sock));
 	client->Set_Last_Active(last_active);
+	client->Set_Capabilities(capabilities);
+	client->Set_Keep_Alive_Interval(keep_alive_interval);
+}
 
+void Server::Send_Client_State(const std::shared_ptr<game::Client> &client) const {
 	const std::shared_ptr<game::Room> room = Get_Room(client);
 
-	if (client->Get_State() == game::State::kIn_Room) {
-		client->Send_Msg(msgs::Messages::Rejoin(msgs::Messages::State::kIn_Room, room->Get_Code()));
-	}
-	else {
-		client->Send_Msg(msgs::Messages::Rejoin(msgs::Messages::State::kIn_Game, room->Get_Code()));
-	}
-
 	if (room->Is_Board_Ready(*client)) {
-		client->Send_Msg(msgs::Messages::Board_State(msgs::Messages::Client::kYou, room->Get_Board(*client)));
+		client->Send_Msg(msgs::Messages::Board_State(msgs::Messages::Client::kYou, room->Get_Board(*client), client->Get_Capabilities()));
 	}
 
 	if (room->Is_Full()) {
@@ -186,7 +257,7 @@ void Server::Reconnect_Client(std::shared_ptr<game::Client> &client) {
 			client->Send_Msg(msgs::Messages::Opponent_No_Response(msgs::Messages::Duration::kShort));
 		}
 
-		opponent.Send_Msg(msgs::Messages::Opponent_Rejoin());
+		room->Send_Event(opponent, msgs::Messages::Opponent_Rejoin());
 
 		client->Send_Msg(msgs::Messages::Opponent_Nickname_Set(opponent.Get_Nickname()));
 		if (room->Is_Board_Ready(opponent)) {
@@ -194,14 +265,15 @@ void Server::Reconnect_Client(std::shared_ptr<game::Client> &client) {
 		}
 
 		if (room->Is_Board_Ready(*client)) {
-			opponent.Send_Msg(msgs::Messages::Board_State(msgs::Messages::Client::kOpponent, room->Get_Board(*client)));
+			room->Send_Event(opponent, msgs::Messages::Board_State(msgs::Messages::Client::kOpponent, room->Get_Board(*client), opponent.Get_Capabilities()));
 		}
 		if (room->Is_Board_Ready(opponent)) {
-			client->Send_Msg(msgs::Messages::Board_State(msgs::Messages::Client::kOpponent, room->Get_Board(opponent)));
+			client->Send_Msg(msgs::Messages::Board_State(msgs::Messages::Client::kOpponent, room->Get_Board(opponent), client->Get_Capabilities()));
 		}
 	}
 
 	if (client->Get_State() == game::State::kIn_Game) {
+		client->Send_Msg(msgs::Messages::Game_Begin(room->Get_Salvo_Size()));
 		if (room->Is_On_Turn(*client)) {
 			client->Send_Msg(msgs::Messages::Turn_Set(msgs::Messages::Client::kYou));
 		}
@@ -211,10 +283,10 @@ void Server::Reconnect_Client(std::shared_ptr<game::Client> &client) {
 
 		if (room->Is_Full()) {
 			if (room->Is_On_Turn(*client)) {
-				room->Get_Opponent(*client).Send_Msg(msgs::Messages::Turn_Set(msgs::Messages::Client::kOpponent));
+				room->Send_Event(room->Get_Opponent(*client), msgs::Messages::Turn_Set(msgs::Messages::Client::kOpponent));
 			}
 			else {
-				room->Get_Opponent(*client).Send_Msg(msgs::Messages::Turn_Set(msgs::Messages::Client::kYou));
+				room->Send_Event(room->Get_Opponent(*client), msgs::Messages::Turn_Set(msgs::Messages::Client::kYou));
 			}
 		}
 	}
@@ -246,7 +318,7 @@ void Server::Clients_Terminator() {
 				if (room) {
 					if (room->Is_Full()) {
 						game::Client &opponent = room->Get_Opponent(*client);
-						opponent.Send_Msg(msgs::Messages::Opponent_No_Response(msgs::Messages::Duration::kLong));
+						room->Send_Event(opponent, msgs::Messages::Opponent_No_Response(msgs::Messages::Duration::kLong));
 						opponent.Set_State(game::State::kIn_Lobby);
 					}
 					Destroy_Room(room);
@@ -272,18 +344,20 @@ void Server::Clients_Alive_Keeper() const {
 	for (;;) {
 		std::unique_lock lck{Get_Mutex()};
 		util::Logger::Trace("Server.Clients_Alive_Keeper");
-		if (_clients.empty()) {
-			lck.unlock();
-			util::Logger::Trace("No Connected Clients");
-			std::this_thread::sleep_for(Interval_Keep_Alive);
-			continue;
-		}
 
+		// wakes up at least once per the shortest interval, so that new (or renegotiated) clients are not missed
+		const auto now = std::chrono::steady_clock::now();
+		auto wake_up_time_point = now + game::Client::kKeep_Alive_Interval_Min;
 		for (const std::shared_ptr<game::Client> &client : _clients) {
-			client->Send_Msg(msgs::Messages::Keep_Alive());
+			auto keep_alive_time_point = client->Get_Last_Sent() + client->Get_Keep_Alive_Interval();
+			if (keep_alive_time_point <= now) {
+				client->Send_Msg(msgs::Messages::Keep_Alive());
+				keep_alive_time_point = now + client->Get_Keep_Alive_Interval();
+			}
+			wake_up_time_point = std::min(wake_up_time_point, keep_alive_time_point);
 		}
 
 		lck.unlock();
-		std::this_thread::sleep_for(Interval_Keep_Alive);
+		std::this_thread::sleep_until(wake_up_time_point);
 	}
-}
+}
\ No newline at end of file
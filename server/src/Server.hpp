@@ -16,16 +16,23 @@ public:
 	/// \param port Port
 	/// \param lim_clients Clients count limit
 	/// \param lim_rooms Rooms count limit
-	Server(const std::string &addr, uint16_t port, size_t lim_clients, size_t lim_rooms);
+	/// \param unix_path Unix domain socket path to listen on as well (empty if none)
+	/// \param node Node digit prefixing room codes, so that clients route them to this server (empty if none)
+	Server(const std::string &addr, uint16_t port, size_t lim_clients, size_t lim_rooms, const std::string &unix_path = "", const std::string &node = "");
 
 	/// Serve Loop
 	void Serve();
 
 	std::mutex &Get_Mutex() const override;
 
+	size_t Get_Clients_Cnt() const override;
+	size_t Get_Lim_Clients() const override;
+	size_t Get_Rooms_Cnt() const override;
+	const std::string &Get_Node() const override;
+
 	size_t Get_Lim_Rooms() const override;
 	bool Is_Reached_Lim_Rooms() const override;
-	const std::string &Create_Room() override;
+	const std::string &Create_Room(size_t salvo_size) override;
 
 	bool Exists_Room(const std::string &code) const override;
 	std::shared_ptr<game::Room> Get_Room(const std::string &code) const override;
@@ -39,17 +46,18 @@ public:
 
 	void Disconnect_Client(const std::shared_ptr<game::Client> client) override;
 	void Reconnect_Client(std::shared_ptr<game::Client> &client) override;
+	bool Resume_Client(std::shared_ptr<game::Client> &client, const std::string &token, uint32_t seq) override;
 
 private:
 	static constexpr bool kIs_Timeout_Debug = false;
 	static constexpr std::chrono::minutes Timeout_Long{kIs_Timeout_Debug ? 15 : 2};
-	static constexpr bool kIs_Interval_Debug = false;
-	static constexpr std::chrono::seconds Interval_Keep_Alive{kIs_Interval_Debug ? 60 : 5};
 
 	const size_t _lim_clients;
 	const size_t _lim_rooms;
+	const std::string _node;
 
 	ntwrk::SocketAcceptor _sock_acceptor;
+	std::unique_ptr<ntwrk::SocketAcceptor> _unix_sock_acceptor; /// Unix domain socket acceptor (null if none)
 
 	std::vector<std::shared_ptr<game::Client>> _clients; /// Connected clients pool
 	std::vector<std::shared_ptr<game::Client>> _disconnected; /// Disconnected clients pool
@@ -60,9 +68,17 @@ private:
 	std::unique_ptr<ntwrk::Socket> Accept_Connection() const;
 	void Refuse_Connection(std::unique_ptr<ntwrk::Socket> sock) const;
 
+	/// Replaces the (new) client with the disconnected one, which takes over the connection
+	/// \param client Client (replaced)
+	/// \param disconnected Disconnected client
+	void Restore_Client(std::shared_ptr<game::Client> &client, std::shared_ptr<game::Client> disconnected);
+	/// Sends the full room (game) state of a restored client to it and to its opponent
+	/// \param client Client
+	void Send_Client_State(const std::shared_ptr<game::Client> &client) const;
+
 	/// Serve Client Loop
 	/// \param client Client
 	void Serve_Client(std::shared_ptr<game::Client> client);
-	void Clients_Alive_Keeper() const; /// Keep Alive Loop
+	void Clients_Alive_Keeper() const; /// Keep Alive Loop (sends only to clients idle for their keep alive interval)
 	void Clients_Terminator(); /// Terminator Loop
 };
@@ -101,7 +101,23 @@ namespace game {
 
 	bool Board::Turn(size_t row, size_t col) {
 		_latest_invalidated.clear();
+		return Shoot(row, col);
+	}
+
+	std::vector<bool> Board::Salvo(const std::vector<std::pair<size_t, size_t>> &fields_pos) {
+		_latest_invalidated.clear();
+
+		std::vector<bool> hits;
+		for (const std::pair<size_t, size_t> &field_pos : fields_pos) {
+			hits.push_back(Shoot(field_pos.first, field_pos.second));
+			if (Is_All_Ships_Guessed()) {
+				break;
+			}
+		}
+		return hits;
+	}
 
+	bool Board::Shoot(size_t row, size_t col) {
 		const size_t field_idx = Get_Field_Idx(row, col);
 		const bool is_ship = _ships[field_idx];
 		_guesses[field_idx] = true;
@@ -159,4 +175,16 @@ namespace game {
 		return {row, col};
 	}
 
+	std::vector<std::pair<size_t, size_t>> Board::Deserialize_Fields(const std::string &fields) {
+		if (fields.empty() || fields.length() % 2 != 0) {
+			throw std::invalid_argument{"Invalid Fields Positions Length"};
+		}
+
+		std::vector<std::pair<size_t, size_t>> fields_pos;
+		for (size_t i = 0; i < fields.length(); i += 2) {
+			fields_pos.push_back(Deserialize_Field(fields.substr(i, 2)));
+		}
+		return fields_pos;
+	}
+
 } // game
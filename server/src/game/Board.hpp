@@ -56,6 +56,12 @@ namespace game {
 		/// \param col Col
 		/// \return True if hit, else false
 		bool Turn(size_t row, size_t col);
+		/// Performs a salvo of turns on the fields (in order)
+		/// Latest invalidated fields are the ones invalidated by all the turns of the salvo
+		/// Turns following the one which has guessed all ships are not performed
+		/// \param fields_pos Fields (row, col)
+		/// \return For each performed turn, true if hit, else false
+		std::vector<bool> Salvo(const std::vector<std::pair<size_t, size_t>> &fields_pos);
 
 		/// Serializes (row, col)
 		/// \param row Row
@@ -66,6 +72,10 @@ namespace game {
 		/// \param field Field string representation
 		/// \return (row, col)
 		static std::pair<size_t, size_t> Deserialize_Field(const std::string &field);
+		/// Deserializes concatenated fields string representations
+		/// \param fields Fields string representation
+		/// \return Fields (row, col)
+		static std::vector<std::pair<size_t, size_t>> Deserialize_Fields(const std::string &fields);
 
 	private:
 		static const std::map<size_t, size_t> kShips_Sizes_Cnts;
@@ -76,6 +86,12 @@ namespace game {
 
 		std::vector<std::pair<size_t, size_t>> _latest_invalidated;
 
+		/// Guesses (row, col), appends fields invalidated by sinking a ship to latest invalidated fields
+		/// \param row Row
+		/// \param col Col
+		/// \return True if hit, else false
+		bool Shoot(size_t row, size_t col);
+
 		static size_t Get_Field_Idx(size_t row, size_t col);
 	};
 
@@ -1,6 +1,7 @@
 #include "Client.hpp"
 #include "../msgs/Messages.hpp"
 #include "../util/Logger.hpp"
+#include "../util/Generator.hpp"
 
 #include <iomanip>
 
@@ -49,6 +50,19 @@ namespace game {
 		_last_active = time_point;
 	}
 
+	std::chrono::time_point<std::chrono::steady_clock> Client::Get_Last_Sent() const {
+		return _last_sent;
+	}
+
+	std::chrono::seconds Client::Get_Keep_Alive_Interval() const {
+		return _keep_alive_interval;
+	}
+
+	void Client::Set_Keep_Alive_Interval(std::chrono::seconds interval) {
+		util::Logger::Info("Client.Set_Keep_Alive_Interval " + std::to_string(interval.count()));
+		_keep_alive_interval = interval;
+	}
+
 	const std::string &Client::Get_Nickname() const {
 		return _nickname;
 	}
@@ -58,12 +72,38 @@ namespace game {
 		_nickname = nickname;
 	}
 
+	const std::set<msgs::Messages::Capability> &Client::Get_Capabilities() const {
+		return _capabilities;
+	}
+
+	void Client::Set_Capabilities(const std::set<msgs::Messages::Capability> &capabilities) {
+		util::Logger::Info("Client.Set_Capabilities " + msgs::Messages::Capabilities(capabilities).Get_Param(0));
+		_capabilities = capabilities;
+	}
+
+	const std::string &Client::Get_Resume_Token() const {
+		return _resume_token;
+	}
+
+	void Client::Issue_Resume_Token() {
+		util::Logger::Trace("Client.Issue_Resume_Token");
+		_resume_token = util::Generator::Token(kResume_Token_Bytes_Cnt);
+		Send_Msg(msgs::Messages::Resume_Token(_resume_token));
+	}
+
 	void Client::Send_Msg(const msgs::Message &msg) const {
 		util::Logger::Trace("Client.Send_Msg " + msg.Serialize());
 		if (!_sock) {
 			return;
 		}
-		msgs::Communicator::Send(*_sock, msg);
+		_last_sent = std::chrono::steady_clock::now();
+		if (msg.Get_Seq() != 0 && !_capabilities.contains(msgs::Messages::Capability::kSequence)) {
+			msgs::Message unsequenced = msg;
+			unsequenced.Set_Seq(0);
+			msgs::Communicator::Send(*_sock, unsequenced, Get_Framing());
+			return;
+		}
+		msgs::Communicator::Send(*_sock, msg, Get_Framing());
 	}
 
 	void Client::Send_Ack() const {
@@ -75,7 +115,7 @@ namespace game {
 		if (!_sock) {
 			throw ntwrk::SocketException{"Closed Client Socket"};
 		}
-		return msgs::Communicator::Recv(*_sock);
+		return msgs::Communicator::Recv(*_sock, Get_Framing());
 	}
 
 	std::unique_ptr<ntwrk::Socket> Client::Give_Up_Socket() {
@@ -93,4 +133,8 @@ namespace game {
 		_sock = nullptr;
 	}
 
+	msgs::Framing Client::Get_Framing() const {
+		return _capabilities.contains(msgs::Messages::Capability::kBinary) ? msgs::Framing::kBinary : msgs::Framing::kText;
+	}
+
 } // game
\ No newline at end of file
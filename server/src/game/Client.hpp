@@ -6,6 +6,7 @@
 #include "I_ClientOps.hpp"
 
 #include <chrono>
+#include <atomic>
 
 
 namespace game {
@@ -23,6 +24,10 @@ namespace game {
 
 	class Client : public I_ClientOps {
 	public:
+		static constexpr bool kIs_Interval_Debug = false;
+		static constexpr std::chrono::seconds kKeep_Alive_Interval_Min{kIs_Interval_Debug ? 60 : 5}; /// Also the default
+		static constexpr std::chrono::seconds kKeep_Alive_Interval_Max{kIs_Interval_Debug ? 60 : 20};
+
 		/// Transparently constructs
 		/// \param sock Socket
 		explicit Client(std::unique_ptr<ntwrk::Socket> sock);
@@ -42,9 +47,20 @@ namespace game {
 		const std::chrono::time_point<std::chrono::steady_clock> &Get_Last_Active() const override;
 		void Set_Last_Active(const std::chrono::time_point<std::chrono::steady_clock> &time_point) override;
 
+		std::chrono::time_point<std::chrono::steady_clock> Get_Last_Sent() const override;
+
+		std::chrono::seconds Get_Keep_Alive_Interval() const override;
+		void Set_Keep_Alive_Interval(std::chrono::seconds interval) override;
+
 		const std::string &Get_Nickname() const override;
 		void Set_Nickname(const std::string &nickname) override;
 
+		const std::set<msgs::Messages::Capability> &Get_Capabilities() const override;
+		void Set_Capabilities(const std::set<msgs::Messages::Capability> &capabilities) override;
+
+		const std::string &Get_Resume_Token() const override;
+		void Issue_Resume_Token() override;
+
 		msgs::Message Recv_Msg() const override;
 		void Send_Msg(const msgs::Message &msg) const override;
 		void Send_Ack() const override;
@@ -54,11 +70,19 @@ namespace game {
 		void Close_Socket() override;
 
 	private:
+		static constexpr size_t kResume_Token_Bytes_Cnt = 16;
+
 		std::unique_ptr<ntwrk::Socket> _sock;
 
 		std::string _nickname;
 		State _state;
 		std::chrono::time_point<std::chrono::steady_clock> _last_active;
+		mutable std::atomic<std::chrono::time_point<std::chrono::steady_clock>> _last_sent{std::chrono::steady_clock::now()};
+		std::chrono::seconds _keep_alive_interval{kKeep_Alive_Interval_Min};
+		std::set<msgs::Messages::Capability> _capabilities;
+		std::string _resume_token;
+
+		msgs::Framing Get_Framing() const;
 	};
 
 } // game
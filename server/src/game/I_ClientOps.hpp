@@ -5,6 +5,7 @@
 #include <memory>
 
 #include "../msgs/Message.hpp"
+#include "../msgs/Messages.hpp"
 
 
 namespace game {
@@ -26,6 +27,19 @@ namespace game {
 		/// \param time_point Last active time point
 		virtual void Set_Last_Active(const std::chrono::time_point<std::chrono::steady_clock> &time_point) = 0;
 
+		/// Returns last sent time point (last sent message)
+		/// \return Last sent time point
+		virtual std::chrono::time_point<std::chrono::steady_clock> Get_Last_Sent() const = 0;
+
+		/// Returns keep alive interval negotiated with the client
+		/// Keep alive messages are sent only once no message has been sent to the client for the interval
+		/// The client is timed out once no message has been received from it for a few intervals
+		/// \return Keep alive interval
+		virtual std::chrono::seconds Get_Keep_Alive_Interval() const = 0;
+		/// Sets keep alive interval negotiated with the client
+		/// \param interval Keep alive interval
+		virtual void Set_Keep_Alive_Interval(std::chrono::seconds interval) = 0;
+
 		/// Returns nickname
 		/// \return Nickname
 		virtual const std::string &Get_Nickname() const = 0;
@@ -33,6 +47,19 @@ namespace game {
 		/// \param nickname Nickname
 		virtual void Set_Nickname(const std::string &nickname) = 0;
 
+		/// Returns capabilities negotiated with the client
+		/// \return Capabilities
+		virtual const std::set<msgs::Messages::Capability> &Get_Capabilities() const = 0;
+		/// Sets capabilities negotiated with the client (BINARY switches the framing of following messages)
+		/// \param capabilities Capabilities
+		virtual void Set_Capabilities(const std::set<msgs::Messages::Capability> &capabilities) = 0;
+
+		/// Returns the resume token (empty if none has been issued)
+		/// \return Resume token
+		virtual const std::string &Get_Resume_Token() const = 0;
+		/// Issues a new resume token (the previous one is no longer valid) and sends it to the client
+		virtual void Issue_Resume_Token() = 0;
+
 		/// Receives a message (blocks)
 		/// \throws SocketException if socket is closed by the other side or if there is any other problem
 		/// \throws IllegalMessageException if it is unexpected/unknown incoming message (type, parameters count)
@@ -40,6 +67,7 @@ namespace game {
 
 		/// Sends the provided message (does not block)
 		/// Does not throw if socket is closed by the other side or if there is any other problem
+		/// Event sequence number is sent only if the client has the SEQUENCE capability
 		/// \param msg Message
 		virtual void Send_Msg(const msgs::Message &msg) const = 0;
 		/// Sends ACK message (does not block)
@@ -7,13 +7,14 @@
 
 namespace game {
 
-	Room::Room(const std::string &code) : _code(code) {
+	Room::Room(const std::string &code, size_t salvo_size) : _code(code), _salvo_size(salvo_size) {
 		util::Logger::Trace("Room.Room " + code);
 	}
 
-	std::string Room::Generate_Code() {
+	std::string Room::Generate_Code(const std::string &prefix) {
 		std::ostringstream osstream;
-		for (size_t i = 0; i < kRoom_Code_Len; ++i) {
+		osstream << prefix;
+		for (size_t i = prefix.size(); i < kRoom_Code_Len; ++i) {
 			osstream << (util::Generator::From_Range(0, 9));
 		}
 		return osstream.str();
@@ -23,6 +24,10 @@ namespace game {
 		return _code;
 	}
 
+	size_t Room::Get_Salvo_Size() const {
+		return _salvo_size;
+	}
+
 	const std::array<std::shared_ptr<Client>, Room::kClients_Cnt> &Room::Get_Clients() const {
 		return _clients;
 	}
@@ -69,6 +74,30 @@ namespace game {
 		_client_on_turn_idx = Get_Client_Idx(Get_Opponent(client));
 	}
 
+	void Room::Send_Event(const Client &recipient, msgs::Message msg) {
+		const size_t idx = Get_Client_Idx(recipient);
+		msg.Set_Seq(++_events_seqs[idx]);
+
+		std::deque<msgs::Message> &events = _events[idx];
+		events.push_back(msg);
+		if (events.size() > kMax_Events_Cnt) {
+			events.pop_front();
+		}
+
+		recipient.Send_Msg(msg);
+	}
+
+	std::optional<std::vector<msgs::Message>> Room::Get_Events_Since(const Client &recipient, uint32_t seq) {
+		const size_t idx = Get_Client_Idx(recipient);
+		const std::deque<msgs::Message> &events = _events[idx];
+		const uint32_t first_seq = _events_seqs[idx] - events.size() + 1;
+		if (seq > _events_seqs[idx] || seq + 1 < first_seq) {
+			return std::nullopt;
+		}
+
+		return std::vector<msgs::Message>{events.begin() + (seq + 1 - first_seq), events.end()};
+	}
+
 	Client &Room::Get_Client_On_Turn() const {
 		return *(_clients[_client_on_turn_idx]);
 	}
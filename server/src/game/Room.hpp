@@ -3,6 +3,9 @@
 #include "Client.hpp"
 #include "Board.hpp"
 
+#include <deque>
+#include <optional>
+
 
 namespace game {
 
@@ -13,17 +16,24 @@ namespace game {
 		static constexpr size_t kClients_Cnt = 2;
 		/// Room Code Length
 		static constexpr size_t kRoom_Code_Len = 4;
+		/// Salvo Size (shots per turn in a salvo room)
+		static constexpr size_t kSalvo_Size = 3;
 
 		/// Transparently constructs
 		/// \param code Room code
-		explicit Room(const std::string &code);
+		/// \param salvo_size Shots per turn (1 in a classic room)
+		explicit Room(const std::string &code, size_t salvo_size = 1);
 
 		/// Generates a random room code
+		/// \param prefix Prefix of the code (e.g. the server node, so that the code is routable to it), the rest is random
 		/// \return Random code
-		static std::string Generate_Code();
+		static std::string Generate_Code(const std::string &prefix = "");
 		/// Returns room code
 		/// \return Code
 		const std::string &Get_Code() const;
+		/// Returns shots per turn
+		/// \return Salvo size (1 in a classic room)
+		size_t Get_Salvo_Size() const;
 
 		/// Returns clients in the room
 		/// \return Clients in the room
@@ -65,6 +75,17 @@ namespace game {
 		/// \param client Client
 		void Set_Opponent_On_Turn(const Client &client);
 
+		/// Sends a game event to the client, numbered in the client's event stream of the room
+		/// The event is kept in the bounded event log of the stream (for replay on resume)
+		/// \param recipient Client
+		/// \param msg Event message
+		void Send_Event(const Client &recipient, msgs::Message msg);
+		/// Returns the client's events following the sequence number
+		/// \param recipient Client
+		/// \param seq Sequence number of the last event the client has applied
+		/// \return Events (in order), nullopt if the event log does not cover all of them
+		std::optional<std::vector<msgs::Message>> Get_Events_Since(const Client &recipient, uint32_t seq);
+
 		/// Returns client on turn
 		/// \return Client on turn
 		Client &Get_Client_On_Turn() const;
@@ -74,7 +95,11 @@ namespace game {
 		bool Is_On_Turn(const Client &client) const;
 
 	private:
+		/// Max events kept in an event log
+		static constexpr size_t kMax_Events_Cnt = 128;
+
 		std::string _code;
+		size_t _salvo_size;
 
 		std::array<std::shared_ptr<Client>, kClients_Cnt> _clients;
 		std::array<Board, kClients_Cnt> _boards;
@@ -83,6 +108,9 @@ namespace game {
 
 		size_t _client_on_turn_idx;
 
+		std::array<uint32_t, kClients_Cnt> _events_seqs{}; /// Sequence numbers of the last events sent to the clients
+		std::array<std::deque<msgs::Message>, kClients_Cnt> _events; /// Event logs of the clients
+
 		size_t Get_Client_Idx(const Client &client) const;
 	};
 
@@ -6,33 +6,47 @@
 #include "iostream"
 #include "../util/Logger.hpp"
 #include <future>
+#include <algorithm>
 namespace game {
 
 	const std::map<State, std::set<msgs::MessageType>> StateMachine::kExpected_Msgs{
-		{State::kInit, {msgs::MessageType::kNickname_Set}},
-		{State::kIn_Lobby, {msgs::MessageType::kRoom_Create, msgs::MessageType::kRoom_Join}},
+		{State::kInit, {msgs::MessageType::kCapabilities, msgs::MessageType::kNickname_Set, msgs::MessageType::kResume}},
+		{State::kIn_Lobby, {msgs::MessageType::kRoom_Create, msgs::MessageType::kRoom_Create_Salvo, msgs::MessageType::kRoom_Join}},
 		{State::kIn_Room, {msgs::MessageType::kRoom_Leave, msgs::MessageType::kBoard_Ready}},
-		{State::kIn_Game, {msgs::MessageType::kRoom_Leave, msgs::MessageType::kTurn}}
+		{State::kIn_Game, {msgs::MessageType::kRoom_Leave, msgs::MessageType::kTurn, msgs::MessageType::kSalvo}}
 	};
 
 	const std::map<std::pair<State, msgs::MessageType>, State> StateMachine::kSuccess_Transitions{
+		{{State::kInit, msgs::MessageType::kCapabilities}, State::kInit},
 		{{State::kInit, msgs::MessageType::kNickname_Set}, State::kIn_Lobby},
 		{{State::kIn_Lobby, msgs::MessageType::kRoom_Create}, State::kIn_Room},
+		{{State::kIn_Lobby, msgs::MessageType::kRoom_Create_Salvo}, State::kIn_Room},
 		{{State::kIn_Lobby, msgs::MessageType::kRoom_Join}, State::kIn_Room},
 		{{State::kIn_Room, msgs::MessageType::kRoom_Leave}, State::kIn_Lobby},
 		{{State::kIn_Room, msgs::MessageType::kBoard_Ready}, State::kIn_Room},
 		{{State::kIn_Game, msgs::MessageType::kRoom_Leave}, State::kIn_Lobby},
-		{{State::kIn_Game, msgs::MessageType::kTurn}, State::kIn_Game}
+		{{State::kIn_Game, msgs::MessageType::kTurn}, State::kIn_Game},
+		{{State::kIn_Game, msgs::MessageType::kSalvo}, State::kIn_Game}
 	};
 
 	const std::map<std::pair<State, msgs::MessageType>, t_Handler> StateMachine::kHandlers{
+		{{State::kInit, msgs::MessageType::kCapabilities}, &StateMachine::Handle_Capabilities},
 		{{State::kInit, msgs::MessageType::kNickname_Set}, &StateMachine::Handle_Nickname_Set},
+		{{State::kInit, msgs::MessageType::kResume}, &StateMachine::Handle_Resume},
 		{{State::kIn_Lobby, msgs::MessageType::kRoom_Create}, &StateMachine::Handle_Room_Create},
+		{{State::kIn_Lobby, msgs::MessageType::kRoom_Create_Salvo}, &StateMachine::Handle_Room_Create},
 		{{State::kIn_Lobby, msgs::MessageType::kRoom_Join}, &StateMachine::Handle_Room_Join},
 		{{State::kIn_Room, msgs::MessageType::kRoom_Leave}, &StateMachine::Handle_Room_Leave},
 		{{State::kIn_Room, msgs::MessageType::kBoard_Ready}, &StateMachine::Handle_Board_Ready},
 		{{State::kIn_Game, msgs::MessageType::kRoom_Leave}, &StateMachine::Handle_Room_Leave},
-		{{State::kIn_Game, msgs::MessageType::kTurn}, &StateMachine::Handle_Turn}
+		{{State::kIn_Game, msgs::MessageType::kTurn}, &StateMachine::Handle_Turn},
+		{{State::kIn_Game, msgs::MessageType::kSalvo}, &StateMachine::Handle_Salvo}
+	};
+
+	const std::map<msgs::MessageType, t_Handler> StateMachine::kAny_State_Handlers{
+		{msgs::MessageType::kKeep_Alive_Interval, &StateMachine::Handle_Keep_Alive_Interval},
+		{msgs::MessageType::kKeep_Alive_Echo, &StateMachine::Handle_Keep_Alive_Echo},
+		{msgs::MessageType::kServer_Load, &StateMachine::Handle_Server_Load}
 	};
 
 	void StateMachine::Run(I_ServerOps &server, std::shared_ptr<Client> client) {
@@ -53,6 +67,13 @@ namespace game {
 
 				std::lock_guard lck{_server.Get_Mutex()};
 
+				const auto any_state_handler = kAny_State_Handlers.find(msg.Get_Type());
+				if (any_state_handler != kAny_State_Handlers.end()) {
+					util::Logger::Trace("Handle Msg: " + msg.Serialize());
+					any_state_handler->second(*this, msg);
+					continue;
+				}
+
 				if (!kExpected_Msgs.at(_client->Get_State()).contains(msg.Get_Type())) {
 					throw msgs::IllegalMessageException{"Illegal Client State Message"};
 				}
@@ -109,7 +130,7 @@ namespace game {
 
 			std::thread thread{Get_Msg, std::ref(*_client), std::ref(promise)};
 
-			auto future_status = future.wait_until(_client->Get_Last_Active() + Timeout_Short);
+			auto future_status = future.wait_until(_client->Get_Last_Active() + _client->Get_Keep_Alive_Interval() * kTimeout_Keep_Alive_Intervals_Cnt);
 			if (future_status == std::future_status::timeout) {
 				// ! Linux specific ! //
 				const pthread_t handle = thread.native_handle();
@@ -132,6 +153,15 @@ namespace game {
 		}
 	}
 
+	bool StateMachine::Handle_Capabilities(const msgs::Message &msg) {
+		const std::set<msgs::Messages::Capability> capabilities = msgs::Messages::Parse_Capabilities(msg.Get_Param(0));
+
+		// accepted in the current framing, following messages use the negotiated one
+		_client->Send_Msg(msgs::Messages::Capabilities(capabilities));
+		_client->Set_Capabilities(capabilities);
+		return true;
+	}
+
 	bool StateMachine::Handle_Nickname_Set(const msgs::Message &msg) {
 		const std::string &nickname = msg.Get_Param(0);
 
@@ -150,6 +180,50 @@ namespace game {
 
 		_client->Set_Nickname(nickname);
 		_client->Send_Ack();
+		_client->Issue_Resume_Token();
+		return true;
+	}
+
+	bool StateMachine::Handle_Resume(const msgs::Message &msg) {
+		uint32_t seq;
+		try {
+			seq = std::stoul(msg.Get_Param(1));
+		}
+		catch (const std::logic_error &) {
+			throw msgs::IllegalMessageException{"Illegal Resume Sequence Number"};
+		}
+
+		if (!_server.Resume_Client(_client, msg.Get_Param(0), seq)) {
+			util::Logger::Trace("Resume Rejected");
+			_client->Send_Msg(msgs::Messages::Resume_Rejected());
+		}
+		return false;
+	}
+
+	bool StateMachine::Handle_Keep_Alive_Interval(const msgs::Message &msg) {
+		std::chrono::seconds interval;
+		try {
+			interval = std::chrono::seconds{std::stoul(msg.Get_Param(0))};
+		}
+		catch (const std::logic_error &) {
+			throw msgs::IllegalMessageException{"Illegal Keep Alive Interval"};
+		}
+
+		// accepted (clamped) interval applies once the response is sent
+		interval = std::clamp(interval, Client::kKeep_Alive_Interval_Min, Client::kKeep_Alive_Interval_Max);
+		_client->Send_Msg(msgs::Messages::Keep_Alive_Interval(interval.count()));
+		_client->Set_Keep_Alive_Interval(interval);
+		return true;
+	}
+
+	bool StateMachine::Handle_Keep_Alive_Echo(const msgs::Message &msg) {
+		_client->Send_Msg(msgs::Messages::Keep_Alive_Echo(msg.Get_Param(0)));
+		return true;
+	}
+
+	bool StateMachine::Handle_Server_Load(const msgs::Message &msg) {
+		_client->Send_Msg(msgs::Messages::Server_Load(_server.Get_Clients_Cnt(), _server.Get_Lim_Clients(),
+													  _server.Get_Rooms_Cnt(), _server.Get_Lim_Rooms(), _server.Get_Node()));
 		return true;
 	}
 
@@ -160,7 +234,8 @@ namespace game {
 			return false;
 		}
 
-		const std::string &code = _server.Create_Room();
+		const size_t salvo_size = msg.Get_Type() == msgs::MessageType::kRoom_Create_Salvo ? Room::kSalvo_Size : 1;
+		const std::string &code = _server.Create_Room(salvo_size);
 		const std::shared_ptr<Room> room = _server.Get_Room(code);
 
 		room->Join(_client);
@@ -188,11 +263,11 @@ namespace game {
 		_client->Send_Ack();
 
 		const Client &opponent = room->Get_Opponent(*_client);
-		_client->Send_Msg(msgs::Messages::Opponent_Nickname_Set(opponent.Get_Nickname()));
-		opponent.Send_Msg(msgs::Messages::Opponent_Nickname_Set(_client->Get_Nickname()));
+		room->Send_Event(*_client, msgs::Messages::Opponent_Nickname_Set(opponent.Get_Nickname()));
+		room->Send_Event(opponent, msgs::Messages::Opponent_Nickname_Set(_client->Get_Nickname()));
 
 		if (room->Is_Board_Ready(opponent)) {
-			_client->Send_Msg(msgs::Messages::Opponent_Board_Ready());
+			room->Send_Event(*_client, msgs::Messages::Opponent_Board_Ready());
 		}
 
 		return true;
@@ -207,7 +282,7 @@ namespace game {
 		if (room->Is_Full()) {
 			Client &opponent = room->Get_Opponent(*_client);
 
-			opponent.Send_Msg(msgs::Messages::Opponent_Room_Leave());
+			room->Send_Event(opponent, msgs::Messages::Opponent_Room_Leave());
 			opponent.Set_State(State::kIn_Lobby);
 
 			if (_server.Is_Nickname_Disconnected(opponent.Get_Nickname())) {
@@ -253,12 +328,12 @@ namespace game {
 		}
 
 		Client &opponent = room->Get_Opponent(*_client);
-		opponent.Send_Msg(msgs::Messages::Opponent_Board_Ready());
+		room->Send_Event(opponent, msgs::Messages::Opponent_Board_Ready());
 
 		if (room->Is_Board_Ready(opponent)) {
 			util::Logger::Info("Game Begin " + room->Get_Code());
-			_client->Send_Msg(msgs::Messages::Game_Begin());
-			opponent.Send_Msg(msgs::Messages::Game_Begin());
+			room->Send_Event(*_client, msgs::Messages::Game_Begin(room->Get_Salvo_Size()));
+			room->Send_Event(opponent, msgs::Messages::Game_Begin(room->Get_Salvo_Size()));
 
 			_client->Set_State(State::kIn_Game);
 			opponent.Set_State(State::kIn_Game);
@@ -266,8 +341,8 @@ namespace game {
 			room->Set_Random_Client_On_Turn();
 
 			const Client &client_on_turn = room->Get_Client_On_Turn();
-			client_on_turn.Send_Msg(msgs::Messages::Turn_Set(msgs::Messages::Client::kYou));
-			room->Get_Opponent(client_on_turn).Send_Msg(msgs::Messages::Turn_Set(msgs::Messages::Client::kOpponent));
+			room->Send_Event(client_on_turn, msgs::Messages::Turn_Set(msgs::Messages::Client::kYou));
+			room->Send_Event(room->Get_Opponent(client_on_turn), msgs::Messages::Turn_Set(msgs::Messages::Client::kOpponent));
 
 			return false;
 		}
@@ -299,43 +374,97 @@ namespace game {
 			if (board.Turn(field_pos.first, field_pos.second)) {
 				util::Logger::Info("Hit");
 				_client->Send_Msg(msgs::Messages::Turn_Result(field_pos.first, field_pos.second, msgs::Messages::Turn_Res::kHit));
-				opponent.Send_Msg(msgs::Messages::Opponent_Turn(field_pos.first, field_pos.second, msgs::Messages::Turn_Res::kHit));
-
-				for (const std::pair<size_t, size_t> &invalidated_field_pos : board.Get_Latest_Invalidated()) {
-					_client->Send_Msg(msgs::Messages::Invalidate_Field(msgs::Messages::Client::kOpponent, invalidated_field_pos.first, invalidated_field_pos.second));
-					opponent.Send_Msg(msgs::Messages::Invalidate_Field(msgs::Messages::Client::kYou, invalidated_field_pos.first, invalidated_field_pos.second));
-				}
-
-				if (board.Is_All_Ships_Guessed()) {
-					util::Logger::Info("Game End " + room->Get_Code() + _client->Get_Nickname());
-
-					_client->Send_Msg(msgs::Messages::Game_End(msgs::Messages::Client::kYou));
-					opponent.Send_Msg(msgs::Messages::Game_End(msgs::Messages::Client::kOpponent));
-
-					_client->Set_State(State::kIn_Room);
-					opponent.Set_State(State::kIn_Room);
-					room->Reset_Boards();
-					return false;
-				}
+				room->Send_Event(opponent, msgs::Messages::Opponent_Turn(field_pos.first, field_pos.second, msgs::Messages::Turn_Res::kHit));
+				return End_Turn(*room, opponent, true);
 			}
 			else {
 				util::Logger::Info("Miss");
 				_client->Send_Msg(msgs::Messages::Turn_Result(field_pos.first, field_pos.second, msgs::Messages::Turn_Res::kMiss));
-				opponent.Send_Msg(msgs::Messages::Opponent_Turn(field_pos.first, field_pos.second, msgs::Messages::Turn_Res::kMiss));
+				room->Send_Event(opponent, msgs::Messages::Opponent_Turn(field_pos.first, field_pos.second, msgs::Messages::Turn_Res::kMiss));
+				return End_Turn(*room, opponent, false);
+			}
+		}
+		catch (const std::invalid_argument &e) {
+			util::Logger::Trace(e.what());
+			_client->Send_Msg(msgs::Messages::Turn_Illegal());
+			return false;
+		}
+	}
 
-				room->Set_Opponent_On_Turn(*_client);
-				_client->Send_Msg(msgs::Messages::Turn_Set(msgs::Messages::Client::kOpponent));
-				opponent.Send_Msg(msgs::Messages::Turn_Set(msgs::Messages::Client::kYou));
-				return false;
+	bool StateMachine::Handle_Salvo(const msgs::Message &msg) {
+		const std::shared_ptr<Room> room = _server.Get_Room(_client);
+		if (!room->Is_On_Turn(*_client)) {
+			util::Logger::Trace("Not Your Turn");
+			_client->Send_Msg(msgs::Messages::Turn_Not_You());
+			return false;
+		}
+
+		const std::string &fields = msg.Get_Param(0);
+		try {
+			const std::vector<std::pair<size_t, size_t>> fields_pos = Board::Deserialize_Fields(fields);
+			if (room->Get_Salvo_Size() == 1) {
+				throw std::invalid_argument{"Salvo In Classic Room"};
+			}
+			if (fields_pos.size() > room->Get_Salvo_Size()) {
+				throw std::invalid_argument{"Salvo Too Large"};
 			}
+
+			Client &opponent = room->Get_Opponent(*_client);
+			Board &board = room->Get_Board(opponent);
+			for (auto it = std::begin(fields_pos); it != std::end(fields_pos); ++it) {
+				if (board.Is_Guess(it->first, it->second)) {
+					throw std::invalid_argument{"Guessing Previously Guessed Field"};
+				}
+				if (board.Is_Invalidated(it->first, it->second)) {
+					throw std::invalid_argument{"Guessing Previously Invalidated Field"};
+				}
+				if (std::find(std::begin(fields_pos), it, *it) != it) {
+					throw std::invalid_argument{"Guessing Field Twice In Salvo"};
+				}
+			}
+
+			const std::vector<bool> hits = board.Salvo(fields_pos);
+			const bool is_all_hit = std::ranges::all_of(hits, [](bool hit) {return hit;});
+			util::Logger::Info("Salvo " + fields + (is_all_hit ? " All Hit" : " Not All Hit"));
+
+			_client->Send_Msg(msgs::Messages::Salvo_Result(fields_pos, hits));
+			room->Send_Event(opponent, msgs::Messages::Opponent_Salvo(fields_pos, hits));
+			return End_Turn(*room, opponent, is_all_hit);
 		}
 		catch (const std::invalid_argument &e) {
 			util::Logger::Trace(e.what());
 			_client->Send_Msg(msgs::Messages::Turn_Illegal());
 			return false;
 		}
+	}
 
-		return true;
+	bool StateMachine::End_Turn(Room &room, Client &opponent, bool keeps_turn) {
+		const Board &board = room.Get_Board(opponent);
+		for (const std::pair<size_t, size_t> &invalidated_field_pos : board.Get_Latest_Invalidated()) {
+			room.Send_Event(*_client, msgs::Messages::Invalidate_Field(msgs::Messages::Client::kOpponent, invalidated_field_pos.first, invalidated_field_pos.second));
+			room.Send_Event(opponent, msgs::Messages::Invalidate_Field(msgs::Messages::Client::kYou, invalidated_field_pos.first, invalidated_field_pos.second));
+		}
+
+		if (board.Is_All_Ships_Guessed()) {
+			util::Logger::Info("Game End " + room.Get_Code() + _client->Get_Nickname());
+
+			room.Send_Event(*_client, msgs::Messages::Game_End(msgs::Messages::Client::kYou));
+			room.Send_Event(opponent, msgs::Messages::Game_End(msgs::Messages::Client::kOpponent));
+
+			_client->Set_State(State::kIn_Room);
+			opponent.Set_State(State::kIn_Room);
+			room.Reset_Boards();
+			return false;
+		}
+
+		if (keeps_turn) {
+			return true;
+		}
+
+		room.Set_Opponent_On_Turn(*_client);
+		room.Send_Event(*_client, msgs::Messages::Turn_Set(msgs::Messages::Client::kOpponent));
+		room.Send_Event(opponent, msgs::Messages::Turn_Set(msgs::Messages::Client::kYou));
+		return false;
 	}
 
-} // game
\ No newline at end of file
+} // game
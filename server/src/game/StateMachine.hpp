@@ -37,9 +37,10 @@ namespace game {
 		static const std::map<State, std::set<msgs::MessageType>> kExpected_Msgs;
 		static const std::map<std::pair<State, msgs::MessageType>, State> kSuccess_Transitions;
 		static const std::map<std::pair<State, msgs::MessageType>, t_Handler> kHandlers;
+		static const std::map<msgs::MessageType, t_Handler> kAny_State_Handlers; /// Handlers of messages expected in any state (the state is kept)
 
 		static constexpr bool kIs_Timeout_Debug = false;
-		static constexpr std::chrono::seconds Timeout_Short{kIs_Timeout_Debug ? 300 : 15};
+		static constexpr int kTimeout_Keep_Alive_Intervals_Cnt{kIs_Timeout_Debug ? 60 : 3}; /// Receive timeout (short) in keep alive intervals
 
 		I_ServerOps &_server;
 		std::shared_ptr<Client> _client;
@@ -52,12 +53,26 @@ namespace game {
 		/// \return Message
 		msgs::Message Await_Msg() const;
 
+		bool Handle_Capabilities(const msgs::Message &msg);
 		bool Handle_Nickname_Set(const msgs::Message &msg);
+		bool Handle_Resume(const msgs::Message &msg);
+		bool Handle_Keep_Alive_Interval(const msgs::Message &msg);
+		bool Handle_Keep_Alive_Echo(const msgs::Message &msg);
+		bool Handle_Server_Load(const msgs::Message &msg);
 		bool Handle_Room_Create(const msgs::Message &msg);
 		bool Handle_Room_Join(const msgs::Message &msg);
 		bool Handle_Room_Leave(const msgs::Message &msg);
 		bool Handle_Board_Ready(const msgs::Message &msg);
 		bool Handle_Turn(const msgs::Message &msg);
+		bool Handle_Salvo(const msgs::Message &msg);
+
+		/// Ends the client's turn (or salvo) on the opponent's board
+		/// Sends invalidated fields, ends the game if all ships have been guessed, else passes the turn unless it is kept
+		/// \param room Room
+		/// \param opponent Opponent
+		/// \param keeps_turn True if the client stays on turn (hit, or all turns of a salvo hit)
+		/// \return True if the client stays on turn in the game
+		bool End_Turn(Room &room, Client &opponent, bool keeps_turn);
 	};
 
 } // game
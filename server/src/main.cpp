@@ -14,11 +14,13 @@ void Print_Info() {
 
 void Print_Help() {
 	std::cout << "Usage:" << std::endl;
-	std::cout << "\tbserver --ip=<ip> --port=<port> --lim-clients=<lim-clients> --lim-rooms=<lim-rooms>" << std::endl << std::endl;
+	std::cout << "\tbserver --ip=<ip> --port=<port> --lim-clients=<lim-clients> --lim-rooms=<lim-rooms> [--unix=<path>] [--node=<node>]" << std::endl << std::endl;
 	std::cout << "\t<ip>\t\t- IP on which the server listens for incoming connections" << std::endl;
 	std::cout << "\t<port>\t\t- Port on which the server listens for incoming connections" << std::endl;
 	std::cout << "\t<lim-clients>\t- Limit of actively connected clients" << std::endl;
 	std::cout << "\t<lim-rooms>\t- Limit of actively used game rooms" << std::endl;
+	std::cout << "\t<path>\t\t- Unix domain socket path on which the server listens as well (clients on the same host)" << std::endl;
+	std::cout << "\t<node>\t\t- Digit prefixing room codes, so that clients of several servers route them to this one" << std::endl;
 }
 
 int main(int argc, char **argv) {
@@ -34,7 +36,7 @@ int main(int argc, char **argv) {
 		CliArgsParser::Result args = CliArgsParser::Parse(argc, argv);
 
 		ntwrk::SocketAcceptor::Initialize();
-		Server server{args.ip, args.port, args.lim_clients, args.lim_rooms};
+		Server server{args.ip, args.port, args.lim_clients, args.lim_rooms, args.unix_path, args.node};
 		server.Serve();
 	} catch (const std::invalid_argument &e) {
 		util::Logger::Error(e.what());
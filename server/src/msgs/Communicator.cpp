@@ -7,7 +7,12 @@
 
 namespace msgs {
 
-	void Communicator::Send(const ntwrk::Socket &sock, const Message &msg) {
+	void Communicator::Send(const ntwrk::Socket &sock, const Message &msg, Framing framing) {
+		if (framing == Framing::kBinary) {
+			Send_Binary(sock, msg);
+			return;
+		}
+
 		const std::string text = msg.Serialize();
 		util::Logger::Trace("Communicator.Send " + text);
 
@@ -20,7 +25,11 @@ namespace msgs {
 		sock.Write_Byte(static_cast<std::byte>(kMsg_Delimiter));
 	}
 
-	Message Communicator::Recv(const ntwrk::Socket &sock) {
+	Message Communicator::Recv(const ntwrk::Socket &sock, Framing framing) {
+		if (framing == Framing::kBinary) {
+			return Recv_Binary(sock);
+		}
+
 		util::Logger::Trace("Communicator.Recv");
 		std::ostringstream osstream{};
 
@@ -48,4 +57,36 @@ namespace msgs {
 		return message;
 	}
 
+	void Communicator::Send_Binary(const ntwrk::Socket &sock, const Message &msg) {
+		util::Logger::Trace("Communicator.Send_Binary " + msg.Serialize());
+		std::string body;
+		try {
+			body = msg.Serialize_Binary();
+		}
+		catch (const IllegalMessageException &e) {
+			util::Logger::Error(e.what());
+			return;
+		}
+
+		std::string frame;
+		frame.reserve(kBinary_Header_Size + body.length());
+		frame.push_back(static_cast<char>(body.length() >> 8));
+		frame.push_back(static_cast<char>(body.length() & 0xFF));
+		frame.append(body);
+		sock.Write_Bytes(frame);
+	}
+
+	Message Communicator::Recv_Binary(const ntwrk::Socket &sock) {
+		util::Logger::Trace("Communicator.Recv_Binary");
+		const std::string header = sock.Read_Bytes(kBinary_Header_Size);
+		const size_t length = (static_cast<size_t>(static_cast<uint8_t>(header[0])) << 8) | static_cast<uint8_t>(header[1]);
+		if (length == 0) {
+			throw IllegalMessageException{"Empty Binary Message"};
+		}
+
+		Message message = Message::Deserialize_Binary(sock.Read_Bytes(length));
+		util::Logger::Trace("Received Msg: " + message.Serialize());
+		return message;
+	}
+
 } // msgs
@@ -9,24 +9,36 @@
 
 namespace msgs {
 
+	/// Messages Framing
+	enum class Framing {
+		kText,
+		kBinary
+	};
+
 	/// Messages Communicator
 	class Communicator {
 	public:
 		/// Sends the provided message using provided socket (does not block)
-		/// Escapes message delimiters (and escape characters)
+		/// Text framing escapes message delimiters (and escape characters), binary framing prefixes the body length (u16, big-endian)
 		/// Does not throw if socket is closed by the other side or if there is any other problem
 		/// \param sock Socket
 		/// \param msg Message
-		static void Send(const ntwrk::Socket &sock, const Message &msg);
+		/// \param framing Framing
+		static void Send(const ntwrk::Socket &sock, const Message &msg, Framing framing = Framing::kText);
 		/// Receives a message using provided socket (blocks)
 		/// \param sock Socket
+		/// \param framing Framing
 		/// \throws SocketException if socket is closed by the other side or if there is any other problem
 		/// \throws IllegalMessageException if it is unexpected/unknown incoming message (type, parameters count)
-		static Message Recv(const ntwrk::Socket &sock);
+		static Message Recv(const ntwrk::Socket &sock, Framing framing = Framing::kText);
 
 	private:
 		static constexpr char kEscape_Char = '\\';
 		static constexpr char kMsg_Delimiter = 0x0A;
+		static constexpr size_t kBinary_Header_Size = 2;
+
+		static void Send_Binary(const ntwrk::Socket &sock, const Message &msg);
+		static Message Recv_Binary(const ntwrk::Socket &sock);
 	};
 
 } // msgs
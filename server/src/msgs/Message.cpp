@@ -2,6 +2,8 @@
 
 #include <sstream>
 #include <regex>
+#include <cctype>
+#include <algorithm>
 
 #include "iostream"
 namespace msgs {
@@ -14,10 +16,21 @@ namespace msgs {
 		return _params[idx];
 	}
 
+	uint32_t Message::Get_Seq() const {
+		return _seq;
+	}
+
+	void Message::Set_Seq(uint32_t seq) {
+		_seq = seq;
+	}
+
 	std::string Message::Serialize() const  {
 		std::ostringstream osstream;
 
 		osstream << kMessageType_String.at(_type);
+		if (_seq != 0) {
+			osstream << kSeq_Delimiter << _seq;
+		}
 		for (const std::string &param : _params) {
 			osstream << kParam_Delimiter;
 			for (char c : param) {
@@ -92,4 +105,113 @@ namespace msgs {
 		return msg;
 	}
 
+	std::string Message::Serialize_Binary() const {
+		if (_params.size() > 0xFF) {
+			throw IllegalMessageException{"Too Many Message Parameters"};
+		}
+
+		std::string body;
+		if (_seq == 0) {
+			body.push_back(static_cast<char>(kMessageType_Code.at(_type)));
+		}
+		else {
+			body.push_back(static_cast<char>(kMessageType_Code.at(_type) | kSeq_Flag));
+			for (int shift = 24; shift >= 0; shift -= 8) {
+				body.push_back(static_cast<char>((_seq >> shift) & 0xFF));
+			}
+		}
+		body.push_back(static_cast<char>(_params.size()));
+		for (const std::string &param : _params) {
+			const auto it_token = std::ranges::find(kBinary_Tokens, param);
+			if (it_token != std::end(kBinary_Tokens)) {
+				body.push_back(static_cast<char>(kTag_Token));
+				body.push_back(static_cast<char>(it_token - std::begin(kBinary_Tokens)));
+				continue;
+			}
+
+			if (param.length() == 2 && std::isdigit(static_cast<unsigned char>(param[0])) && std::isdigit(static_cast<unsigned char>(param[1]))) {
+				body.push_back(static_cast<char>(kTag_Two_Digits));
+				body.push_back(static_cast<char>((param[0] - '0') * 10 + param[1] - '0'));
+				continue;
+			}
+
+			if (param.length() > kMax_Binary_Body_Size) {
+				throw IllegalMessageException{"Message Parameter Too Long"};
+			}
+			body.push_back(static_cast<char>(kTag_String));
+			body.push_back(static_cast<char>(param.length() >> 8));
+			body.push_back(static_cast<char>(param.length() & 0xFF));
+			body.append(param);
+		}
+
+		if (body.length() > kMax_Binary_Body_Size) {
+			throw IllegalMessageException{"Message Too Long"};
+		}
+		return body;
+	}
+
+	Message Message::Deserialize_Binary(const std::string &body) {
+		size_t pos = 0;
+		const auto Read_U8 = [&body, &pos]() -> uint8_t {
+			if (pos >= body.length()) {
+				throw IllegalMessageException{"Truncated Binary Message"};
+			}
+			return static_cast<uint8_t>(body[pos++]);
+		};
+
+		const uint8_t code = Read_U8();
+		const auto it_msg_type = std::ranges::find(kMessageType_Code, code, [](const auto &pair) -> uint8_t {
+			return pair.second;
+		});
+		if (it_msg_type == std::end(kMessageType_Code)) {
+			throw IllegalMessageException{"Unknown Message Type"};
+		}
+
+		const MessageType type = (*it_msg_type).first;
+		if (!kMessageType_Params_Cnt.contains(type)) {
+			throw IllegalMessageException{"Unexpected Message Type"};
+		}
+
+		Message msg{type};
+		const uint8_t params_cnt = Read_U8();
+		if (params_cnt != kMessageType_Params_Cnt.at(type)) {
+			throw IllegalMessageException{"Invalid Message Parameters Count"};
+		}
+
+		for (uint8_t i = 0; i < params_cnt; ++i) {
+			const uint8_t tag = Read_U8();
+			if (tag == kTag_Token) {
+				const uint8_t idx = Read_U8();
+				if (idx >= kBinary_Tokens.size()) {
+					throw IllegalMessageException{"Unknown Binary Token"};
+				}
+				msg.Store_Param(kBinary_Tokens[idx]);
+			}
+			else if (tag == kTag_Two_Digits) {
+				const uint8_t value = Read_U8();
+				if (value > 99) {
+					throw IllegalMessageException{"Invalid Two Digits Value"};
+				}
+				msg.Store_Param(std::string{static_cast<char>('0' + value / 10), static_cast<char>('0' + value % 10)});
+			}
+			else if (tag == kTag_String) {
+				const size_t length_high = Read_U8();
+				const size_t length = (length_high << 8) | Read_U8();
+				if (pos + length > body.length()) {
+					throw IllegalMessageException{"Truncated Binary Message"};
+				}
+				msg.Store_Param(body.substr(pos, length));
+				pos += length;
+			}
+			else {
+				throw IllegalMessageException{"Unknown Binary Tag"};
+			}
+		}
+
+		if (pos != body.length()) {
+			throw IllegalMessageException{"Trailing Binary Message Bytes"};
+		}
+		return msg;
+	}
+
 } // msgs
\ No newline at end of file
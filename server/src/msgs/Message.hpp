@@ -4,6 +4,7 @@
 #include <sstream>
 #include <map>
 #include <vector>
+#include <cstdint>
 #include <exception>
 
 #include "../game/Board.hpp"
@@ -59,7 +60,20 @@ namespace msgs {
 		kOpponent_Rejoin,
 		kRejoin,
 		kBoard_State,
-		kInvalidate_Field
+		kInvalidate_Field,
+		kCapabilities,
+		kBoard_State_Packed,
+		kResume_Token,
+		kResume,
+		kResumed,
+		kResume_Rejected,
+		kKeep_Alive_Interval,
+		kKeep_Alive_Echo,
+		kServer_Load,
+		kRoom_Create_Salvo,
+		kSalvo,
+		kSalvo_Result,
+		kOpponent_Salvo
 	};
 
 	/// Map Message Type -> String representation
@@ -96,7 +110,74 @@ namespace msgs {
 		{MessageType::kOpponent_Rejoin, "OPPONENT_REJOIN"},
 		{MessageType::kRejoin, "REJOIN"},
 		{MessageType::kBoard_State, "BOARD_STATE"},
-		{MessageType::kInvalidate_Field, "INVALIDATE_FIELD"}
+		{MessageType::kInvalidate_Field, "INVALIDATE_FIELD"},
+		{MessageType::kCapabilities, "CAPABILITIES"},
+		{MessageType::kBoard_State_Packed, "BOARD_STATE_PACKED"},
+		{MessageType::kResume_Token, "RESUME_TOKEN"},
+		{MessageType::kResume, "RESUME"},
+		{MessageType::kResumed, "RESUMED"},
+		{MessageType::kResume_Rejected, "RESUME_REJECTED"},
+		{MessageType::kKeep_Alive_Interval, "KEEP_ALIVE_INTERVAL"},
+		{MessageType::kKeep_Alive_Echo, "KEEP_ALIVE_ECHO"},
+		{MessageType::kServer_Load, "SERVER_LOAD"},
+		{MessageType::kRoom_Create_Salvo, "ROOM_CREATE_SALVO"},
+		{MessageType::kSalvo, "SALVO"},
+		{MessageType::kSalvo_Result, "SALVO_RESULT"},
+		{MessageType::kOpponent_Salvo, "OPPONENT_SALVO"}
+	};
+
+	/// Map Message Type -> Binary framing type code (shared with the client, NICKNAME_PROMPT is never sent)
+	static const std::map<MessageType, const uint8_t> kMessageType_Code {
+		{MessageType::kWelcome, 0},
+		{MessageType::kConn_Term, 1},
+		{MessageType::kKeep_Alive, 2},
+		{MessageType::kAck, 3},
+		{MessageType::kLimit_Clients, 4},
+		{MessageType::kNickname_Set, 5},
+		{MessageType::kNickname_Exists, 6},
+		{MessageType::kRoom_Create, 7},
+		{MessageType::kRoom_Created, 8},
+		{MessageType::kLimit_Rooms, 9},
+		{MessageType::kRoom_Join, 10},
+		{MessageType::kRoom_Full, 11},
+		{MessageType::kRoom_Not_Exists, 12},
+		{MessageType::kRoom_Leave, 13},
+		{MessageType::kBoard_Ready, 14},
+		{MessageType::kBoard_Illegal, 15},
+		{MessageType::kOpponent_Nickname_Set, 16},
+		{MessageType::kOpponent_Board_Ready, 17},
+		{MessageType::kOpponent_Room_Leave, 18},
+		{MessageType::kGame_Begin, 19},
+		{MessageType::kTurn_Set, 20},
+		{MessageType::kOpponent_No_Response, 21},
+		{MessageType::kTurn, 22},
+		{MessageType::kTurn_Result, 23},
+		{MessageType::kTurn_Illegal, 24},
+		{MessageType::kTurn_Not_You, 25},
+		{MessageType::kOpponent_Turn, 26},
+		{MessageType::kGame_End, 27},
+		{MessageType::kRejoin, 28},
+		{MessageType::kOpponent_Rejoin, 29},
+		{MessageType::kBoard_State, 30},
+		{MessageType::kInvalidate_Field, 31},
+		{MessageType::kCapabilities, 32},
+		{MessageType::kBoard_State_Packed, 33},
+		{MessageType::kResume_Token, 34},
+		{MessageType::kResume, 35},
+		{MessageType::kResumed, 36},
+		{MessageType::kResume_Rejected, 37},
+		{MessageType::kKeep_Alive_Interval, 38},
+		{MessageType::kKeep_Alive_Echo, 39},
+		{MessageType::kServer_Load, 40},
+		{MessageType::kRoom_Create_Salvo, 41},
+		{MessageType::kSalvo, 42},
+		{MessageType::kSalvo_Result, 43},
+		{MessageType::kOpponent_Salvo, 44}
+	};
+
+	/// Binary framing tokens (shared with the client), encoded by their index
+	static const std::vector<std::string> kBinary_Tokens {
+		"YOU", "OPPONENT", "HIT", "MISS", "SHORT", "LONG", "GAME", "ROOM", "NONE", "SHIP", "INVALIDATED"
 	};
 
 	/// Map Incoming Message Type -> Expected Parameters Count
@@ -108,7 +189,14 @@ namespace msgs {
 		{MessageType::kRoom_Join, 1},
 		{MessageType::kRoom_Leave, 0},
 		{MessageType::kBoard_Ready, game::Board::kShip_Fields_Cnt},
-		{MessageType::kTurn, 1}
+		{MessageType::kTurn, 1},
+		{MessageType::kCapabilities, 1},
+		{MessageType::kResume, 2},
+		{MessageType::kKeep_Alive_Interval, 1},
+		{MessageType::kKeep_Alive_Echo, 1},
+		{MessageType::kServer_Load, 0},
+		{MessageType::kRoom_Create_Salvo, 0},
+		{MessageType::kSalvo, 1}
 	};
 
 	/// Message
@@ -132,6 +220,13 @@ namespace msgs {
 		/// \return Idx'th parameter
 		const std::string &Get_Param(size_t idx) const;
 
+		/// Returns event sequence number
+		/// \return Sequence number (0 if the message is not a sequenced event)
+		uint32_t Get_Seq() const;
+		/// Sets event sequence number
+		/// \param seq Sequence number (0 if the message is not a sequenced event)
+		void Set_Seq(uint32_t seq);
+
 		/// Stores a message parameter
 		/// \param param Parameter
 		void Store_Param(const std::string &param) {
@@ -140,6 +235,7 @@ namespace msgs {
 
 		/// Serializes the message
 		/// Escapes parameters delimiters (and escape characters)
+		/// Sequenced event has the sequence number appended to the type (TYPE#seq)
 		/// \return Serialized message
 		std::string Serialize() const;
 		/// Deserializes a message
@@ -148,12 +244,35 @@ namespace msgs {
 		/// \return Message
 		static Message Deserialize(const std::string &str);
 
+		/// Serializes the message to a binary frame body
+		/// Body: u8 type code, u8 parameters count, parameters
+		/// Sequenced event has the type code high bit set and u32 sequence number following the type code
+		/// Parameter: u8 tag, then STRING u16 length + bytes, TOKEN u8 token index, TWO_DIGITS u8 value (big-endian)
+		/// \throws IllegalMessageException if the message does not fit a binary frame
+		/// \return Binary frame body
+		std::string Serialize_Binary() const;
+		/// Deserializes a message from a binary frame body
+		/// \param body Binary frame body
+		/// \throws IllegalMessageException if it is malformed or unexpected/unknown incoming message (type, parameters count)
+		/// \return Message
+		static Message Deserialize_Binary(const std::string &body);
+
+		/// Max binary frame body size
+		static constexpr size_t kMax_Binary_Body_Size = 0xFFFF;
+
 	private:
 		static constexpr char kEscape_Char = '\\';
 		static constexpr char kParam_Delimiter = '|';
+		static constexpr char kSeq_Delimiter = '#';
+		static constexpr uint8_t kSeq_Flag = 0x80;
+
+		static constexpr uint8_t kTag_String = 0;
+		static constexpr uint8_t kTag_Token = 1;
+		static constexpr uint8_t kTag_Two_Digits = 2;
 
 		MessageType _type;
 		std::vector<std::string> _params;
+		uint32_t _seq = 0;
 
 		template<typename T, typename ...Args>
 		void Store_Params(T &&param, Args &&...params) {
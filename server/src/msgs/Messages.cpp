@@ -1,5 +1,7 @@
 #include "Messages.hpp"
 
+#include <sstream>
+
 #include "../game/Board.hpp"
 
 
@@ -66,8 +68,8 @@ namespace msgs {
 		return {MessageType::kOpponent_Room_Leave};
 	}
 
-	Message Messages::Game_Begin() {
-		return {MessageType::kGame_Begin};
+	Message Messages::Game_Begin(size_t salvo_size) {
+		return {MessageType::kGame_Begin, salvo_size};
 	}
 
 	Message Messages::Turn_Set(Client client) {
@@ -106,40 +108,136 @@ namespace msgs {
 		return {MessageType::kRejoin, Get_State_Description(state), code};
 	}
 
-	Message Messages::Board_State(Client client, const game::Board &board) {
+	Message Messages::Board_State(Client client, const game::Board &board, const std::set<Capability> &capabilities) {
+		if (capabilities.contains(Capability::kPacked_Board)) {
+			return Board_State_Packed(client, board);
+		}
+
 		Message msg{MessageType::kBoard_State, Get_Client_Description(client)};
 		for (size_t row = 0; row < game::Board::kSize; row++) {
 			for (size_t col = 0; col < game::Board::kSize; col++) {
-				if (board.Is_Ship(row, col)) {
-					if (board.Is_Guess(row, col)) {
-						msg.Store_Param(Get_Turn_Res_Description(Turn_Res::kHit));
-					}
-					else {
-						if (client == Client::kYou) {
-							msg.Store_Param(Get_Field_Description(Field::kShip));
-						}
-						else {
-							msg.Store_Param(Get_Field_Description(Field::kNone));
-						}
-					}
-				} else {
-					if (board.Is_Guess(row, col)) {
-						msg.Store_Param(Get_Turn_Res_Description(Turn_Res::kMiss));
-					}
-					else if (board.Is_Invalidated(row, col)) {
-						msg.Store_Param(Get_Field_Description(Field::kInvalidated));
-					}
-					else {
-						msg.Store_Param(Get_Field_Description(Field::kNone));
-					}
-				}
+				msg.Store_Param(Get_Board_Field_Description(client, board, row, col));
 			}
 		}
 		return msg;
 	}
 
+	Message Messages::Board_State_Packed(Client client, const game::Board &board) {
+		std::string packed;
+		char run_field = 0;
+		size_t run_length = 0;
+		const auto Flush_Run = [&packed, &run_field, &run_length]() {
+			packed.push_back(run_field);
+			if (run_length > 1) {
+				packed.append(std::to_string(run_length));
+			}
+		};
+
+		for (size_t row = 0; row < game::Board::kSize; row++) {
+			for (size_t col = 0; col < game::Board::kSize; col++) {
+				const char field = Get_Board_Field_Description(client, board, row, col).front();
+				if (field == run_field) {
+					++run_length;
+					continue;
+				}
+
+				if (run_length > 0) {
+					Flush_Run();
+				}
+				run_field = field;
+				run_length = 1;
+			}
+		}
+		Flush_Run();
+
+		return {MessageType::kBoard_State_Packed, Get_Client_Description(client), packed};
+	}
+
+	std::string Messages::Get_Board_Field_Description(Client client, const game::Board &board, size_t row, size_t col) {
+		if (board.Is_Ship(row, col)) {
+			if (board.Is_Guess(row, col)) {
+				return Get_Turn_Res_Description(Turn_Res::kHit);
+			}
+			return Get_Field_Description(client == Client::kYou ? Field::kShip : Field::kNone);
+		}
+
+		if (board.Is_Guess(row, col)) {
+			return Get_Turn_Res_Description(Turn_Res::kMiss);
+		}
+		if (board.Is_Invalidated(row, col)) {
+			return Get_Field_Description(Field::kInvalidated);
+		}
+		return Get_Field_Description(Field::kNone);
+	}
+
+	Message Messages::Salvo_Result(const std::vector<std::pair<size_t, size_t>> &fields_pos, const std::vector<bool> &hits) {
+		return Salvo(MessageType::kSalvo_Result, fields_pos, hits);
+	}
+
+	Message Messages::Opponent_Salvo(const std::vector<std::pair<size_t, size_t>> &fields_pos, const std::vector<bool> &hits) {
+		return Salvo(MessageType::kOpponent_Salvo, fields_pos, hits);
+	}
+
+	Message Messages::Salvo(MessageType type, const std::vector<std::pair<size_t, size_t>> &fields_pos, const std::vector<bool> &hits) {
+		std::string fields;
+		std::string results;
+		for (size_t i = 0; i < hits.size(); ++i) {
+			fields.append(game::Board::Serialize_Field(fields_pos[i].first, fields_pos[i].second));
+			results.push_back(Get_Turn_Res_Description(hits[i] ? Turn_Res::kHit : Turn_Res::kMiss).front());
+		}
+		return {type, fields, results};
+	}
+
 	Message Messages::Invalidate_Field(Messages::Client client, size_t row, size_t col) {
 		return {MessageType::kInvalidate_Field, Get_Client_Description(client), game::Board::Serialize_Field(row, col)};
 	}
 
+	std::set<Messages::Capability> Messages::Parse_Capabilities(const std::string &str) {
+		std::set<Capability> capabilities;
+		std::istringstream isstream{str};
+		for (std::string name; std::getline(isstream, name, kCapabilities_Delimiter); ) {
+			for (const Capability capability : kCapabilities) {
+				if (Get_Capability_Description(capability) == name) {
+					capabilities.insert(capability);
+				}
+			}
+		}
+		return capabilities;
+	}
+
+	Message Messages::Capabilities(const std::set<Capability> &capabilities) {
+		std::string str;
+		for (const Capability capability : capabilities) {
+			if (!str.empty()) {
+				str.push_back(kCapabilities_Delimiter);
+			}
+			str.append(Get_Capability_Description(capability));
+		}
+		return {MessageType::kCapabilities, str};
+	}
+
+	Message Messages::Resume_Token(const std::string &token) {
+		return {MessageType::kResume_Token, token};
+	}
+
+	Message Messages::Resumed() {
+		return {MessageType::kResumed};
+	}
+
+	Message Messages::Resume_Rejected() {
+		return {MessageType::kResume_Rejected};
+	}
+
+	Message Messages::Keep_Alive_Interval(size_t interval_secs) {
+		return {MessageType::kKeep_Alive_Interval, interval_secs};
+	}
+
+	Message Messages::Keep_Alive_Echo(const std::string &timestamp) {
+		return {MessageType::kKeep_Alive_Echo, timestamp};
+	}
+
+	Message Messages::Server_Load(size_t clients_cnt, size_t lim_clients, size_t rooms_cnt, size_t lim_rooms, const std::string &node) {
+		return {MessageType::kServer_Load, clients_cnt, lim_clients, rooms_cnt, lim_rooms, node.empty() ? kNo_Node : node};
+	}
+
 } // msgs
\ No newline at end of file
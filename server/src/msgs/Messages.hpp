@@ -1,5 +1,7 @@
 #pragma once
 
+#include <set>
+
 #include "Message.hpp"
 #include "../game/Board.hpp"
 
@@ -82,6 +84,28 @@ namespace msgs {
 			}
 		}
 
+		/// Protocol Capability (negotiated by CAPABILITIES after WELCOME)
+		enum class Capability {
+			kBinary,
+			kPacked_Board,
+			kSequence
+		};
+
+		static std::string Get_Capability_Description(Capability capability) {
+			if (capability == Capability::kBinary) {
+				return "BINARY";
+			} else if (capability == Capability::kPacked_Board) {
+				return "PACKED_BOARD";
+			} else {
+				return "SEQUENCE";
+			}
+		}
+
+		/// Parses capabilities from a CAPABILITIES parameter, unknown capabilities are ignored
+		/// \param str String
+		/// \return Capabilities
+		static std::set<Capability> Parse_Capabilities(const std::string &str);
+
 		static Message Welcome();
 		static Message Ack();
 		static Message Keep_Alive();
@@ -96,7 +120,10 @@ namespace msgs {
 		static Message Opponent_Nickname_Set(const std::string &nickname);
 		static Message Opponent_Board_Ready();
 		static Message Opponent_Room_Leave();
-		static Message Game_Begin();
+		/// Constructs game begin
+		/// \param salvo_size Shots per turn (1 in a classic room)
+		/// \return Message
+		static Message Game_Begin(size_t salvo_size);
 		static Message Turn_Set(Client client);
 		static Message Turn_Result(size_t row, size_t col, Turn_Res res);
 		static Message Opponent_Turn(size_t row, size_t col, Turn_Res res);
@@ -106,8 +133,52 @@ namespace msgs {
 		static Message Opponent_No_Response(Duration duration);
 		static Message Opponent_Rejoin();
 		static Message Rejoin(State state, const std::string &code);
-		static Message Board_State(Client client, const game::Board &board);
+		/// Constructs board state, packed if the recipient has the PACKED_BOARD capability
+		/// \param client Board owner (from the recipient's view)
+		/// \param board Board
+		/// \param capabilities Recipient's capabilities
+		/// \return Message
+		static Message Board_State(Client client, const game::Board &board, const std::set<Capability> &capabilities);
+		/// Constructs packed board state
+		/// Fields (row-major) are run-length encoded, run is field's first letter (N, S, H, M, I) followed by its length if > 1
+		/// \param client Board owner (from the recipient's view)
+		/// \param board Board
+		/// \return Message
+		static Message Board_State_Packed(Client client, const game::Board &board);
 		static Message Invalidate_Field(Client client, size_t row, size_t col);
+		static Message Capabilities(const std::set<Capability> &capabilities);
+		static Message Resume_Token(const std::string &token);
+		static Message Resumed();
+		static Message Resume_Rejected();
+		static Message Keep_Alive_Interval(size_t interval_secs);
+		static Message Keep_Alive_Echo(const std::string &timestamp);
+		/// Constructs server load (for clients choosing among servers)
+		/// \param clients_cnt Connected clients count (the asking one included)
+		/// \param lim_clients Clients count limit
+		/// \param rooms_cnt Rooms count
+		/// \param lim_rooms Rooms count limit
+		/// \param node Node digit prefixing room codes (empty if none)
+		/// \return Message
+		static Message Server_Load(size_t clients_cnt, size_t lim_clients, size_t rooms_cnt, size_t lim_rooms, const std::string &node);
+		/// Constructs salvo result (all turns of a salvo aggregated)
+		/// Fields are concatenated, results are turn results' first letters (H, M), in the order of the turns
+		/// \param fields_pos Fields (row, col) of the performed turns
+		/// \param hits For each performed turn, true if hit, else false
+		/// \return Message
+		static Message Salvo_Result(const std::vector<std::pair<size_t, size_t>> &fields_pos, const std::vector<bool> &hits);
+		/// Constructs opponent salvo (the same form as salvo result)
+		/// \param fields_pos Fields (row, col) of the performed turns
+		/// \param hits For each performed turn, true if hit, else false
+		/// \return Message
+		static Message Opponent_Salvo(const std::vector<std::pair<size_t, size_t>> &fields_pos, const std::vector<bool> &hits);
+
+	private:
+		static constexpr char kCapabilities_Delimiter = ',';
+		static constexpr const char *kNo_Node = "NONE";
+		static constexpr Capability kCapabilities[] = {Capability::kBinary, Capability::kPacked_Board, Capability::kSequence};
+
+		static std::string Get_Board_Field_Description(Client client, const game::Board &board, size_t row, size_t col);
+		static Message Salvo(MessageType type, const std::vector<std::pair<size_t, size_t>> &fields_pos, const std::vector<bool> &hits);
 	};
 
 } // msgs
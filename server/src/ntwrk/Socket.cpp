@@ -42,4 +42,26 @@ namespace ntwrk {
 		write(_fd, &byte, 1);
 	}
 
+	std::string Socket::Read_Bytes(size_t cnt) const {
+		std::string bytes(cnt, '\0');
+		for (size_t pos = 0; pos < cnt; ) {
+			const ssize_t res = read(_fd, bytes.data() + pos, cnt - pos);
+			if (res <= 0) {
+				throw SocketException{"Cannot Read From Socket"};
+			}
+			pos += res;
+		}
+		return bytes;
+	}
+
+	void Socket::Write_Bytes(const std::string &bytes) const {
+		for (size_t pos = 0; pos < bytes.length(); ) {
+			const ssize_t res = write(_fd, bytes.data() + pos, bytes.length() - pos);
+			if (res <= 0) {
+				return;
+			}
+			pos += res;
+		}
+	}
+
 } // ntwrk
\ No newline at end of file
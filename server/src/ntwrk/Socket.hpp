@@ -43,6 +43,16 @@ namespace ntwrk {
 		/// \param byte
 		void Write_Byte(std::byte byte) const;
 
+		/// Reads exactly cnt bytes (blocks)
+		/// \throws SocketException if socket is closed by the other side or if there is any other problem
+		/// \param cnt Bytes count
+		/// \return Bytes
+		std::string Read_Bytes(size_t cnt) const;
+		/// Writes bytes (does not block)
+		/// Does not throw if socket is closed by the other side or if there is any other problem
+		/// \param bytes Bytes
+		void Write_Bytes(const std::string &bytes) const;
+
 	private:
 		int _fd;
 	};
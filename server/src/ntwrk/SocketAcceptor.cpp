@@ -2,7 +2,10 @@
 #include "../util/Logger.hpp"
 
 #include <unistd.h>
+#include <poll.h>
 #include <sys/socket.h>
+#include <sys/un.h>
+#include <cstring>
 #include <netdb.h>
 #include <signal.h>
 
@@ -35,15 +38,45 @@ namespace ntwrk {
 			throw SocketException{"Cannot Bind Socket Acceptor"};
 		}
 
-		if (listen(_socket, backlog) == -1) {
-			throw SocketException{"Cannot Listen On Socket Acceptor"};
+		Listen(backlog);
+	}
+
+	SocketAcceptor::SocketAcceptor(const UnixPath &unix_path, int backlog) : _unix_path(unix_path.path) {
+		util::Logger::Trace("SocketAcceptor.SocketAcceptor " + _unix_path);
+		sockaddr_un sock_addr{};
+		if (_unix_path.empty() || _unix_path.length() >= sizeof(sock_addr.sun_path)) {
+			throw SocketException{"Invalid Unix Socket Path"};
+		}
+
+		_socket = socket(AF_UNIX, SOCK_STREAM, 0);
+		if (_socket == -1) {
+			throw SocketException{"Cannot Bind Socket Acceptor"};
 		}
+
+		sock_addr.sun_family = AF_UNIX;
+		std::strncpy(sock_addr.sun_path, _unix_path.c_str(), sizeof(sock_addr.sun_path) - 1);
+
+		unlink(_unix_path.c_str());
+		if (bind(_socket, reinterpret_cast<sockaddr *>(&sock_addr), sizeof(sock_addr)) == -1) {
+			throw SocketException{"Cannot Bind Socket Acceptor"};
+		}
+
+		Listen(backlog);
 	}
 
 	SocketAcceptor::~SocketAcceptor() {
 		if (_socket != -1) {
 			close(_socket);
 		}
+		if (!_unix_path.empty()) {
+			unlink(_unix_path.c_str());
+		}
+	}
+
+	void SocketAcceptor::Listen(int backlog) const {
+		if (listen(_socket, backlog) == -1) {
+			throw SocketException{"Cannot Listen On Socket Acceptor"};
+		}
 	}
 
 	Socket SocketAcceptor::Accept() const {
@@ -58,6 +91,24 @@ namespace ntwrk {
 		return Socket{fd};
 	}
 
+	Socket SocketAcceptor::Accept_Any(const std::vector<const SocketAcceptor *> &acceptors) {
+		std::vector<pollfd> fds;
+		for (const SocketAcceptor *acceptor : acceptors) {
+			fds.push_back({acceptor->_socket, POLLIN, 0});
+		}
+
+		if (poll(fds.data(), fds.size(), -1) == -1) {
+			throw SocketException{"Cannot Poll Socket Acceptors"};
+		}
+
+		for (size_t i = 0; i < fds.size(); ++i) {
+			if (fds[i].revents != 0) {
+				return acceptors[i]->Accept();
+			}
+		}
+		throw SocketException{"Cannot Accept Socket Connection"};
+	}
+
 	in_addr_t SocketAcceptor::Compute_Sock_Addr(const std::string &addr) {
 		addrinfo hints{}, *res = nullptr;
 		hints.ai_family = AF_INET; // IPv4
@@ -3,6 +3,7 @@
 #include "Socket.hpp"
 
 #include <string>
+#include <vector>
 #include <netinet/in.h>
 
 
@@ -23,6 +24,16 @@ namespace ntwrk {
 		/// \param backlog Incoming connections backlog
 		SocketAcceptor(const std::string &addr, uint16_t port, int backlog = kDef_Backlog);
 
+		/// Unix Domain Socket Path
+		struct UnixPath {
+			std::string path;
+		};
+
+		/// Initializes the unix domain socket acceptor (for clients on the same host), replaces a stale socket file
+		/// \param unix_path Socket file path to bind to and listen on for incoming connections
+		/// \param backlog Incoming connections backlog
+		explicit SocketAcceptor(const UnixPath &unix_path, int backlog = kDef_Backlog);
+
 		SocketAcceptor(const SocketAcceptor &other) = delete;
 		SocketAcceptor &operator=(const SocketAcceptor &other) = delete;
 
@@ -32,8 +43,16 @@ namespace ntwrk {
 		/// \return Socket
 		Socket Accept() const;
 
+		/// Returns socket connection accepted by any of the acceptors (blocks until any has a pending connection)
+		/// \param acceptors Acceptors
+		/// \return Socket
+		static Socket Accept_Any(const std::vector<const SocketAcceptor *> &acceptors);
+
 	private:
 		int _socket;
+		std::string _unix_path;
+
+		void Listen(int backlog) const;
 
 		static in_addr_t Compute_Sock_Addr(const std::string &addr);
 	};
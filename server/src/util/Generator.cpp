@@ -1,6 +1,8 @@
 #include "Generator.hpp"
 
 #include <random>
+#include <sstream>
+#include <iomanip>
 
 
 namespace util {
@@ -9,4 +11,16 @@ namespace util {
 		return a + std::rand() % (b - a + 1);
 	}
 
+	std::string Generator::Token(size_t bytes_cnt) {
+		static std::random_device device;
+		std::uniform_int_distribution<unsigned int> distribution{0, 0xFF};
+
+		std::ostringstream osstream;
+		osstream << std::hex << std::setfill('0');
+		for (size_t i = 0; i < bytes_cnt; ++i) {
+			osstream << std::setw(2) << distribution(device);
+		}
+		return osstream.str();
+	}
+
 } // util
\ No newline at end of file
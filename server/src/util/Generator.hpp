@@ -1,6 +1,7 @@
 #pragma once
 
 #include <random>
+#include <string>
 
 
 namespace util {
@@ -13,6 +14,10 @@ namespace util {
 		/// \param b b
 		/// \return Random number
 		static size_t From_Range(size_t a, size_t b);
+		/// Generates an unpredictable token (from the random device)
+		/// \param bytes_cnt Count of random bytes
+		/// \return Token (bytes in lowercase hex)
+		static std::string Token(size_t bytes_cnt);
 	};
 
 } // util